@@ -0,0 +1,43 @@
+plugins {
+    id("smartbrainlib-convention")
+
+    alias(libs.plugins.moddevgradle)
+    alias(libs.plugins.jmh)
+}
+
+val modDisplayName     : String by project
+val mcVersion          = libs.versions.minecraft.asProvider().get()
+val parchmentMcVersion = libs.versions.parchment.minecraft.get()
+val parchmentVersion   = libs.versions.parchment.asProvider().get()
+
+base {
+    archivesName = "${modDisplayName}-benchmarks-${mcVersion}"
+}
+
+neoForge {
+    neoFormVersion = libs.versions.neoform.get()
+
+    accessTransformers.files.setFrom(project(":common").file("src/main/resources/META-INF/accesstransformer.cfg"))
+    parchment.minecraftVersion.set(parchmentMcVersion)
+    parchment.mappingsVersion.set(parchmentVersion)
+
+    addModdingDependenciesTo(sourceSets.getByName("jmh"))
+}
+
+dependencies {
+    jmhImplementation(project(":common"))
+    jmhImplementation(libs.mockito)
+}
+
+jmh {
+    jmhVersion = libs.versions.jmh.get()
+    fork = 1
+    warmupIterations = 3
+    iterations = 5
+    // Mockito attaches its inline mock maker as an agent at runtime
+    jvmArgsAppend.add("-XX:+EnableDynamicAgentLoading")
+}
+
+tasks.withType<PublishToMavenRepository>().configureEach {
+    enabled = false
+}
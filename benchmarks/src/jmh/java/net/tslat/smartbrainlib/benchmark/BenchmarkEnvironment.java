@@ -0,0 +1,167 @@
+package net.tslat.smartbrainlib.benchmark;
+
+import net.minecraft.SharedConstants;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.Bootstrap;
+import net.minecraft.server.level.ServerChunkCache;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.decoration.ArmorStand;
+import net.minecraft.world.level.ClipContext;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.chunk.PalettedContainer;
+import net.minecraft.world.level.chunk.PalettedContainerRO;
+import net.minecraft.world.level.entity.EntityLookup;
+import net.minecraft.world.level.entity.EntitySectionStorage;
+import net.minecraft.world.level.entity.LevelEntityGetterAdapter;
+import net.minecraft.world.level.entity.Visibility;
+import net.minecraft.world.level.material.Fluids;
+import net.minecraft.world.phys.BlockHitResult;
+import net.tslat.smartbrainlib.SBLConstants;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Headless world setup for the benchmarks.
+ * <p>
+ * The game registries are bootstrapped as normal, but the level itself is a mock.<br>
+ * It has a real entity section storage, a flat world of stone below y = 0 and air above it, and a game time that only moves when {@link #advanceTime()} is called.
+ * <p>
+ * Every chunk is a mock backed by two real chunk sections, one of stone and one of air, so that code reading sections directly (such as line of sight and navigator traversal checks)
+ * walks real block palettes rather than getting null sections back.<br>
+ * Chunks are available both on and off the server thread, the same as fully loaded chunks in a real level.
+ */
+public final class BenchmarkEnvironment {
+	private static final int MIN_Y = -64;
+	private static final int HEIGHT = 384;
+	private static boolean bootstrapped = false;
+
+	public final ServerLevel level;
+	public final EntityLookup<Entity> entityLookup = new EntityLookup<>();
+	public final EntitySectionStorage<Entity> entityStorage = new EntitySectionStorage<>(Entity.class, sectionPos -> Visibility.TICKING);
+	private final AtomicLong gameTime = new AtomicLong();
+
+	private BenchmarkEnvironment() {
+		this.level = mock(ServerLevel.class);
+
+		when(this.level.getGameTime()).thenAnswer(invocation -> this.gameTime.get());
+		when(this.level.getEntities()).thenReturn(new LevelEntityGetterAdapter<>(this.entityLookup, this.entityStorage));
+		when(this.level.getBlockState(any(BlockPos.class))).thenAnswer(invocation -> invocation.<BlockPos>getArgument(0).getY() < 0 ? Blocks.STONE.defaultBlockState() : Blocks.AIR.defaultBlockState());
+		when(this.level.getFluidState(any(BlockPos.class))).thenReturn(Fluids.EMPTY.defaultFluidState());
+		when(this.level.clip(any(ClipContext.class))).thenAnswer(invocation -> BlockHitResult.miss(invocation.<ClipContext>getArgument(0).getTo(), Direction.UP, BlockPos.ZERO));
+
+		mockChunks();
+	}
+
+	/**
+	 * Back every chunk in the level with a mock chunk holding real sections, and give the level vanilla's overworld build height
+	 */
+	private void mockChunks() {
+		final LevelChunkSection stoneSection = createSection(Blocks.STONE.defaultBlockState());
+		final LevelChunkSection airSection = createSection(Blocks.AIR.defaultBlockState());
+		final LevelChunk chunk = mock(LevelChunk.class);
+		final ServerChunkCache chunkSource = mock(ServerChunkCache.class);
+
+		when(this.level.getMinY()).thenReturn(MIN_Y);
+		when(this.level.getHeight()).thenReturn(HEIGHT);
+		when(this.level.getMaxY()).thenCallRealMethod();
+		when(this.level.getMinSectionY()).thenCallRealMethod();
+		when(this.level.getMaxSectionY()).thenCallRealMethod();
+		when(this.level.getSectionsCount()).thenCallRealMethod();
+		when(this.level.getSectionIndex(anyInt())).thenCallRealMethod();
+		when(this.level.getSectionIndexFromSectionY(anyInt())).thenCallRealMethod();
+		when(this.level.getSectionYFromSectionIndex(anyInt())).thenCallRealMethod();
+		when(this.level.isOutsideBuildHeight(anyInt())).thenCallRealMethod();
+
+		when(chunk.getSection(anyInt())).thenAnswer(invocation -> this.level.getSectionYFromSectionIndex(invocation.<Integer>getArgument(0)) < 0 ? stoneSection : airSection);
+		when(chunk.getBlockState(any(BlockPos.class))).thenAnswer(invocation -> this.level.getBlockState(invocation.getArgument(0)));
+		when(chunk.getFluidState(any(BlockPos.class))).thenReturn(Fluids.EMPTY.defaultFluidState());
+
+		when(chunkSource.getChunkNow(anyInt(), anyInt())).thenReturn(chunk);
+		when(chunkSource.getChunkForLighting(anyInt(), anyInt())).thenReturn(chunk);
+		when(this.level.getChunkSource()).thenReturn(chunkSource);
+		when(this.level.getChunk(anyInt(), anyInt())).thenReturn(chunk);
+		when(this.level.getChunkAt(any(BlockPos.class))).thenReturn(chunk);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static LevelChunkSection createSection(BlockState state) {
+		final PalettedContainer<BlockState> states = new PalettedContainer<>(Blocks.AIR.defaultBlockState(), PalettedContainer.Strategy.createForBlockStates(Block.BLOCK_STATE_REGISTRY));
+		final LevelChunkSection section = new LevelChunkSection(states, mock(PalettedContainerRO.class));
+
+		if (!state.isAir()) {
+			for (int y = 0; y < 16; y++) {
+				for (int z = 0; z < 16; z++) {
+					for (int x = 0; x < 16; x++) {
+						section.setBlockState(x, y, z, state, false);
+					}
+				}
+			}
+		}
+
+		return section;
+	}
+
+	/**
+	 * Bootstrap the game registries if needed, then create a new empty benchmark world
+	 */
+	public static BenchmarkEnvironment create() {
+		if (!bootstrapped) {
+			SharedConstants.tryDetectVersion();
+			Bootstrap.bootStrap();
+			SBLConstants.SBL_LOADER.init(null);
+
+			bootstrapped = true;
+		}
+
+		return new BenchmarkEnvironment();
+	}
+
+	/**
+	 * Move the level's game time forward by one tick
+	 */
+	public long advanceTime() {
+		return this.gameTime.incrementAndGet();
+	}
+
+	/**
+	 * Add an entity to the level's entity storage, so that it can be found by entity searches
+	 */
+	public <T extends Entity> T addEntity(T entity) {
+		this.entityLookup.add(entity);
+		this.entityStorage.getOrCreateSection(SectionPos.asLong(entity.blockPosition())).add(entity);
+
+		return entity;
+	}
+
+	/**
+	 * Fill the level with armor stands spread randomly around the origin, on the surface of the world
+	 *
+	 * @param count The number of entities to add
+	 * @param radius The horizontal radius around the origin to spread them across
+	 * @param seed The seed for their positions, so that runs are repeatable
+	 */
+	public void populate(int count, double radius, long seed) {
+		Random random = new Random(seed);
+
+		for (int i = 0; i < count; i++) {
+			ArmorStand entity = new ArmorStand(EntityType.ARMOR_STAND, this.level);
+
+			entity.setPos(random.nextDouble(-radius, radius), 0, random.nextDouble(-radius, radius));
+			addEntity(entity);
+		}
+	}
+}
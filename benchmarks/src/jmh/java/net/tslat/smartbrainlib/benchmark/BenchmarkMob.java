@@ -0,0 +1,77 @@
+package net.tslat.smartbrainlib.benchmark;
+
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.PathfinderMob;
+import net.minecraft.world.entity.ai.Brain;
+import net.minecraft.world.entity.ai.behavior.Behavior;
+import net.minecraft.world.level.Level;
+import net.tslat.smartbrainlib.api.SmartBrainOwner;
+import net.tslat.smartbrainlib.api.core.BrainActivityGroup;
+import net.tslat.smartbrainlib.api.core.SmartBrainProvider;
+import net.tslat.smartbrainlib.api.core.behaviour.custom.look.LookAtTarget;
+import net.tslat.smartbrainlib.api.core.behaviour.custom.misc.Idle;
+import net.tslat.smartbrainlib.api.core.behaviour.custom.move.MoveToWalkTarget;
+import net.tslat.smartbrainlib.api.core.behaviour.custom.target.InvalidateAttackTarget;
+import net.tslat.smartbrainlib.api.core.behaviour.custom.target.SetRandomLookTarget;
+import net.tslat.smartbrainlib.api.core.sensor.ExtendedSensor;
+import net.tslat.smartbrainlib.api.core.sensor.vanilla.NearbyLivingEntitySensor;
+import net.tslat.smartbrainlib.api.core.sensor.vanilla.NearbyPlayersSensor;
+
+import java.util.List;
+
+/**
+ * Synthetic SmartBrain entity for benchmarking, using the zombie's entity type for its attributes and dimensions.
+ * <p>
+ * The brain is built during the super constructor, so the number of behaviours is taken from {@link #behaviourCount} at the time of construction.
+ * Behaviours are a repeating mix of ones that start and keep running, ones that start and stop each tick, and ones that never meet their memory requirements.
+ */
+@SuppressWarnings("unchecked")
+public class BenchmarkMob extends PathfinderMob implements SmartBrainOwner<BenchmarkMob> {
+	static int behaviourCount = 8;
+
+	protected BenchmarkMob(Level level) {
+		super((EntityType<? extends PathfinderMob>)(EntityType<?>)EntityType.ZOMBIE, level);
+	}
+
+	/**
+	 * Create a new benchmark mob with the given number of core behaviours
+	 */
+	public static BenchmarkMob create(Level level, int behaviours) {
+		behaviourCount = behaviours;
+
+		return new BenchmarkMob(level);
+	}
+
+	@Override
+	protected void registerGoals() {}
+
+	@Override
+	protected Brain.Provider<?> brainProvider() {
+		return new SmartBrainProvider<>(this, true);
+	}
+
+	@Override
+	public List<? extends ExtendedSensor<? extends BenchmarkMob>> getSensors() {
+		return ObjectArrayList.of(
+				new NearbyPlayersSensor<>(),
+				new NearbyLivingEntitySensor<>());
+	}
+
+	@Override
+	public BrainActivityGroup<? extends BenchmarkMob> getCoreTasks() {
+		Behavior<? super BenchmarkMob>[] behaviours = new Behavior[behaviourCount];
+
+		for (int i = 0; i < behaviourCount; i++) {
+			behaviours[i] = switch (i % 5) {
+				case 0 -> new SetRandomLookTarget<>();
+				case 1 -> new LookAtTarget<>().runFor(entity -> 20);
+				case 2 -> new Idle<>().runFor(entity -> 10);
+				case 3 -> new MoveToWalkTarget<>();
+				default -> new InvalidateAttackTarget<>();
+			};
+		}
+
+		return BrainActivityGroup.coreTasks(behaviours);
+	}
+}
@@ -0,0 +1,54 @@
+package net.tslat.smartbrainlib.benchmark;
+
+import com.mojang.datafixers.util.Pair;
+import com.mojang.serialization.Codec;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.ai.memory.MemoryModuleType;
+import net.minecraft.world.entity.ai.sensing.SensorType;
+import net.minecraft.world.level.Level;
+import net.tslat.smartbrainlib.SBLLoader;
+import net.tslat.smartbrainlib.api.core.sensor.ExtendedSensor;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Headless loader for the benchmark environment.<br>
+ * Memory and sensor types are created without being registered, as the built-in registries are frozen once bootstrapped
+ */
+public final class BenchmarkSBLLoader implements SBLLoader {
+	@Override
+	public void init(Object eventBus) {}
+
+	@Override
+	public boolean isDevEnv() {
+		return false;
+	}
+
+	@Override
+	public Pair<Collection<? extends Entity>, Function<Entity, ? extends Entity>> getPartEntities(Level level) {
+		return Pair.of(List.of(), Function.identity());
+	}
+
+	@Override
+	public <T> Supplier<MemoryModuleType<T>> registerMemoryType(String id) {
+		return registerMemoryType(id, Optional.empty());
+	}
+
+	@Override
+	public <T> Supplier<MemoryModuleType<T>> registerMemoryType(String id, Optional<Codec<T>> codec) {
+		MemoryModuleType<T> memoryType = new MemoryModuleType<>(codec);
+
+		return () -> memoryType;
+	}
+
+	@Override
+	public <T extends ExtendedSensor<?>> Supplier<SensorType<T>> registerSensorType(String id, Supplier<T> sensor) {
+		SensorType<T> sensorType = new SensorType<>(sensor);
+
+		return () -> sensorType;
+	}
+}
@@ -0,0 +1,52 @@
+package net.tslat.smartbrainlib.benchmark;
+
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.phys.AABB;
+import net.minecraft.world.phys.Vec3;
+import net.tslat.smartbrainlib.util.EntityRetrievalUtil;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity searches through {@link EntityRetrievalUtil}, against a level populated with entities spread across several chunk sections
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EntityRetrievalBenchmark {
+	@Param({"10", "100", "1000"})
+	public int entityCount;
+	@Param({"8", "32"})
+	public double radius;
+
+	private BenchmarkEnvironment environment;
+	private AABB bounds;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		this.environment = BenchmarkEnvironment.create();
+		this.bounds = new AABB(Vec3.ZERO, Vec3.ZERO).inflate(this.radius);
+
+		this.environment.populate(this.entityCount, 48, 0);
+	}
+
+	@Benchmark
+	public List<LivingEntity> getEntities() {
+		return EntityRetrievalUtil.getEntities(this.environment.level, this.bounds, LivingEntity.class, entity -> entity.isAlive());
+	}
+
+	@Benchmark
+	public Optional<LivingEntity> getNearestEntity() {
+		return EntityRetrievalUtil.getNearestEntity(this.environment.level, this.bounds, Vec3.ZERO, LivingEntity.class, entity -> entity.isAlive());
+	}
+
+	@Benchmark
+	public void streamEntities(Blackhole blackhole) {
+		EntityRetrievalUtil.streamEntities(this.environment.level, this.bounds, Entity.class).forEach(blackhole::consume);
+	}
+}
@@ -0,0 +1,53 @@
+package net.tslat.smartbrainlib.benchmark;
+
+import net.minecraft.world.entity.Mob;
+import net.minecraft.world.level.pathfinder.Path;
+import net.minecraft.world.phys.Vec3;
+import net.tslat.smartbrainlib.api.core.navigation.ExtendedNavigator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ExtendedNavigator#isCollisionFreeTraversal} across flat, open ground, so that every column along the traversal is checked
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class NavigatorTraversalBenchmark {
+	@Param({"2", "8", "24"})
+	public double distance;
+
+	private ExtendedNavigator navigator;
+	private Vec3 traversalVector;
+	private Vec3 minBoundsPos;
+	private Vec3 leadingEdgePos;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		BenchmarkEnvironment environment = BenchmarkEnvironment.create();
+		BenchmarkMob mob = environment.addEntity(BenchmarkMob.create(environment.level, 0));
+
+		mob.setPos(0.5, 0, 0.5);
+
+		this.navigator = new ExtendedNavigator() {
+			@Override
+			public Mob getMob() {
+				return mob;
+			}
+
+			@Override
+			public Path getPath() {
+				return null;
+			}
+		};
+		this.traversalVector = new Vec3(this.distance, 0, this.distance * 0.5);
+		this.minBoundsPos = mob.getBoundingBox().getMinPosition();
+		this.leadingEdgePos = mob.getBoundingBox().getMaxPosition();
+	}
+
+	@Benchmark
+	public boolean isCollisionFreeTraversal() {
+		return this.navigator.isCollisionFreeTraversal(this.traversalVector, this.minBoundsPos, this.leadingEdgePos);
+	}
+}
@@ -0,0 +1,33 @@
+package net.tslat.smartbrainlib.benchmark;
+
+import net.tslat.smartbrainlib.object.SBLShufflingList;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Weighted shuffling of a {@link SBLShufflingList}, as done by random-order behaviour groups each time they start
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ShufflingListBenchmark {
+	@Param({"4", "16", "64"})
+	public int size;
+
+	private SBLShufflingList<Integer> list;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		this.list = new SBLShufflingList<>(this.size);
+
+		for (int i = 0; i < this.size; i++) {
+			this.list.add(i, 1 + i % 5);
+		}
+	}
+
+	@Benchmark
+	public SBLShufflingList<Integer> shuffle() {
+		return this.list.shuffle();
+	}
+}
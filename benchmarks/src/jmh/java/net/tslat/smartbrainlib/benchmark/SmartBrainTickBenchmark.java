@@ -0,0 +1,37 @@
+package net.tslat.smartbrainlib.benchmark;
+
+import net.minecraft.world.phys.Vec3;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full SmartBrain tick, including sensors, memory expiry, activity selection, and behaviour starting, ticking and stopping
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SmartBrainTickBenchmark {
+	@Param({"4", "16", "64"})
+	public int behaviours;
+	@Param({"0", "50"})
+	public int nearbyEntities;
+
+	private BenchmarkEnvironment environment;
+	private BenchmarkMob mob;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		this.environment = BenchmarkEnvironment.create();
+		this.mob = this.environment.addEntity(BenchmarkMob.create(this.environment.level, this.behaviours));
+
+		this.mob.setPos(Vec3.ZERO);
+		this.environment.populate(this.nearbyEntities, 16, 0);
+	}
+
+	@Benchmark
+	public void tick() {
+		this.environment.advanceTime();
+		this.mob.tickBrain(this.mob);
+	}
+}
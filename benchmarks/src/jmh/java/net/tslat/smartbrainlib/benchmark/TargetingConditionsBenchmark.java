@@ -0,0 +1,49 @@
+package net.tslat.smartbrainlib.benchmark;
+
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.decoration.ArmorStand;
+import net.tslat.smartbrainlib.object.ExtendedTargetingConditions;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ExtendedTargetingConditions#test} for look and attack targets.<br>
+ * Line of sight checks walk the benchmark environment's real air sections, so their cost is included in the results
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TargetingConditionsBenchmark {
+	private final ExtendedTargetingConditions lookTarget = ExtendedTargetingConditions.forLookTarget().withFollowRange();
+	private final ExtendedTargetingConditions lookTargetNoSight = ExtendedTargetingConditions.forLookTarget().withFollowRange().ignoreLineOfSight();
+	private final ExtendedTargetingConditions attackTarget = ExtendedTargetingConditions.forAttackTarget().withRange(16);
+
+	private BenchmarkMob mob;
+	private ArmorStand target;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		BenchmarkEnvironment environment = BenchmarkEnvironment.create();
+		this.mob = environment.addEntity(BenchmarkMob.create(environment.level, 0));
+		this.target = environment.addEntity(new ArmorStand(EntityType.ARMOR_STAND, environment.level));
+
+		this.mob.setPos(0, 0, 0);
+		this.target.setPos(5, 0, 5);
+	}
+
+	@Benchmark
+	public boolean lookTarget() {
+		return this.lookTarget.test(this.mob, this.target);
+	}
+
+	@Benchmark
+	public boolean lookTargetIgnoringLineOfSight() {
+		return this.lookTargetNoSight.test(this.mob, this.target);
+	}
+
+	@Benchmark
+	public boolean attackTarget() {
+		return this.attackTarget.test(this.mob, this.target);
+	}
+}
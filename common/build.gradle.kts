@@ -28,11 +28,21 @@ neoForge {
 
     parchment.minecraftVersion.set(parchmentMcVersion)
     parchment.mappingsVersion.set(parchmentVersion)
+
+    addModdingDependenciesTo(sourceSets.test.get())
 }
 
 dependencies {
     compileOnly(libs.mixin)
     compileOnly(libs.mixinextras.common)
+
+    testImplementation(platform(libs.junit.bom))
+    testImplementation(libs.junit.jupiter)
+    testRuntimeOnly(libs.junit.platform.launcher)
+}
+
+tasks.test {
+    useJUnitPlatform()
 }
 
 publishing {
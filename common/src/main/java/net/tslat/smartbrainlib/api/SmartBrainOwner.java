@@ -10,6 +10,7 @@ import net.minecraft.world.entity.Mob;
 import net.minecraft.world.entity.ai.Brain;
 import net.minecraft.world.entity.schedule.Activity;
 import net.tslat.smartbrainlib.api.core.BrainActivityGroup;
+import net.tslat.smartbrainlib.api.core.BrainLodPolicy;
 import net.tslat.smartbrainlib.api.core.SmartBrain;
 import net.tslat.smartbrainlib.api.core.schedule.SmartBrainSchedule;
 import net.tslat.smartbrainlib.api.core.sensor.ExtendedSensor;
@@ -159,6 +160,49 @@ public interface SmartBrainOwner<T extends LivingEntity & SmartBrainOwner<T>> {
 		return null;
 	}
 
+	/**
+	 * Override this to return the {@link BrainLodPolicy level-of-detail policy} for your entity, to reduce how often its brain ticks when far from players.
+	 * <p>
+	 * Defaults to the {@link BrainLodPolicy#setDefault global default}, which is null (no throttling) unless set.<br>
+	 * This is checked every tick, so it can also be used to switch throttling off while the entity is doing something that needs a full tick rate
+	 *
+	 * @return The level-of-detail policy for the brain, or null to tick the brain every tick
+	 */
+	@Nullable
+	default BrainLodPolicy getBrainLodPolicy() {
+		return BrainLodPolicy.getDefault();
+	}
+
+	/**
+	 * Override this to allow your entity's brain to go dormant after the given number of brain ticks with no activity.<br>
+	 * The brain is considered inactive while no behaviours start, no behaviours other than those that don't {@link net.tslat.smartbrainlib.api.core.behaviour.ExtendedBehaviour#keepsBrainAwake() keep the brain awake} are running,
+	 * and its sensors keep returning the same results.
+	 * <p>
+	 * A dormant brain stops ticking its sensors and behaviours entirely, only expiring memories, until it is woken by:
+	 * <ul>
+	 *     <li>The entity taking damage</li>
+	 *     <li>A player coming within the {@link #getDormancyWakeRadius() wake radius}, checked once a second</li>
+	 *     <li>A memory being changed from outside the brain, such as from {@link net.tslat.smartbrainlib.util.BrainUtil#setMemory BrainUtil.setMemory}. Memories expiring don't wake the brain</li>
+	 *     <li>A call to {@link SmartBrain#wakeUp()}</li>
+	 * </ul>
+	 * Brains with a {@link #getSchedule() schedule} never go dormant.
+	 *
+	 * @return The number of inactive brain ticks before the brain goes dormant, or -1 to never go dormant
+	 */
+	default int getDormancyDelay() {
+		return -1;
+	}
+
+	/**
+	 * Override this to change the distance at which a player will wake your entity's brain from {@link #getDormancyDelay() dormancy}.<br>
+	 * Dormant brains only look for nearby players once a second, so a player may be within this radius for up to 20 ticks before the brain wakes
+	 *
+	 * @return The wake radius, in blocks
+	 */
+	default double getDormancyWakeRadius() {
+		return 16;
+	}
+
 	/**
 	 * SmartBrainOwners <b><u>MUST</u></b> call this from the entity's {@link LivingEntity#serverAiStep}, or {@link Mob#customServerAiStep} if extending {@link Mob}.
 	 * <p>
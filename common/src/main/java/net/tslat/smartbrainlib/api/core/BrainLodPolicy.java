@@ -0,0 +1,107 @@
+package net.tslat.smartbrainlib.api.core;
+
+import it.unimi.dsi.fastutil.doubles.DoubleArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.entity.player.Player;
+import net.tslat.smartbrainlib.api.SmartBrainOwner;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Level-of-detail policy for {@link SmartBrain SmartBrains}, reducing how often a brain ticks based on the distance to the nearest player.
+ * <p>
+ * Each tier sets a tick interval for brains whose nearest non-spectator player is at least the tier's distance away.
+ * Brains closer than the first tier tick every tick, and brains in a level with no players use the furthest tier.<br>
+ * The interval is re-evaluated each time the brain ticks, so a brain will catch up to its new interval within one of its previous intervals.
+ * <p>
+ * Sensor scans, behaviour timeouts and behaviour cooldowns are all based on game time, and memory expiries and scheduled callbacks are caught up by the brain,
+ * so a throttled brain keeps the same timings, just with coarser granularity.
+ * Movement and other entity-level ticking is unaffected.
+ * <p>
+ * Brains use the policy returned by {@link SmartBrainOwner#getBrainLodPolicy()}, which defaults to the {@link #setDefault global default}.
+ * There is no global default unless one is set, so brains are not throttled unless opted in.
+ */
+public final class BrainLodPolicy {
+	@Nullable
+	private static volatile BrainLodPolicy defaultPolicy = null;
+
+	private final DoubleArrayList tierDistancesSqr = new DoubleArrayList();
+	private final IntArrayList tierIntervals = new IntArrayList();
+
+	/**
+	 * Create a general-purpose policy suitable for most mobs.
+	 * <ul>
+	 *     <li>Every tick within 48 blocks</li>
+	 *     <li>Every 2 ticks from 48 blocks</li>
+	 *     <li>Every 4 ticks from 96 blocks</li>
+	 *     <li>Every 8 ticks from 128 blocks</li>
+	 * </ul>
+	 */
+	public static BrainLodPolicy standard() {
+		return new BrainLodPolicy().withTier(48, 2).withTier(96, 4).withTier(128, 8);
+	}
+
+	/**
+	 * Set the policy used by all {@link SmartBrainOwner SmartBrainOwners} that don't override {@link SmartBrainOwner#getBrainLodPolicy()}
+	 *
+	 * @param policy The policy to use, or null to disable brain level-of-detail by default
+	 */
+	public static void setDefault(@Nullable BrainLodPolicy policy) {
+		defaultPolicy = policy;
+	}
+
+	/**
+	 * @return The policy used by all {@link SmartBrainOwner SmartBrainOwners} that don't override {@link SmartBrainOwner#getBrainLodPolicy()}, or null if none
+	 */
+	@Nullable
+	public static BrainLodPolicy getDefault() {
+		return defaultPolicy;
+	}
+
+	/**
+	 * Add a tier to this policy.<br>
+	 * Tiers must be added in order of increasing distance
+	 *
+	 * @param minDistance The distance (in blocks) to the nearest player from which this tier applies
+	 * @param tickInterval How many ticks apart the brain should tick in this tier
+	 * @return this
+	 */
+	public BrainLodPolicy withTier(double minDistance, int tickInterval) {
+		if (!this.tierDistancesSqr.isEmpty() && minDistance * minDistance <= this.tierDistancesSqr.getDouble(this.tierDistancesSqr.size() - 1))
+			throw new IllegalArgumentException("Brain LOD tiers must be added in order of increasing distance");
+
+		this.tierDistancesSqr.add(minDistance * minDistance);
+		this.tierIntervals.add(Math.max(1, tickInterval));
+
+		return this;
+	}
+
+	/**
+	 * Get how many ticks apart the given entity's brain should tick, based on its distance to the nearest player
+	 *
+	 * @param entity The owner of the brain
+	 * @return The tick interval, 1 being every tick
+	 */
+	public int getTickInterval(LivingEntity entity) {
+		if (this.tierIntervals.isEmpty())
+			return 1;
+
+		double nearestDistSqr = Double.MAX_VALUE;
+
+		for (Player player : entity.level().players()) {
+			if (!player.isSpectator())
+				nearestDistSqr = Math.min(nearestDistSqr, player.distanceToSqr(entity));
+		}
+
+		int interval = 1;
+
+		for (int i = 0; i < this.tierDistancesSqr.size(); i++) {
+			if (nearestDistSqr < this.tierDistancesSqr.getDouble(i))
+				break;
+
+			interval = this.tierIntervals.getInt(i);
+		}
+
+		return interval;
+	}
+}
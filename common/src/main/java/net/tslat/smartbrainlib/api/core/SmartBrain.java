@@ -4,7 +4,13 @@ import com.google.common.collect.ImmutableList;
 import com.mojang.datafixers.util.Pair;
 import com.mojang.serialization.Codec;
 import com.mojang.serialization.MapCodec;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import it.unimi.dsi.fastutil.objects.Reference2IntMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.util.profiling.Profiler;
 import net.minecraft.util.profiling.ProfilerFiller;
@@ -17,17 +23,27 @@ import net.minecraft.world.entity.ai.behavior.GateBehavior;
 import net.minecraft.world.entity.ai.memory.ExpirableValue;
 import net.minecraft.world.entity.ai.memory.MemoryModuleType;
 import net.minecraft.world.entity.ai.memory.MemoryStatus;
+import net.minecraft.world.entity.ai.memory.NearestVisibleLivingEntities;
 import net.minecraft.world.entity.ai.sensing.Sensor;
 import net.minecraft.world.entity.ai.sensing.SensorType;
+import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.entity.schedule.Activity;
 import net.tslat.smartbrainlib.api.SmartBrainOwner;
+import net.tslat.smartbrainlib.api.core.behaviour.ExtendedBehaviour;
 import net.tslat.smartbrainlib.api.core.behaviour.GroupBehaviour;
+import net.tslat.smartbrainlib.api.core.instrumentation.BrainInstrumentation;
 import net.tslat.smartbrainlib.api.core.schedule.SmartBrainSchedule;
 import net.tslat.smartbrainlib.api.core.sensor.ExtendedSensor;
+import net.tslat.smartbrainlib.api.core.sensor.ParallelSensorPhase;
 import net.tslat.smartbrainlib.object.BrainBehaviourConsumer;
 import net.tslat.smartbrainlib.object.BrainBehaviourPredicate;
+import net.tslat.smartbrainlib.object.EntitySnapshot;
+import net.tslat.smartbrainlib.object.ExpiryTimerWheel;
+import net.tslat.smartbrainlib.object.MemoryRequirementMask;
+import net.tslat.smartbrainlib.object.MemorySlotIndex;
 import net.tslat.smartbrainlib.util.BrainUtil;
 import org.apache.commons.lang3.mutable.MutableObject;
+import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Nullable;
 import org.jspecify.annotations.NonNull;
 
@@ -44,16 +60,63 @@ import java.util.stream.Stream;
  * @param <E> The entity
  */
 public class SmartBrain<E extends LivingEntity & SmartBrainOwner<E>> extends Brain<E> {
-	private final List<MemoryModuleType<?>> expirableMemories = new ObjectArrayList<>();
+	/**
+	 * How many ticks apart a dormant brain looks for players within its {@link SmartBrainOwner#getDormancyWakeRadius() wake radius}
+	 */
+	private static final int DORMANT_WAKE_CHECK_INTERVAL = 20;
+
+	private final ExpiryTimerWheel<MemoryModuleType<?>> memoryExpiries = new ExpiryTimerWheel<>();
+	private final Consumer<MemoryModuleType<?>> memoryEraser = this::eraseMemory;
+	private final MemorySlotIndex memorySlots;
+	private final long[] memoryPresence;
+	@Nullable
+	private final Object[] memoryValues;
+	@Nullable
+	private final long[] memoryExpiryTicks;
+	@Nullable
+	private List<BufferedMemory> bufferedMemories = null;
 	private final List<ActivityBehaviours<E>> behaviours = new ObjectArrayList<>();
 	private final List<Pair<SensorType<ExtendedSensor<? super E>>, ExtendedSensor<? super E>>> sensors = new ObjectArrayList<>();
+	@Nullable
+	private SensorTriggers<E> sensorTriggers = null;
+	@Nullable
+	private Reference2ObjectMap<MemoryModuleType<?>, List<ExtendedBehaviour<?>>> behaviourStartDependents = null;
 	private SmartBrainSchedule schedule = null;
+	private int lodTickInterval = 1;
+	private int ticksSinceLastTick = 0;
+	private boolean dormant = false;
+	private long lastActiveTick = 0;
+	private long nextWakeCheckTick = 0;
+	private boolean ticking = false;
+	private boolean sensing = false;
+	private final Reference2ObjectOpenHashMap<MemoryModuleType<?>, Object> previousSensorResults = new Reference2ObjectOpenHashMap<>();
 
 	private boolean sortBehaviours = false;
+	@Nullable
+	private BehaviorControl<? super E>[] activeBehaviours = null;
+	private long[] parkedUntil = new long[0];
+	@Nullable
+	private Reference2IntMap<BehaviorControl<?>> behaviourOrder = null;
+	private final List<BehaviorControl<? super E>> runningBehaviours = new ObjectArrayList<>();
+	private final List<BehaviorControl<? super E>> runningBehavioursView = Collections.unmodifiableList(this.runningBehaviours);
+	private BehaviorControl<? super E>[] tickingBehaviours = new BehaviorControl[0];
 
 	public SmartBrain(List<MemoryModuleType<?>> memories, List<? extends ExtendedSensor<E>> sensors, @Nullable List<BrainActivityGroup<E>> taskList) {
+		this(memories, sensors, taskList, MemorySlotIndex.of(memories), false);
+	}
+
+	/**
+	 * @param memorySlots The slot index for this brain's memories. Typically shared between all brains of the same entity type
+	 * @param denseMemoryStorage Whether memories that are part of the slot index should be stored in dense arrays instead of the vanilla memory map
+	 */
+	public SmartBrain(List<MemoryModuleType<?>> memories, List<? extends ExtendedSensor<E>> sensors, @Nullable List<BrainActivityGroup<E>> taskList, MemorySlotIndex memorySlots, boolean denseMemoryStorage) {
 		super(memories, ImmutableList.of(), ImmutableList.of(), SmartBrain::emptyBrainCodec);
 
+		this.memorySlots = memorySlots;
+		this.memoryPresence = new long[MemoryRequirementMask.wordsFor(memorySlots)];
+		this.memoryValues = denseMemoryStorage ? new Object[memorySlots.size()] : null;
+		this.memoryExpiryTicks = denseMemoryStorage ? new long[memorySlots.size()] : null;
+
 		for (ExtendedSensor<E> sensor : sensors) {
 			this.sensors.add(Pair.of((SensorType)sensor.type(), sensor));
 		}
@@ -67,26 +130,60 @@ public class SmartBrain<E extends LivingEntity & SmartBrainOwner<E>> extends Bra
 
 	@Override
 	public void tick(ServerLevel level, E entity) {
+		int elapsedTicks = 1;
+		BrainLodPolicy lodPolicy = entity.getBrainLodPolicy();
+
+		if (lodPolicy != null) {
+			if (++this.ticksSinceLastTick < this.lodTickInterval)
+				return;
+
+			elapsedTicks = this.ticksSinceLastTick;
+			this.ticksSinceLastTick = 0;
+			this.lodTickInterval = lodPolicy.getTickInterval(entity);
+		}
+		else {
+			this.lodTickInterval = 1;
+			this.ticksSinceLastTick = 0;
+		}
+
 		ProfilerFiller profiler = Profiler.get();
 
 		profiler.push("SmartBrain");
 
-		if (this.sortBehaviours)
-			this.behaviours.sort(Comparator.comparingInt(ActivityBehaviours::priority));
+		this.ticking = true;
 
-		forgetOutdatedMemories();
-		tickSensors(level, entity);
-		checkForNewBehaviours(level, entity);
-		tickRunningBehaviours(level, entity);
-		findAndSetActiveActivity(entity);
+		try {
+			forgetOutdatedMemories(elapsedTicks);
 
-		profiler.pop();
+			if (!this.dormant || checkForWakeUp(entity)) {
+				tickSensors(level, entity);
+				checkForNewBehaviours(level, entity);
+				tickRunningBehaviours(level, entity);
+				findAndSetActiveActivity(entity, elapsedTicks);
+				checkForDormancy(entity);
+			}
+		}
+		finally {
+			this.ticking = false;
+
+			profiler.pop();
+		}
 
 		if (entity instanceof Mob mob)
 			mob.setAggressive(BrainUtil.hasMemory(mob, MemoryModuleType.ATTACK_TARGET));
 	}
 
 	protected void findAndSetActiveActivity(E entity) {
+		findAndSetActiveActivity(entity, 1);
+	}
+
+	/**
+	 * Find and set the activity the brain should be running
+	 *
+	 * @param entity The owner of the brain
+	 * @param elapsedTicks The number of ticks since the brain last ticked, so that any scheduled callbacks in that time can be caught up
+	 */
+	protected void findAndSetActiveActivity(E entity, int elapsedTicks) {
 		Activity nextActivity = getFirstValidActivity(entity.getActivityPriorities());
 
 		if (nextActivity != null && entity.getScheduleIgnoringActivities().contains(nextActivity)) {
@@ -96,7 +193,7 @@ public class SmartBrain<E extends LivingEntity & SmartBrainOwner<E>> extends Bra
 		}
 
 		if (this.schedule != null) {
-			Activity scheduledActivity = this.schedule.tick(entity);
+			Activity scheduledActivity = this.schedule.tick(entity, elapsedTicks);
 
 			if (scheduledActivity != null && activityRequirementsAreMet(scheduledActivity)) {
 				if (!isActive(scheduledActivity))
@@ -120,103 +217,837 @@ public class SmartBrain<E extends LivingEntity & SmartBrainOwner<E>> extends Bra
 		return null;
 	}
 
+	/**
+	 * @return Whether this brain is currently dormant, and not ticking its sensors or behaviours
+	 * @see SmartBrainOwner#getDormancyDelay()
+	 */
+	public boolean isDormant() {
+		return this.dormant;
+	}
+
+	/**
+	 * Wake this brain if it is dormant, and reset the time until it can next go dormant
+	 */
+	public void wakeUp() {
+		this.dormant = false;
+		this.lastActiveTick = this.memoryExpiries.getCurrentTick();
+	}
+
+	private void checkForDormancy(E entity) {
+		int dormancyDelay = entity.getDormancyDelay();
+
+		if (dormancyDelay < 0 || this.schedule != null)
+			return;
+
+		if (hasWakefulBehaviourRunning()) {
+			this.lastActiveTick = this.memoryExpiries.getCurrentTick();
+
+			return;
+		}
+
+		long currentTick = this.memoryExpiries.getCurrentTick();
+
+		if (currentTick - this.lastActiveTick >= dormancyDelay && !isPlayerNearby(entity, entity.getDormancyWakeRadius())) {
+			this.dormant = true;
+			this.nextWakeCheckTick = currentTick + DORMANT_WAKE_CHECK_INTERVAL;
+		}
+	}
+
+	/**
+	 * Check whether a dormant brain should wake from a player being nearby, waking it if so.<br>
+	 * Players are only looked for every {@link #DORMANT_WAKE_CHECK_INTERVAL} ticks, so that dormant brains don't each walk the level's players every tick
+	 *
+	 * @return Whether the brain woke up
+	 */
+	private boolean checkForWakeUp(E entity) {
+		long currentTick = this.memoryExpiries.getCurrentTick();
+
+		if (currentTick < this.nextWakeCheckTick)
+			return false;
+
+		if (!isPlayerNearby(entity, entity.getDormancyWakeRadius())) {
+			this.nextWakeCheckTick = currentTick + DORMANT_WAKE_CHECK_INTERVAL;
+
+			return false;
+		}
+
+		wakeUp();
+
+		return true;
+	}
+
+	/**
+	 * @return Whether any running behaviour {@link ExtendedBehaviour#keepsBrainAwake() keeps the brain awake}. Non-SBL behaviours always do
+	 */
+	private boolean hasWakefulBehaviourRunning() {
+		for (BehaviorControl<? super E> behaviour : this.runningBehaviours) {
+			if (!(behaviour instanceof ExtendedBehaviour<?> extendedBehaviour) || extendedBehaviour.keepsBrainAwake())
+				return true;
+		}
+
+		return false;
+	}
+
+	private static boolean isPlayerNearby(LivingEntity entity, double radius) {
+		double radiusSqr = radius * radius;
+
+		for (Player player : entity.level().players()) {
+			if (!player.isSpectator() && player.distanceToSqr(entity) <= radiusSqr)
+				return true;
+		}
+
+		return false;
+	}
+
 	private void tickSensors(ServerLevel level, E entity) {
+		boolean hasParallelSensors = false;
+
+		this.sensing = true;
+
+		try {
+			for (Pair<SensorType<ExtendedSensor<? super E>>, ExtendedSensor<? super E>> sensor : this.sensors) {
+				sensor.getSecond().tick(level, entity);
+
+				hasParallelSensors |= sensor.getSecond().isParallelSafe();
+			}
+		}
+		finally {
+			this.sensing = false;
+		}
+
+		if (hasParallelSensors)
+			ParallelSensorPhase.track(level, this, entity);
+	}
+
+	/**
+	 * Wake any sensors that {@link ExtendedSensor#scanWhenHurt() scan when hurt}, so they scan on the next brain tick.<br>
+	 * Called by the platform damage events
+	 */
+	@ApiStatus.Internal
+	public void onHurt() {
+		wakeUp();
+
+		for (ExtendedSensor<? super E> sensor : getSensorTriggers().hurt()) {
+			sensor.triggerScan();
+		}
+	}
+
+	/**
+	 * Wake any sensors that {@link ExtendedSensor#scanWhenMemoryChanges scan on changes} to the given memory, if its value has changed.
+	 * <p>
+	 * Changes made by this brain's sensors only count as activity if the sensor's result differs from its previous one,
+	 * and changes made from outside this brain's tick (E.G. {@link BrainUtil#setMemory}) wake the brain.
+	 * Changes made by this brain's own behaviours and memory expiries don't affect dormancy
+	 */
+	private void onMemoryChanged(MemoryModuleType<?> memoryType, @Nullable Object oldValue, @Nullable Object newValue) {
+		if (oldValue == newValue)
+			return;
+
+		if (this.sensing) {
+			trackSensorResult(memoryType, newValue);
+		}
+		else if (!this.ticking) {
+			wakeUp();
+		}
+
+		List<ExtendedSensor<? super E>> sensors = getSensorTriggers().memories().get(memoryType);
+
+		if (sensors != null) {
+			for (ExtendedSensor<? super E> sensor : sensors) {
+				sensor.triggerScan();
+			}
+		}
+
+		List<ExtendedBehaviour<?>> behaviours = getBehaviourStartDependents().get(memoryType);
+
+		if (behaviours != null) {
+			for (ExtendedBehaviour<?> behaviour : behaviours) {
+				behaviour.markStartCheckDirty();
+			}
+		}
+	}
+
+	/**
+	 * Record a sensor's result for the given memory, counting it as activity if it differs from the previous result.<br>
+	 * Collections (and {@link NearestVisibleLivingEntities}) are compared by the identity of their elements regardless of order, as most sensors produce a new collection or wrapper each scan.
+	 * Other values are compared by equality, and {@link EntitySnapshot EntitySnapshots} are ignored, as they are only an intermediate result for other sensors
+	 */
+	private void trackSensorResult(MemoryModuleType<?> memoryType, @Nullable Object value) {
+		if (value instanceof EntitySnapshot)
+			return;
+
+		if (value instanceof NearestVisibleLivingEntities nearestEntities)
+			value = nearestEntities.nearbyEntities;
+
+		Object previous = this.previousSensorResults.get(memoryType);
+		boolean changed;
+
+		if (value == null && previous instanceof SensorResultElements)
+			value = List.of();
+
+		if (value instanceof Collection<?> collection) {
+			SensorResultElements elements = previous instanceof SensorResultElements existing ? existing : null;
+
+			if (elements == null)
+				this.previousSensorResults.put(memoryType, elements = new SensorResultElements());
+
+			changed = elements.update(collection);
+		}
+		else {
+			changed = !Objects.equals(previous, value);
+
+			if (changed)
+				this.previousSensorResults.put(memoryType, value);
+		}
+
+		if (changed)
+			this.lastActiveTick = this.memoryExpiries.getCurrentTick();
+	}
+
+	/**
+	 * Get the {@link ExtendedBehaviour#startsReactively() reactively-starting} behaviours registered to this brain, grouped by the memories their start checks depend on
+	 */
+	private Reference2ObjectMap<MemoryModuleType<?>, List<ExtendedBehaviour<?>>> getBehaviourStartDependents() {
+		if (this.behaviourStartDependents == null) {
+			Reference2ObjectMap<MemoryModuleType<?>, List<ExtendedBehaviour<?>>> dependents = new Reference2ObjectOpenHashMap<>();
+
+			forEachBehaviour((priority, activity, behaviour, parent) -> {
+				if (behaviour instanceof ExtendedBehaviour<?> extendedBehaviour && extendedBehaviour.startsReactively()) {
+					for (MemoryModuleType<?> memoryType : extendedBehaviour.getStartDependencies()) {
+						dependents.computeIfAbsent(memoryType, key -> new ObjectArrayList<>()).add(extendedBehaviour);
+					}
+				}
+			});
+
+			this.behaviourStartDependents = dependents;
+		}
+
+		return this.behaviourStartDependents;
+	}
+
+	private SensorTriggers<E> getSensorTriggers() {
+		if (this.sensorTriggers == null)
+			this.sensorTriggers = compileSensorTriggers();
+
+		return this.sensorTriggers;
+	}
+
+	private SensorTriggers<E> compileSensorTriggers() {
+		List<ExtendedSensor<? super E>> hurtTriggers = new ObjectArrayList<>();
+		Reference2ObjectMap<MemoryModuleType<?>, List<ExtendedSensor<? super E>>> memoryTriggers = new Reference2ObjectOpenHashMap<>();
+
+		for (Pair<SensorType<ExtendedSensor<? super E>>, ExtendedSensor<? super E>> pair : this.sensors) {
+			ExtendedSensor<? super E> sensor = pair.getSecond();
+
+			if (sensor.scansWhenHurt())
+				hurtTriggers.add(sensor);
+
+			for (MemoryModuleType<?> memoryType : sensor.getMemoryTriggers()) {
+				memoryTriggers.computeIfAbsent(memoryType, key -> new ObjectArrayList<>()).add(sensor);
+			}
+		}
+
+		return new SensorTriggers<>(hurtTriggers, memoryTriggers);
+	}
+
+	/**
+	 * Start buffering memory writes instead of applying them, until {@link #commitBufferedMemories()} is called.<br>
+	 * Must be called on the server thread
+	 */
+	@ApiStatus.Internal
+	public void startBufferingMemories() {
+		this.bufferedMemories = new ObjectArrayList<>();
+	}
+
+	/**
+	 * Scan with this brain's {@link ExtendedSensor#isParallelSafe() parallel-safe} sensors as if at the given game time.<br>
+	 * Called off the server thread by the {@link ParallelSensorPhase}, between {@link #startBufferingMemories()} and {@link #commitBufferedMemories()}
+	 */
+	@ApiStatus.Internal
+	public void tickParallelSensors(ServerLevel level, E entity, long gameTime) {
 		for (Pair<SensorType<ExtendedSensor<? super E>>, ExtendedSensor<? super E>> sensor : this.sensors) {
-			sensor.getSecond().tick(level, entity);
+			if (sensor.getSecond().isParallelSafe())
+				sensor.getSecond().tick(level, entity, gameTime);
+		}
+	}
+
+	/**
+	 * Stop buffering memory writes, and apply any that were buffered in the order they were made.<br>
+	 * Must be called on the server thread
+	 */
+	@ApiStatus.Internal
+	public void commitBufferedMemories() {
+		List<BufferedMemory> bufferedMemories = this.bufferedMemories;
+		this.bufferedMemories = null;
+
+		if (bufferedMemories == null)
+			return;
+
+		this.sensing = true;
+
+		try {
+			for (BufferedMemory memory : bufferedMemories) {
+				setMemoryValue((MemoryModuleType)memory.memoryType(), memory.value(), memory.timeToLive());
+			}
+		}
+		finally {
+			this.sensing = false;
 		}
 	}
 
 	private void checkForNewBehaviours(ServerLevel level, E entity) {
 		long gameTime = level.getGameTime();
+		BehaviorControl<? super E>[] activeBehaviours = getActiveBehaviours();
+		long[] parkedUntil = this.parkedUntil;
+
+		for (int i = 0; i < activeBehaviours.length; i++) {
+			BehaviorControl<? super E> behaviour = activeBehaviours[i];
+
+			if (parkedUntil[i] > gameTime && !unparkIfCooldownChanged(behaviour, parkedUntil, i, gameTime))
+				continue;
+
+			if (behaviour.getStatus() != Behavior.Status.STOPPED)
+				continue;
+
+			if (tryStartBehaviour(behaviour, level, entity, gameTime)) {
+				if (behaviour.getStatus() == Behavior.Status.RUNNING)
+					markRunning(behaviour);
+
+				this.lastActiveTick = this.memoryExpiries.getCurrentTick();
+			}
+			else if (behaviour instanceof ExtendedBehaviour<?> extendedBehaviour && extendedBehaviour.getCooldownFinishedAt() > gameTime) {
+				parkedUntil[i] = extendedBehaviour.getCooldownFinishedAt();
+			}
+		}
+	}
+
+	/**
+	 * Re-park a parked {@link ExtendedBehaviour} if its cooldown has changed since it was parked, such as being shortened by the behaviour itself
+	 *
+	 * @return Whether the behaviour's cooldown has now finished, and it should be start-checked
+	 */
+	private static boolean unparkIfCooldownChanged(BehaviorControl<?> behaviour, long[] parkedUntil, int index, long gameTime) {
+		long cooldownFinishedAt = ((ExtendedBehaviour<?>)behaviour).getCooldownFinishedAt();
+
+		if (cooldownFinishedAt == parkedUntil[index])
+			return false;
+
+		parkedUntil[index] = cooldownFinishedAt;
+
+		return cooldownFinishedAt <= gameTime;
+	}
+
+	private boolean tryStartBehaviour(BehaviorControl<? super E> behaviour, ServerLevel level, E entity, long gameTime) {
+		if (!BrainInstrumentation.isEnabled())
+			return behaviour.tryStart(level, entity, gameTime);
+
+		long startTime = System.nanoTime();
+		boolean started = behaviour.tryStart(level, entity, gameTime);
+
+		BrainInstrumentation.recordBehaviourStartCheck(entity.getType(), behaviour.getClass(), System.nanoTime() - startTime, started);
+
+		if (started && behaviour.getStatus() == Behavior.Status.STOPPED)
+			BrainInstrumentation.recordBehaviourStop(entity.getType(), behaviour.getClass());
+
+		return started;
+	}
+
+	/**
+	 * Get the flattened dispatch table of all {@link BehaviorControl Behaviours} belonging to the currently active {@link Activity Activities}, in priority order.
+	 * <p>
+	 * The table is only rebuilt when the registered behaviours or the active activities change, so it should not be modified or retained.<br>
+	 * Alongside it is the game time each behaviour is parked until while cooling down, during which it is skipped by the start checks
+	 */
+	private BehaviorControl<? super E>[] getActiveBehaviours() {
+		if (this.activeBehaviours == null) {
+			this.activeBehaviours = compileActiveBehaviours();
+			this.parkedUntil = new long[this.activeBehaviours.length];
+		}
+
+		return this.activeBehaviours;
+	}
+
+	private BehaviorControl<? super E>[] compileActiveBehaviours() {
+		sortBehavioursIfRequired();
+
+		Set<Activity> activeActivities = getActiveActivities();
+		List<BehaviorControl<? super E>> activeBehaviours = new ObjectArrayList<>();
 
 		for (ActivityBehaviours<E> behaviourGroup : this.behaviours) {
 			for (Pair<Activity, List<BehaviorControl<? super E>>> pair : behaviourGroup.behaviours) {
-				if (getActiveActivities().contains(pair.getFirst())) {
+				if (activeActivities.contains(pair.getFirst()))
+					activeBehaviours.addAll(pair.getSecond());
+			}
+		}
+
+		return activeBehaviours.toArray(new BehaviorControl[0]);
+	}
+
+	/**
+	 * Mark the active behaviour dispatch table as outdated, forcing it to be rebuilt before the next behaviour check
+	 */
+	protected void invalidateActiveBehaviours() {
+		this.activeBehaviours = null;
+	}
+
+	private void sortBehavioursIfRequired() {
+		if (this.sortBehaviours) {
+			this.behaviours.sort(Comparator.comparingInt(ActivityBehaviours::priority));
+
+			this.sortBehaviours = false;
+		}
+	}
+
+	private void onBehavioursChanged() {
+		invalidateActiveBehaviours();
+
+		this.behaviourOrder = null;
+		this.behaviourStartDependents = null;
+	}
+
+	/**
+	 * Get the registration-order index of every registered {@link BehaviorControl Behaviour}, used to keep the running behaviours in priority order
+	 */
+	private Reference2IntMap<BehaviorControl<?>> getBehaviourOrder() {
+		if (this.behaviourOrder == null) {
+			Reference2IntMap<BehaviorControl<?>> behaviourOrder = new Reference2IntOpenHashMap<>();
+			int index = 0;
+
+			sortBehavioursIfRequired();
+			behaviourOrder.defaultReturnValue(Integer.MAX_VALUE);
+
+			for (ActivityBehaviours<E> behaviourGroup : this.behaviours) {
+				for (Pair<Activity, List<BehaviorControl<? super E>>> pair : behaviourGroup.behaviours) {
 					for (BehaviorControl<? super E> behaviour : pair.getSecond()) {
-						if (behaviour.getStatus() == Behavior.Status.STOPPED)
-							behaviour.tryStart(level, entity, gameTime);
+						behaviourOrder.putIfAbsent(behaviour, index++);
 					}
 				}
 			}
+
+			this.behaviourOrder = behaviourOrder;
+		}
+
+		return this.behaviourOrder;
+	}
+
+	/**
+	 * Add a newly started {@link BehaviorControl Behaviour} to the running set, maintaining its priority order
+	 */
+	private void markRunning(BehaviorControl<? super E> behaviour) {
+		Reference2IntMap<BehaviorControl<?>> behaviourOrder = getBehaviourOrder();
+		int order = behaviourOrder.getInt(behaviour);
+		int size = this.runningBehaviours.size();
+		int insertIndex = size;
+
+		for (int i = 0; i < size; i++) {
+			BehaviorControl<? super E> runningBehaviour = this.runningBehaviours.get(i);
+
+			if (runningBehaviour == behaviour)
+				return;
+
+			if (insertIndex == size && behaviourOrder.getInt(runningBehaviour) > order)
+				insertIndex = i;
+		}
+
+		this.runningBehaviours.add(insertIndex, behaviour);
+	}
+
+	/**
+	 * Update the running set for a {@link BehaviorControl Behaviour} that has just started or stopped.<br>
+	 * Called by {@link ExtendedBehaviour ExtendedBehaviours} on their status transitions, so the running set stays accurate even when they're started or stopped outside of this brain's tick.
+	 * Behaviours that aren't registered directly to this brain (such as the children of a {@link GroupBehaviour}) are ignored
+	 */
+	@ApiStatus.Internal
+	public void onBehaviourStatusChanged(BehaviorControl<?> behaviour) {
+		if (behaviour.getStatus() != Behavior.Status.RUNNING) {
+			this.runningBehaviours.remove(behaviour);
+		}
+		else if (getBehaviourOrder().containsKey(behaviour)) {
+			markRunning((BehaviorControl<? super E>)behaviour);
+		}
+	}
+
+	/**
+	 * Remove any {@link BehaviorControl Behaviours} from the running set that have since stopped.<br>
+	 * Catches status transitions of non-{@link ExtendedBehaviour ExtendedBehaviours}, which don't report them to the brain
+	 */
+	private void pruneRunningBehaviours() {
+		int size = this.runningBehaviours.size();
+		int retained = 0;
+
+		for (int i = 0; i < size; i++) {
+			BehaviorControl<? super E> behaviour = this.runningBehaviours.get(i);
+
+			if (behaviour.getStatus() == Behavior.Status.RUNNING)
+				this.runningBehaviours.set(retained++, behaviour);
 		}
+
+		if (retained < size)
+			this.runningBehaviours.subList(retained, size).clear();
+	}
+
+	/**
+	 * Copy the running set into a reusable array, so that it can be safely iterated while behaviours start and stop
+	 *
+	 * @return The number of running behaviours copied into {@link #tickingBehaviours}
+	 */
+	private int snapshotRunningBehaviours() {
+		int size = this.runningBehaviours.size();
+
+		if (this.tickingBehaviours.length < size)
+			this.tickingBehaviours = new BehaviorControl[size];
+
+		this.runningBehaviours.toArray(this.tickingBehaviours);
+
+		return size;
+	}
+
+	@Override
+	public void setActiveActivity(Activity activity) {
+		if (isActive(activity))
+			return;
+
+		super.setActiveActivity(activity);
+		invalidateActiveBehaviours();
 	}
 
 	private void tickRunningBehaviours(ServerLevel level, E entity) {
+		if (this.runningBehaviours.isEmpty())
+			return;
+
 		long gameTime = level.getGameTime();
+		boolean instrumented = BrainInstrumentation.isEnabled();
+		int count = snapshotRunningBehaviours();
 
-		for (ActivityBehaviours<E> behaviourGroup : this.behaviours) {
-			for (Pair<Activity, List<BehaviorControl<? super E>>> pair : behaviourGroup.behaviours) {
-				for (BehaviorControl<? super E> behaviour : pair.getSecond()) {
-					if (behaviour.getStatus() == Behavior.Status.RUNNING)
-						behaviour.tickOrStop(level, entity, gameTime);
+		for (int i = 0; i < count; i++) {
+			BehaviorControl<? super E> behaviour = this.tickingBehaviours[i];
+			this.tickingBehaviours[i] = null;
+
+			if (behaviour.getStatus() == Behavior.Status.RUNNING) {
+				if (instrumented) {
+					tickBehaviourInstrumented(behaviour, level, entity, gameTime);
+				}
+				else {
+					behaviour.tickOrStop(level, entity, gameTime);
 				}
 			}
 		}
+
+		pruneRunningBehaviours();
 	}
 
+	private void tickBehaviourInstrumented(BehaviorControl<? super E> behaviour, ServerLevel level, E entity, long gameTime) {
+		long startTime = System.nanoTime();
+
+		behaviour.tickOrStop(level, entity, gameTime);
+		BrainInstrumentation.recordBehaviourTick(entity.getType(), behaviour.getClass(), System.nanoTime() - startTime);
+
+		if (behaviour.getStatus() == Behavior.Status.STOPPED)
+			BrainInstrumentation.recordBehaviourStop(entity.getType(), behaviour.getClass());
+	}
+
+	/**
+	 * Erases any memories that have expired as of this tick.<br>
+	 * Expirable memories are tracked in a timer wheel keyed on the brain tick they expire at, so only the memories due this tick are touched.
+	 * <p>
+	 * The stored {@link ExpirableValue ExpirableValues} are not ticked, so their own time-to-live is not kept up to date.
+	 * {@link #getMemories()} refreshes them as it copies them, or use {@link #getTimeUntilExpiry(MemoryModuleType)} instead
+	 */
 	@Override
 	public void forgetOutdatedMemories() {
-		Iterator<MemoryModuleType<?>> expirable = this.expirableMemories.iterator();
+		forgetOutdatedMemories(1);
+	}
 
-		while (expirable.hasNext()) {
-			MemoryModuleType<?> memoryType = expirable.next();
-			Optional<? extends ExpirableValue<?>> memory = memories.get(memoryType);
+	/**
+	 * Erase any memories that have expired in the given number of ticks since this was last called
+	 *
+	 * @param elapsedTicks The number of ticks since the brain last ticked
+	 */
+	protected void forgetOutdatedMemories(int elapsedTicks) {
+		this.memoryExpiries.advance(elapsedTicks, this.memoryEraser);
+	}
 
-			if (memory.isEmpty()) {
-				expirable.remove();
-			}
-			else {
-				ExpirableValue<?> value = memory.get();
+	@Override
+	public <U> long getTimeUntilExpiry(MemoryModuleType<U> memoryType) {
+		int slot = getDenseMemorySlot(memoryType);
 
-				if (!value.canExpire()) {
-					expirable.remove();
-				}
-				else if (value.hasExpired()) {
-					expirable.remove();
-					eraseMemory(memoryType);
-				}
-				else {
-					value.tick();
-				}
-			}
+		if (slot >= 0) {
+			if (this.memoryValues[slot] == null)
+				return 0;
+
+			long expiryTick = this.memoryExpiryTicks[slot];
+
+			return expiryTick == Long.MAX_VALUE ? Long.MAX_VALUE : Math.max(0, expiryTick - this.memoryExpiries.getCurrentTick() - 1);
 		}
+
+		long expiryTick = this.memoryExpiries.getExpiryTick(memoryType);
+
+		if (expiryTick == -1)
+			return super.getTimeUntilExpiry(memoryType);
+
+		return Math.max(0, expiryTick - this.memoryExpiries.getCurrentTick() - 1);
 	}
 
 	@Override
 	public void stopAll(ServerLevel level, E entity) {
+		if (this.runningBehaviours.isEmpty())
+			return;
+
 		long gameTime = level.getGameTime();
+		int count = snapshotRunningBehaviours();
 
-		for (ActivityBehaviours<E> behaviourGroup : this.behaviours) {
-			for (Pair<Activity, List<BehaviorControl<? super E>>> pair : behaviourGroup.behaviours) {
-				for (BehaviorControl<? super E> behaviour : pair.getSecond()) {
-					if (behaviour.getStatus() == Behavior.Status.RUNNING)
-						behaviour.doStop(level, entity, gameTime);
-				}
+		for (int i = 0; i < count; i++) {
+			BehaviorControl<? super E> behaviour = this.tickingBehaviours[i];
+			this.tickingBehaviours[i] = null;
+
+			if (behaviour.getStatus() == Behavior.Status.RUNNING) {
+				behaviour.doStop(level, entity, gameTime);
+
+				if (BrainInstrumentation.isEnabled())
+					BrainInstrumentation.recordBehaviourStop(entity.getType(), behaviour.getClass());
 			}
 		}
+
+		pruneRunningBehaviours();
+	}
+
+	/**
+	 * @return The slot index for this brain's memories
+	 */
+	public MemorySlotIndex getMemorySlots() {
+		return this.memorySlots;
+	}
+
+	/**
+	 * Get the live presence bitset for the memories in this brain's {@link #getMemorySlots() slot index}, with a bit set for each memory that currently has a value.<br>
+	 * The returned array must not be modified
+	 *
+	 * @see MemoryRequirementMask
+	 */
+	@ApiStatus.Internal
+	public long[] getMemoryPresence() {
+		return this.memoryPresence;
+	}
+
+	private void updateMemoryPresence(int slot, boolean present) {
+		if (slot < 0)
+			return;
+
+		if (present) {
+			this.memoryPresence[slot >>> 6] |= 1L << slot;
+		}
+		else {
+			this.memoryPresence[slot >>> 6] &= ~(1L << slot);
+		}
+	}
+
+	/**
+	 * @return Whether this brain stores the memories in its {@link #getMemorySlots() slot index} in dense arrays, rather than the vanilla memory map
+	 */
+	public boolean usesDenseMemoryStorage() {
+		return this.memoryValues != null;
+	}
+
+	/**
+	 * @return The dense storage slot for the given memory type, or -1 if the memory is stored in the vanilla memory map
+	 */
+	private int getDenseMemorySlot(MemoryModuleType<?> memoryType) {
+		return this.memoryValues == null ? -1 : this.memorySlots.getSlot(memoryType);
 	}
 
 	@Override
 	public <U> Optional<U> getMemory(MemoryModuleType<U> type) {
+		int slot = getDenseMemorySlot(type);
+
+		if (slot >= 0)
+			return Optional.ofNullable((U)this.memoryValues[slot]);
+
 		return (Optional<U>) this.memories.computeIfAbsent(type, key -> Optional.empty()).map(ExpirableValue::getValue);
 	}
 
+	@Nullable
+	@Override
+	public <U> Optional<U> getMemoryInternal(MemoryModuleType<U> type) {
+		int slot = getDenseMemorySlot(type);
+
+		if (slot >= 0)
+			return Optional.ofNullable((U)this.memoryValues[slot]);
+
+		return super.getMemoryInternal(type);
+	}
+
+	/**
+	 * Get the value of a memory directly, without wrapping it in an {@link Optional}.<br>
+	 * This is allocation-free regardless of storage mode
+	 *
+	 * @param memoryType The memory type to get the value of
+	 * @return The memory value, or null if no value is present
+	 */
+	@Nullable
+	public <U> U getMemoryValue(MemoryModuleType<U> memoryType) {
+		int slot = getDenseMemorySlot(memoryType);
+
+		if (slot >= 0)
+			return (U)this.memoryValues[slot];
+
+		Optional<? extends ExpirableValue<?>> memory = this.memories.get(memoryType);
+
+		return memory == null || memory.isEmpty() ? null : (U)memory.get().getValue();
+	}
+
+	@Override
+	public boolean hasMemoryValue(MemoryModuleType<?> memoryType) {
+		int slot = getDenseMemorySlot(memoryType);
+
+		if (slot >= 0)
+			return this.memoryValues[slot] != null;
+
+		return super.hasMemoryValue(memoryType);
+	}
+
+	@Override
+	public boolean checkMemory(MemoryModuleType<?> memoryType, MemoryStatus memoryStatus) {
+		int slot = getDenseMemorySlot(memoryType);
+
+		if (slot < 0)
+			return super.checkMemory(memoryType, memoryStatus);
+
+		return switch (memoryStatus) {
+			case REGISTERED -> true;
+			case VALUE_PRESENT -> this.memoryValues[slot] != null;
+			case VALUE_ABSENT -> this.memoryValues[slot] == null;
+		};
+	}
+
 	@Override
 	public <U> void setMemoryInternal(MemoryModuleType<U> memoryType, Optional<? extends ExpirableValue<?>> memory) {
+		if (this.bufferedMemories != null) {
+			this.bufferedMemories.add(memory.isPresent() ? new BufferedMemory(memoryType, memory.get().getValue(), memory.get().getTimeToLive()) : new BufferedMemory(memoryType, null, Long.MAX_VALUE));
+
+			return;
+		}
+
 		if (memory.isPresent() && memory.get().getValue()instanceof Collection<?> collection && collection.isEmpty())
 			memory = Optional.empty();
 
-		this.memories.put(memoryType, memory);
+		int slot = getDenseMemorySlot(memoryType);
+
+		if (slot >= 0) {
+			if (memory.isPresent()) {
+				setDenseMemory(slot, memoryType, memory.get().getValue(), memory.get().getTimeToLive());
+			}
+			else {
+				setDenseMemory(slot, memoryType, null, Long.MAX_VALUE);
+			}
+
+			return;
+		}
+
+		Optional<? extends ExpirableValue<?>> previous = this.memories.put(memoryType, memory);
+
+		updateMemoryPresence(this.memorySlots.getSlot(memoryType), memory.isPresent());
+
+		onMemoryChanged(memoryType, previous == null || previous.isEmpty() ? null : previous.get().getValue(), memory.isPresent() ? memory.get().getValue() : null);
+
+		if (memory.isPresent() && memory.get().canExpire()) {
+			this.memoryExpiries.schedule(memoryType, this.memoryExpiries.getCurrentTick() + memory.get().getTimeToLive() + 1);
+		}
+		else {
+			this.memoryExpiries.cancel(memoryType);
+		}
+	}
+
+	/**
+	 * Set the value of a memory directly, without wrapping it in an {@link ExpirableValue}.<br>
+	 * This is allocation-free for memories held in dense storage
+	 *
+	 * @param memoryType The memory type to set the value of
+	 * @param value The value to set, or null to erase the memory
+	 * @param timeToLive The number of ticks until the memory expires, or {@link Long#MAX_VALUE} if it shouldn't expire
+	 */
+	public <U> void setMemoryValue(MemoryModuleType<U> memoryType, @Nullable U value, long timeToLive) {
+		if (this.bufferedMemories != null) {
+			this.bufferedMemories.add(new BufferedMemory(memoryType, value, timeToLive));
 
-		if (memory.isPresent() && memory.get().canExpire() && !this.expirableMemories.contains(memoryType))
-			this.expirableMemories.add(memoryType);
+			return;
+		}
+
+		int slot = getDenseMemorySlot(memoryType);
+
+		if (slot < 0) {
+			setMemoryInternal(memoryType, value == null ? Optional.empty() : Optional.of(ExpirableValue.of(value, timeToLive)));
+
+			return;
+		}
+
+		setDenseMemory(slot, memoryType, value instanceof Collection<?> collection && collection.isEmpty() ? null : value, timeToLive);
+	}
+
+	private void setDenseMemory(int slot, MemoryModuleType<?> memoryType, @Nullable Object value, long timeToLive) {
+		onMemoryChanged(memoryType, this.memoryValues[slot], value);
+
+		this.memoryValues[slot] = value;
+		updateMemoryPresence(slot, value != null);
+
+		if (value != null && timeToLive != Long.MAX_VALUE) {
+			long expiryTick = this.memoryExpiries.getCurrentTick() + timeToLive + 1;
+
+			this.memoryExpiryTicks[slot] = expiryTick;
+			this.memoryExpiries.schedule(memoryType, expiryTick);
+		}
+		else {
+			this.memoryExpiryTicks[slot] = Long.MAX_VALUE;
+			this.memoryExpiries.cancel(memoryType);
+		}
 	}
 
 	@Override
 	public <U> boolean isMemoryValue(MemoryModuleType<U> memoryType, U memory) {
-		Optional<U> value = getMemory(memoryType);
+		U value = getMemoryValue(memoryType);
+
+		return value != null && value.equals(memory);
+	}
+
+	@Override
+	public void clearMemories() {
+		super.clearMemories();
+		this.memoryExpiries.clear();
+		Arrays.fill(this.memoryPresence, 0);
+
+		if (this.memoryValues != null) {
+			Arrays.fill(this.memoryValues, null);
+			Arrays.fill(this.memoryExpiryTicks, Long.MAX_VALUE);
+		}
+	}
+
+	/**
+	 * Returns a copy of this brain's memories, including any held in dense storage.<br>
+	 * Expirable memories are copied with their current time-to-live, since the stored values aren't ticked.
+	 * <p>
+	 * This is for debugging purposes only, and allocates a new map on every call
+	 */
+	@Override
+	public Map<MemoryModuleType<?>, Optional<? extends ExpirableValue<?>>> getMemories() {
+		Map<MemoryModuleType<?>, Optional<? extends ExpirableValue<?>>> memories = new Object2ObjectOpenHashMap<>(this.memories);
+
+		for (Map.Entry<MemoryModuleType<?>, Optional<? extends ExpirableValue<?>>> entry : memories.entrySet()) {
+			Optional<? extends ExpirableValue<?>> memory = entry.getValue();
+
+			if (memory.isPresent() && memory.get().canExpire())
+				entry.setValue(Optional.of(ExpirableValue.of(memory.get().getValue(), getTimeUntilExpiry(entry.getKey()))));
+		}
+
+		if (this.memoryValues == null)
+			return memories;
 
-		return value.isPresent() && value.get().equals(memory);
+		for (int slot = 0; slot < this.memoryValues.length; slot++) {
+			Object value = this.memoryValues[slot];
+			MemoryModuleType<?> memoryType = this.memorySlots.getMemoryType(slot);
+
+			memories.put(memoryType, value == null ? Optional.empty() : Optional.of(ExpirableValue.of(value, getTimeUntilExpiry(memoryType))));
+		}
+
+		return memories;
 	}
 
 	private static <E extends LivingEntity & SmartBrainOwner<E>> Codec<Brain<E>> emptyBrainCodec() {
@@ -239,32 +1070,45 @@ public class SmartBrain<E extends LivingEntity & SmartBrainOwner<E>> extends Bra
 
 	@Override
 	public Brain<E> copyWithoutBehaviors() {
-		SmartBrain<E> brain = new SmartBrain<>(this.memories.keySet().stream().toList(), this.sensors.stream().map(pair -> (ExtendedSensor<E>) pair.getSecond()).toList(), null);
+		SmartBrain<E> brain = new SmartBrain<>(this.memories.keySet().stream().toList(), this.sensors.stream().map(pair -> (ExtendedSensor<E>) pair.getSecond()).toList(), null, this.memorySlots, usesDenseMemoryStorage());
 
 		for (Map.Entry<MemoryModuleType<?>, Optional<? extends ExpirableValue<?>>> entry : this.memories.entrySet()) {
 			MemoryModuleType<?> memoryType = entry.getKey();
+			Optional<? extends ExpirableValue<?>> memory = entry.getValue();
+
+			if (memory.isPresent()) {
+				if (memory.get().canExpire())
+					memory = Optional.of(ExpirableValue.of(memory.get().getValue(), getTimeUntilExpiry(memoryType)));
 
-			if (entry.getValue().isPresent())
-				brain.memories.put(memoryType, entry.getValue());
+				brain.setMemoryInternal(memoryType, memory);
+			}
 		}
 
-		return brain;
-	}
+		if (this.memoryValues != null) {
+			for (int slot = 0; slot < this.memoryValues.length; slot++) {
+				Object value = this.memoryValues[slot];
 
-	@Override
-	public List<BehaviorControl<? super E>> getRunningBehaviors() {
-		List<BehaviorControl<? super E>> runningBehaviours = new ObjectArrayList<>();
+				if (value != null) {
+					MemoryModuleType memoryType = this.memorySlots.getMemoryType(slot);
 
-		for (ActivityBehaviours<E> behaviourGroup : this.behaviours) {
-			for (Pair<Activity, List<BehaviorControl<? super E>>> pair : behaviourGroup.behaviours) {
-				for (BehaviorControl<? super E> behaviour : pair.getSecond()) {
-					if (behaviour.getStatus() == Behavior.Status.RUNNING)
-						runningBehaviours.add(behaviour);
+					brain.setMemoryValue(memoryType, value, getTimeUntilExpiry(memoryType));
 				}
 			}
 		}
 
-		return runningBehaviours;
+		return brain;
+	}
+
+	/**
+	 * Returns an unmodifiable view of the {@link BehaviorControl Behaviours} that are currently running, in priority order.
+	 * <p>
+	 * The view is backed by the brain, and so will change as behaviours start and stop.<br>
+	 * {@link ExtendedBehaviour ExtendedBehaviours} are added and removed as they start and stop.
+	 * Other behaviours that are stopped outside of the brain's tick are removed on the brain's next tick
+	 */
+	@Override
+	public List<BehaviorControl<? super E>> getRunningBehaviors() {
+		return this.runningBehavioursView;
 	}
 
 	/**
@@ -277,6 +1121,8 @@ public class SmartBrain<E extends LivingEntity & SmartBrainOwner<E>> extends Bra
 	@Override
 	public void removeAllBehaviors() {
 		this.behaviours.clear();
+		this.runningBehaviours.clear();
+		onBehavioursChanged();
 	}
 
 	@Override
@@ -306,6 +1152,14 @@ public class SmartBrain<E extends LivingEntity & SmartBrainOwner<E>> extends Bra
 	 * @param behaviour The behaviour instance
 	 */
 	public void addBehaviour(int priority, Activity activity, BehaviorControl<? super E> behaviour) {
+		addBehaviourToGroup(priority, activity, behaviour);
+		onBehavioursChanged();
+
+		if (behaviour.getStatus() == Behavior.Status.RUNNING)
+			markRunning(behaviour);
+	}
+
+	private void addBehaviourToGroup(int priority, Activity activity, BehaviorControl<? super E> behaviour) {
 		for (ActivityBehaviours<E> behaviourGroup : this.behaviours) {
 			if (behaviourGroup.priority == priority) {
 				for (Pair<Activity, List<BehaviorControl<? super E>>> pair : behaviourGroup.behaviours) {
@@ -333,6 +1187,8 @@ public class SmartBrain<E extends LivingEntity & SmartBrainOwner<E>> extends Bra
 	 * @param predicate The predicate checked for each (priority, activity, behaviour)
 	 */
 	public void removeBehaviour(E entity, BrainBehaviourPredicate predicate) {
+		onBehavioursChanged();
+
 		for (ActivityBehaviours<E> behaviourGroup : this.behaviours) {
 			int priority = behaviourGroup.priority;
 
@@ -351,6 +1207,8 @@ public class SmartBrain<E extends LivingEntity & SmartBrainOwner<E>> extends Bra
 				}
 			}
 		}
+
+		pruneRunningBehaviours();
 	}
 
 	/**
@@ -434,6 +1292,20 @@ public class SmartBrain<E extends LivingEntity & SmartBrainOwner<E>> extends Bra
 		}
 	}
 
+	/**
+	 * @return How many ticks apart this brain is currently ticking, as set by its owner's {@link SmartBrainOwner#getBrainLodPolicy() level-of-detail policy}
+	 */
+	public int getLodTickInterval() {
+		return this.lodTickInterval;
+	}
+
+	/**
+	 * @return Whether this brain will skip its next tick because of its {@link #getLodTickInterval() level-of-detail interval}
+	 */
+	public boolean skipsNextTick() {
+		return this.ticksSinceLastTick + 1 < this.lodTickInterval;
+	}
+
 	/**
 	 * Adds an {@link ExtendedSensor} to this brain
 	 */
@@ -441,7 +1313,48 @@ public class SmartBrain<E extends LivingEntity & SmartBrainOwner<E>> extends Bra
 		SensorType<ExtendedSensor<? super E>> sensorType = (SensorType)sensor.type();
 
 		this.sensors.add(Pair.of(sensorType, sensor));
+
+		this.sensorTriggers = null;
 	}
 
+	private record SensorTriggers<E extends LivingEntity>(List<ExtendedSensor<? super E>> hurt, Reference2ObjectMap<MemoryModuleType<?>, List<ExtendedSensor<? super E>>> memories) {}
+
+	private record BufferedMemory(MemoryModuleType<?> memoryType, @Nullable Object value, long timeToLive) {}
+
 	private record ActivityBehaviours<E extends LivingEntity & SmartBrainOwner<E>> (int priority, List<Pair<Activity, List<BehaviorControl<? super E>>>> behaviours) {}
+
+	/**
+	 * The elements of a sensor's previous collection result, compared by identity regardless of order
+	 */
+	private static final class SensorResultElements {
+		private final ReferenceOpenHashSet<Object> elements = new ReferenceOpenHashSet<>();
+		private int size = 0;
+
+		/**
+		 * Replace the stored elements with those of the given collection
+		 *
+		 * @return Whether the collection's elements differ from the stored ones
+		 */
+		boolean update(Collection<?> collection) {
+			boolean changed = collection.size() != this.size;
+
+			if (!changed) {
+				for (Object element : collection) {
+					if (!this.elements.contains(element)) {
+						changed = true;
+
+						break;
+					}
+				}
+			}
+
+			if (changed) {
+				this.elements.clear();
+				this.elements.addAll(collection);
+				this.size = collection.size();
+			}
+
+			return changed;
+		}
+	}
 }
@@ -15,6 +15,7 @@ import net.minecraft.world.entity.ai.memory.MemoryModuleType;
 import net.tslat.smartbrainlib.api.SmartBrainOwner;
 import net.tslat.smartbrainlib.api.core.behaviour.GroupBehaviour;
 import net.tslat.smartbrainlib.api.core.sensor.ExtendedSensor;
+import net.tslat.smartbrainlib.object.MemorySlotIndex;
 
 import java.util.List;
 import java.util.Map;
@@ -30,10 +31,13 @@ import java.util.Set;
  */
 public class SmartBrainProvider<E extends LivingEntity & SmartBrainOwner<E>> extends Brain.Provider<E> {
 	private static final Map<EntityType<? extends LivingEntity>, ImmutableList<MemoryModuleType<?>>> BRAIN_MEMORY_CACHE = new Object2ObjectOpenHashMap<>();
+	private static final Map<EntityType<? extends LivingEntity>, MemorySlotIndex> BRAIN_MEMORY_SLOT_CACHE = new Object2ObjectOpenHashMap<>();
 
 	private final E owner;
 
 	private final boolean nonStaticMemories;
+	private boolean denseMemoryStorage = false;
+	private boolean staggerSensors = false;
 
 	/**
 	 * @param owner The owner of the brain
@@ -54,23 +58,59 @@ public class SmartBrainProvider<E extends LivingEntity & SmartBrainOwner<E>> ext
 		this.nonStaticMemories = nonStaticMemories;
 	}
 
+	/**
+	 * Have brains made by this provider store their memories in dense per-entity-type arrays, instead of vanilla's memory map.<br>
+	 * This makes memory reads and writes through {@link net.tslat.smartbrainlib.util.BrainUtil BrainUtil} allocation-free,
+	 * at the cost of {@link Brain#memories} no longer reflecting the memories collected from the entity's behaviours and sensors.
+	 * <p>
+	 * Memory types not collected from the entity's behaviours and sensors are still stored in the memory map.
+	 *
+	 * @return this
+	 */
+	public SmartBrainProvider<E> withDenseMemoryStorage() {
+		this.denseMemoryStorage = true;
+
+		return this;
+	}
+
+	/**
+	 * Have all {@link ExtendedSensor sensors} of brains made by this provider {@link ExtendedSensor#staggerScans() stagger} their scans.<br>
+	 * This avoids every entity loaded at the same time scanning on the same tick.
+	 *
+	 * @return this
+	 */
+	public SmartBrainProvider<E> withStaggeredSensors() {
+		this.staggerSensors = true;
+
+		return this;
+	}
+
 	@Override
 	public final SmartBrain<E> makeBrain(Dynamic<?> codecLoader) {
 		List<? extends ExtendedSensor<? extends E>> sensors = this.owner.getSensors();
+
+		if (this.staggerSensors)
+			sensors.forEach(ExtendedSensor::staggerScans);
+
 		List<BrainActivityGroup<? extends E>> taskList = compileTasks();
 		ImmutableList<MemoryModuleType<?>> memories;
+		MemorySlotIndex memorySlots;
 
 		if (!this.nonStaticMemories && BRAIN_MEMORY_CACHE.containsKey(this.owner.getType())) {
 			memories = BRAIN_MEMORY_CACHE.get(this.owner.getType());
+			memorySlots = BRAIN_MEMORY_SLOT_CACHE.get(this.owner.getType());
 		}
 		else {
 			memories = createMemoryList(taskList, sensors);
+			memorySlots = MemorySlotIndex.of(memories);
 
-			if (!this.nonStaticMemories)
+			if (!this.nonStaticMemories) {
 				BRAIN_MEMORY_CACHE.put((EntityType<? extends LivingEntity>)this.owner.getType(), memories);
+				BRAIN_MEMORY_SLOT_CACHE.put((EntityType<? extends LivingEntity>)this.owner.getType(), memorySlots);
+			}
 		}
 
-		SmartBrain<E> brain = new SmartBrain(memories, sensors, taskList);
+		SmartBrain<E> brain = new SmartBrain(memories, sensors, taskList, memorySlots, this.denseMemoryStorage);
 
 		finaliseBrain(brain);
 
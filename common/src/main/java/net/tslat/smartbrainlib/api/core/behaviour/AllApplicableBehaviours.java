@@ -96,6 +96,8 @@ public final class AllApplicableBehaviours<E extends LivingEntity> extends Group
 			if (behaviour.getStatus() == Status.RUNNING)
 				behaviour.doStop(level, entity, gameTime);
 		}
+
+		notifyStatusChanged(entity);
 	}
 
 	@Override
@@ -108,6 +110,16 @@ public final class AllApplicableBehaviours<E extends LivingEntity> extends Group
 		return Status.STOPPED;
 	}
 
+	@Override
+	public boolean keepsBrainAwake() {
+		for (ExtendedBehaviour<? super E> behaviour : this.behaviours) {
+			if (behaviour.getStatus() == Status.RUNNING && behaviour.keepsBrainAwake())
+				return true;
+		}
+
+		return false;
+	}
+
 	@Override
 	public String toString() {
 		final Set<? extends BehaviorControl<? super E>> activeBehaviours = this.behaviours.stream()
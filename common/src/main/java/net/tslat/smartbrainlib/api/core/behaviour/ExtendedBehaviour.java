@@ -2,14 +2,20 @@ package net.tslat.smartbrainlib.api.core.behaviour;
 
 import com.mojang.datafixers.util.Pair;
 import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.entity.LivingEntity;
 import net.minecraft.world.entity.ai.Brain;
 import net.minecraft.world.entity.ai.behavior.Behavior;
 import net.minecraft.world.entity.ai.memory.MemoryModuleType;
 import net.minecraft.world.entity.ai.memory.MemoryStatus;
+import net.tslat.smartbrainlib.api.core.SmartBrain;
+import net.tslat.smartbrainlib.object.MemoryRequirementMask;
+import net.tslat.smartbrainlib.object.MemorySlotIndex;
 import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
@@ -40,6 +46,18 @@ public abstract class ExtendedBehaviour<E extends LivingEntity> extends Behavior
 	protected ToIntFunction<E> cooldownProvider = entity -> 0;
 	protected long cooldownFinishedAt = 0;
 
+	protected int startPollInterval = -1;
+	protected List<MemoryModuleType<?>> extraStartDependencies = List.of();
+	private boolean startCheckDirty = true;
+	private long nextStartPollTime = 0;
+	@Nullable
+	private List<MemoryModuleType<?>> startDependencies = null;
+	@Nullable
+	private List<Pair<MemoryModuleType<?>, MemoryStatus>> startDependencyRequirements = null;
+
+	@Nullable
+	private MemoryRequirementMask memoryRequirementMask = null;
+
 	public ExtendedBehaviour() {
 		super(new Object2ObjectOpenHashMap<>());
 
@@ -169,16 +187,111 @@ public abstract class ExtendedBehaviour<E extends LivingEntity> extends Behavior
 		return runFor(entity -> Integer.MAX_VALUE);
 	}
 
+	/**
+	 * @return The game time at which this behaviour's current cooldown finishes
+	 */
+	public long getCooldownFinishedAt() {
+		return this.cooldownFinishedAt;
+	}
+
+	/**
+	 * Have this behaviour only re-check its start conditions after a failed start check when one of its memory dependencies changes,
+	 * its cooldown finishes, or the given polling interval passes, rather than every tick.
+	 * <p>
+	 * The memory dependencies are the memories in {@link #getMemoryRequirements()}, plus any extra memories given here.<br>
+	 * Only use this if the behaviour's start conditions depend only on those memories, or can tolerate being checked at the polling interval.
+	 * Memory changes are only detected in a {@link SmartBrain}, so in other brains the behaviour is only checked at the polling interval
+	 * <p>
+	 * A memory only counts as changed when it is set to a different object.
+	 * Memory values that are mutated in place (E.G. adding to a list already stored in the brain) aren't detected, and are only picked up at the polling interval
+	 *
+	 * @param pollInterval The maximum number of ticks between start checks
+	 * @param extraDependencies Any memories the start conditions depend on that aren't part of the memory requirements
+	 * @return this
+	 */
+	public final ExtendedBehaviour<E> startReactively(int pollInterval, MemoryModuleType<?>... extraDependencies) {
+		this.startPollInterval = Math.max(1, pollInterval);
+		this.extraStartDependencies = List.of(extraDependencies);
+		this.startDependencies = null;
+
+		return this;
+	}
+
+	/**
+	 * @return Whether this behaviour has been set to {@link #startReactively start reactively}
+	 */
+	public boolean startsReactively() {
+		return this.startPollInterval > 0;
+	}
+
+	/**
+	 * @return The memories that this behaviour's start conditions depend on, if it {@link #startsReactively() starts reactively}
+	 */
+	public List<MemoryModuleType<?>> getStartDependencies() {
+		List<Pair<MemoryModuleType<?>, MemoryStatus>> requirements = getMemoryRequirements();
+
+		if (requirements.isEmpty())
+			return this.extraStartDependencies;
+
+		if (this.startDependencies == null || this.startDependencyRequirements != requirements) {
+			List<MemoryModuleType<?>> dependencies = new ObjectArrayList<>(requirements.size() + this.extraStartDependencies.size());
+
+			for (Pair<MemoryModuleType<?>, MemoryStatus> requirement : requirements) {
+				dependencies.add(requirement.getFirst());
+			}
+
+			dependencies.addAll(this.extraStartDependencies);
+
+			this.startDependencies = Collections.unmodifiableList(dependencies);
+			this.startDependencyRequirements = requirements;
+		}
+
+		return this.startDependencies;
+	}
+
+	/**
+	 * Have this behaviour re-check its start conditions next time it is polled, if it {@link #startsReactively() starts reactively}
+	 */
+	public void markStartCheckDirty() {
+		this.startCheckDirty = true;
+	}
+
+	/**
+	 * Whether this behaviour running should stop the brain from going {@link net.tslat.smartbrainlib.api.SmartBrainOwner#getDormancyDelay() dormant}.<br>
+	 * Override this to return false for behaviours that only idle, so that a brain running them can still go dormant
+	 *
+	 * @return Whether the brain should stay awake while this behaviour is running
+	 */
+	public boolean keepsBrainAwake() {
+		return true;
+	}
+
 	@Override
 	public final boolean tryStart(ServerLevel level, E entity, long gameTime) {
-		if (!doStartCheck(level, entity, gameTime))
+		if (this.startPollInterval > 0 && !this.startCheckDirty && gameTime < this.nextStartPollTime)
+			return false;
+
+		if (!doStartCheck(level, entity, gameTime)) {
+			if (this.startPollInterval > 0) {
+				this.startCheckDirty = false;
+				this.nextStartPollTime = gameTime + this.startPollInterval;
+
+				if (this.cooldownFinishedAt > gameTime)
+					this.nextStartPollTime = Math.min(this.nextStartPollTime, this.cooldownFinishedAt);
+			}
+
 			return false;
+		}
+
+		this.startCheckDirty = true;
 
 		this.status = Status.RUNNING;
 		this.endTimestamp = gameTime + this.runtimeProvider.applyAsInt(entity);
 
 		start(level, entity, gameTime);
 
+		notifyStatusChanged(entity);
+
 		return true;
 	}
 
@@ -251,6 +364,19 @@ public abstract class ExtendedBehaviour<E extends LivingEntity> extends Behavior
 
 		this.taskStopCallback.accept(entity);
 		stop(entity);
+
+		notifyStatusChanged(entity);
+	}
+
+	/**
+	 * Let the entity's {@link SmartBrain} know that this behaviour has started or stopped, so that it can keep its running behaviours up to date.<br>
+	 * Subclasses that override {@link #stop(ServerLevel, LivingEntity, long)} without calling {@code super} should call this once stopped
+	 *
+	 * @param entity The entity the brain belongs to
+	 */
+	protected final void notifyStatusChanged(E entity) {
+		if (entity.getBrain() instanceof SmartBrain<?> brain)
+			brain.onBehaviourStatusChanged(this);
 	}
 
 	/**
@@ -334,8 +460,15 @@ public abstract class ExtendedBehaviour<E extends LivingEntity> extends Behavior
 	@Override
 	public final boolean hasRequiredMemories(E entity) {
 		Brain<?> brain = entity.getBrain();
+		List<Pair<MemoryModuleType<?>, MemoryStatus>> requirements = getMemoryRequirements();
+
+		if (requirements.isEmpty())
+			return true;
 
-		for (Pair<MemoryModuleType<?>, MemoryStatus> memoryPair : getMemoryRequirements()) {
+		if (brain instanceof SmartBrain<?> smartBrain && !hasDynamicMemoryRequirements())
+			return getMemoryRequirementMask(requirements, smartBrain.getMemorySlots()).test(smartBrain.getMemoryPresence(), brain);
+
+		for (Pair<MemoryModuleType<?>, MemoryStatus> memoryPair : requirements) {
 			if (!brain.checkMemory(memoryPair.getFirst(), memoryPair.getSecond()))
 				return false;
 		}
@@ -343,6 +476,28 @@ public abstract class ExtendedBehaviour<E extends LivingEntity> extends Behavior
 		return true;
 	}
 
+	/**
+	 * Get the compiled mask for this behaviour's memory requirements, compiling it if the requirements or slot index have changed
+	 */
+	private MemoryRequirementMask getMemoryRequirementMask(List<Pair<MemoryModuleType<?>, MemoryStatus>> requirements, MemorySlotIndex slotIndex) {
+		if (this.memoryRequirementMask == null || !this.memoryRequirementMask.isCompiledFrom(requirements, slotIndex))
+			this.memoryRequirementMask = MemoryRequirementMask.compile(requirements, slotIndex);
+
+		return this.memoryRequirementMask;
+	}
+
+	/**
+	 * Override this to return true if {@link #getMemoryRequirements()} builds new requirement pairs each time it's called.
+	 * <p>
+	 * In a {@link SmartBrain}, memory requirements are compiled into a {@link MemoryRequirementMask} that is recompiled whenever the requirements change, including when the list is modified in place.
+	 * Behaviours with dynamic requirements skip the mask and check each requirement against the brain instead, rather than recompiling it on every check
+	 *
+	 * @return Whether this behaviour's memory requirements are built dynamically
+	 */
+	protected boolean hasDynamicMemoryRequirements() {
+		return false;
+	}
+
 	/**
 	 * The list of memory requirements this task has prior to starting. This
 	 * outlines the approximate state the brain should be in, in order to allow this
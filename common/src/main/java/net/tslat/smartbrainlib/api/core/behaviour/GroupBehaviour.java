@@ -99,6 +99,8 @@ public abstract class GroupBehaviour<E extends LivingEntity> extends ExtendedBeh
 			this.runningBehaviour.stop(level, entity, gameTime);
 
 		this.runningBehaviour = null;
+
+		notifyStatusChanged(entity);
 	}
 
 	@Override
@@ -109,6 +111,11 @@ public abstract class GroupBehaviour<E extends LivingEntity> extends ExtendedBeh
 		return this.runningBehaviour.getStatus();
 	}
 
+	@Override
+	public boolean keepsBrainAwake() {
+		return this.runningBehaviour == null || this.runningBehaviour.keepsBrainAwake();
+	}
+
 	@Override
 	public String toString() {
 		return "(" + getClass().getSimpleName() + "): " + (this.runningBehaviour != null ? this.runningBehaviour.toString() : "{}");
@@ -42,6 +42,11 @@ public class LookAtTarget<E extends Mob> extends ExtendedBehaviour<E> {
 		return testAndInvalidateLookTarget(entity);
 	}
 
+	@Override
+	public boolean keepsBrainAwake() {
+		return false;
+	}
+
 	@Override
 	protected void tick(E entity) {
 		BrainUtil.withMemory(entity, MemoryModuleType.LOOK_TARGET, target -> entity.getLookControl().setLookAt(target.currentPosition()));
@@ -22,4 +22,9 @@ public class Idle<E extends LivingEntity> extends ExtendedBehaviour<E> {
 	protected boolean shouldKeepRunning(E entity) {
 		return true;
 	}
+
+	@Override
+	public boolean keepsBrainAwake() {
+		return false;
+	}
 }
@@ -10,9 +10,10 @@ import net.minecraft.world.entity.ai.memory.MemoryModuleType;
 import net.minecraft.world.entity.ai.memory.MemoryStatus;
 import net.minecraft.world.entity.player.Player;
 import net.tslat.smartbrainlib.api.core.behaviour.ExtendedBehaviour;
+import net.tslat.smartbrainlib.api.core.sensor.NearbyEntityScanner;
+import net.tslat.smartbrainlib.object.EntitySnapshot;
 import net.tslat.smartbrainlib.object.MemoryTest;
 import net.tslat.smartbrainlib.util.BrainUtil;
-import net.tslat.smartbrainlib.util.EntityRetrievalUtil;
 
 import java.util.List;
 import java.util.function.BiPredicate;
@@ -26,6 +27,7 @@ import java.util.function.Predicate;
  *     <li>Does not alert nearby allies when retaliating</li>
  *     <li>If enabled, only alerts allies of the same class, if they don't already have a target themselves</li>
  * </ul>
+ * Allies are taken from the entity's {@link EntitySnapshot} if it has one from the current tick covering the alert radius, instead of scanning for them.
  * @param <E> The entity
  */
 public class SetRetaliateTarget<E extends LivingEntity> extends ExtendedBehaviour<E> {
@@ -110,8 +112,11 @@ public class SetRetaliateTarget<E extends LivingEntity> extends ExtendedBehaviou
 
 	protected void alertAllies(ServerLevel level, E owner) {
 		double followRange = owner.getAttributeValue(Attributes.FOLLOW_RANGE);
+		Predicate<LivingEntity> predicate = entity -> this.allyPredicate.test(owner, entity);
+		// Only use an entity snapshot from this tick, so allies that have just arrived are still alerted
+		List<LivingEntity> allies = NearbyEntityScanner.findNearby(owner, followRange, 10, LivingEntity.class, predicate, Integer.MAX_VALUE, 0, null);
 
-		for (LivingEntity ally : EntityRetrievalUtil.getEntities(owner, followRange, 10, followRange, LivingEntity.class, entity -> this.allyPredicate.test(owner, entity))) {
+		for (LivingEntity ally : allies) {
 			BrainUtil.setTargetOfEntity(ally, this.toTarget);
 		}
 	}
@@ -0,0 +1,250 @@
+package net.tslat.smartbrainlib.api.core.instrumentation;
+
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import net.minecraft.util.Util;
+import net.minecraft.world.entity.EntityType;
+import net.tslat.smartbrainlib.SBLConstants;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Opt-in timing instrumentation for SmartBrain behaviours and sensors.
+ * <p>
+ * When enabled, every {@link net.tslat.smartbrainlib.api.core.SmartBrain SmartBrain} records how long each of its behaviours take to check their start conditions and tick,
+ * how often they start and stop, and how long and how often each of its sensors scan.
+ * Timings are aggregated per behaviour/sensor class, per {@link EntityType}, with start checks and ticks (or scans, for sensors) kept separate.
+ * <p>
+ * When disabled (the default), the only overhead is a single flag check per behaviour and sensor tick.<br>
+ * Results can be retrieved with {@link #snapshot()}, written out with {@link #dumpToFile(Path)}, or written out automatically every so often with {@link #dumpPeriodically(Path, int)}
+ */
+public final class BrainInstrumentation {
+	private static final Map<EntityType<?>, Map<Class<?>, Counter>> BEHAVIOUR_COUNTERS = new ConcurrentHashMap<>();
+	private static final Map<EntityType<?>, Map<Class<?>, Counter>> SENSOR_COUNTERS = new ConcurrentHashMap<>();
+
+	private static volatile boolean enabled = false;
+	private static long enabledSince = 0;
+	@Nullable
+	private static Path dumpFile = null;
+	private static int dumpInterval = 0;
+	private static int ticksUntilDump = 0;
+
+	/**
+	 * @return Whether instrumentation is currently recording
+	 */
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Start recording timings. Existing timings are kept
+	 */
+	public static void enable() {
+		if (!enabled)
+			enabledSince = System.nanoTime();
+
+		enabled = true;
+	}
+
+	/**
+	 * Stop recording timings. Existing timings are kept until {@link #reset()} is called
+	 */
+	public static void disable() {
+		enabled = false;
+	}
+
+	/**
+	 * Discard all recorded timings
+	 */
+	public static void reset() {
+		BEHAVIOUR_COUNTERS.clear();
+		SENSOR_COUNTERS.clear();
+
+		enabledSince = System.nanoTime();
+	}
+
+	/**
+	 * Write a {@link #snapshot() snapshot} of the recorded timings to the given file every given number of server ticks, replacing its contents each time.<br>
+	 * Only dumps while instrumentation is {@link #isEnabled() enabled}
+	 *
+	 * @param file The file to write to
+	 * @param intervalTicks The number of server ticks between dumps
+	 */
+	public static void dumpPeriodically(Path file, int intervalTicks) {
+		dumpFile = file;
+		dumpInterval = Math.max(1, intervalTicks);
+		ticksUntilDump = dumpInterval;
+	}
+
+	/**
+	 * Stop any periodic dumping set up by {@link #dumpPeriodically(Path, int)}
+	 */
+	public static void stopPeriodicDump() {
+		dumpFile = null;
+		dumpInterval = 0;
+	}
+
+	/**
+	 * Take an immutable copy of all the timings recorded so far
+	 */
+	public static InstrumentationSnapshot snapshot() {
+		return new InstrumentationSnapshot(enabled ? System.nanoTime() - enabledSince : 0, snapshotCounters(BEHAVIOUR_COUNTERS), snapshotCounters(SENSOR_COUNTERS));
+	}
+
+	/**
+	 * Write a {@link #snapshot() snapshot} of the recorded timings to the given file as CSV, replacing its contents
+	 */
+	public static void dumpToFile(Path file) throws IOException {
+		writeSnapshot(snapshot(), file);
+	}
+
+	/**
+	 * Record a behaviour's start check
+	 *
+	 * @param entityType The type of the entity the behaviour belongs to
+	 * @param behaviourClass The class of the behaviour
+	 * @param nanos The time it took to check and possibly start the behaviour
+	 * @param started Whether the behaviour started
+	 */
+	@ApiStatus.Internal
+	public static void recordBehaviourStartCheck(EntityType<?> entityType, Class<?> behaviourClass, long nanos, boolean started) {
+		Counter counter = getCounter(BEHAVIOUR_COUNTERS, entityType, behaviourClass);
+
+		counter.startChecks.record(nanos);
+
+		if (started)
+			counter.starts.increment();
+	}
+
+	/**
+	 * Record a running behaviour's tick
+	 *
+	 * @param entityType The type of the entity the behaviour belongs to
+	 * @param behaviourClass The class of the behaviour
+	 * @param nanos The time it took to tick the behaviour
+	 */
+	@ApiStatus.Internal
+	public static void recordBehaviourTick(EntityType<?> entityType, Class<?> behaviourClass, long nanos) {
+		getCounter(BEHAVIOUR_COUNTERS, entityType, behaviourClass).ticks.record(nanos);
+	}
+
+	/**
+	 * Record a behaviour stopping
+	 *
+	 * @param entityType The type of the entity the behaviour belongs to
+	 * @param behaviourClass The class of the behaviour
+	 */
+	@ApiStatus.Internal
+	public static void recordBehaviourStop(EntityType<?> entityType, Class<?> behaviourClass) {
+		getCounter(BEHAVIOUR_COUNTERS, entityType, behaviourClass).stops.increment();
+	}
+
+	/**
+	 * Record a sensor's scan
+	 *
+	 * @param entityType The type of the entity the sensor belongs to
+	 * @param sensorClass The class of the sensor
+	 * @param nanos The time it took to scan
+	 */
+	@ApiStatus.Internal
+	public static void recordSensorScan(EntityType<?> entityType, Class<?> sensorClass, long nanos) {
+		getCounter(SENSOR_COUNTERS, entityType, sensorClass).ticks.record(nanos);
+	}
+
+	/**
+	 * Handle any pending periodic dump. Must be called once per server tick
+	 */
+	@ApiStatus.Internal
+	public static void onServerTick() {
+		Path file = dumpFile;
+
+		if (file == null || !enabled || --ticksUntilDump > 0)
+			return;
+
+		ticksUntilDump = dumpInterval;
+		InstrumentationSnapshot snapshot = snapshot();
+
+		Util.ioPool().execute(() -> {
+			try {
+				writeSnapshot(snapshot, file);
+			}
+			catch (IOException ex) {
+				SBLConstants.LOGGER.error("Unable to write brain instrumentation to " + file, ex);
+			}
+		});
+	}
+
+	private static Counter getCounter(Map<EntityType<?>, Map<Class<?>, Counter>> counters, EntityType<?> entityType, Class<?> type) {
+		return counters.computeIfAbsent(entityType, key -> new ConcurrentHashMap<>()).computeIfAbsent(type, key -> new Counter());
+	}
+
+	private static List<InstrumentationSnapshot.Entry> snapshotCounters(Map<EntityType<?>, Map<Class<?>, Counter>> counters) {
+		List<InstrumentationSnapshot.Entry> entries = new ObjectArrayList<>();
+
+		counters.forEach((entityType, typeCounters) -> typeCounters.forEach((type, counter) ->
+				entries.add(new InstrumentationSnapshot.Entry(entityType, type, counter.startChecks.snapshot(), counter.ticks.snapshot(), counter.starts.sum(), counter.stops.sum()))));
+		entries.sort((entry, entry2) -> Long.compare(entry2.totalNanos(), entry.totalNanos()));
+
+		return List.copyOf(entries);
+	}
+
+	private static void writeSnapshot(InstrumentationSnapshot snapshot, Path file) throws IOException {
+		if (file.getParent() != null)
+			Files.createDirectories(file.getParent());
+
+		try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+			writer.write("# Recorded for " + snapshot.recordedNanos() / 1_000_000 + "ms\n");
+			writer.write("kind,entity_type,class,start_checks,start_check_total_ns,start_check_average_ns,start_check_max_ns,ticks,tick_total_ns,tick_average_ns,tick_max_ns,starts,stops\n");
+
+			for (InstrumentationSnapshot.Entry entry : snapshot.behaviours()) {
+				writeEntry(writer, "behaviour", entry);
+			}
+
+			for (InstrumentationSnapshot.Entry entry : snapshot.sensors()) {
+				writeEntry(writer, "sensor", entry);
+			}
+		}
+	}
+
+	private static void writeEntry(Writer writer, String kind, InstrumentationSnapshot.Entry entry) throws IOException {
+		writer.write(kind + "," + EntityType.getKey(entry.entityType()) + "," + entry.type().getName() + "," + timingColumns(entry.startChecks()) + "," + timingColumns(entry.ticks()) + "," +
+				entry.starts() + "," + entry.stops() + "\n");
+	}
+
+	private static String timingColumns(InstrumentationSnapshot.Timing timing) {
+		return timing.invocations() + "," + timing.totalNanos() + "," + timing.averageNanos() + "," + timing.maxNanos();
+	}
+
+	private static final class Counter {
+		private final TimingCounter startChecks = new TimingCounter();
+		private final TimingCounter ticks = new TimingCounter();
+		private final LongAdder starts = new LongAdder();
+		private final LongAdder stops = new LongAdder();
+	}
+
+	private static final class TimingCounter {
+		private final LongAdder invocations = new LongAdder();
+		private final LongAdder totalNanos = new LongAdder();
+		private final AtomicLong maxNanos = new AtomicLong();
+
+		private void record(long nanos) {
+			this.invocations.increment();
+			this.totalNanos.add(nanos);
+			this.maxNanos.accumulateAndGet(nanos, Math::max);
+		}
+
+		private InstrumentationSnapshot.Timing snapshot() {
+			return new InstrumentationSnapshot.Timing(this.invocations.sum(), this.totalNanos.sum(), this.maxNanos.get());
+		}
+	}
+}
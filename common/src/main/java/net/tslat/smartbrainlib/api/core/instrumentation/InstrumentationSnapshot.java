@@ -0,0 +1,63 @@
+package net.tslat.smartbrainlib.api.core.instrumentation;
+
+import net.minecraft.world.entity.EntityType;
+
+import java.util.List;
+
+/**
+ * Immutable copy of the timings recorded by {@link BrainInstrumentation}, sorted by total time spent, highest first
+ *
+ * @param recordedNanos How long instrumentation has been enabled for since it was last enabled or reset, or 0 if it is currently disabled
+ * @param behaviours The timings for each behaviour class, per entity type
+ * @param sensors The timings for each sensor class, per entity type
+ */
+public record InstrumentationSnapshot(long recordedNanos, List<Entry> behaviours, List<Entry> sensors) {
+	/**
+	 * @return The behaviour timings for the given entity type
+	 */
+	public List<Entry> behavioursFor(EntityType<?> entityType) {
+		return this.behaviours.stream().filter(entry -> entry.entityType == entityType).toList();
+	}
+
+	/**
+	 * @return The sensor timings for the given entity type
+	 */
+	public List<Entry> sensorsFor(EntityType<?> entityType) {
+		return this.sensors.stream().filter(entry -> entry.entityType == entityType).toList();
+	}
+
+	/**
+	 * The timings of a single behaviour or sensor class for a single entity type
+	 *
+	 * @param entityType The entity type
+	 * @param type The behaviour or sensor class
+	 * @param startChecks The timings of the behaviour's start checks. Always empty for sensors
+	 * @param ticks The timings of the behaviour's running ticks, or the sensor's scans
+	 * @param starts The number of times the behaviour started. Always 0 for sensors
+	 * @param stops The number of times the behaviour stopped. Always 0 for sensors
+	 */
+	public record Entry(EntityType<?> entityType, Class<?> type, Timing startChecks, Timing ticks, long starts, long stops) {
+		/**
+		 * @return The total time spent across both start checks and ticks
+		 */
+		public long totalNanos() {
+			return this.startChecks.totalNanos + this.ticks.totalNanos;
+		}
+	}
+
+	/**
+	 * The timings of one kind of timed call
+	 *
+	 * @param invocations The number of timed calls
+	 * @param totalNanos The total time spent across all calls
+	 * @param maxNanos The longest single call
+	 */
+	public record Timing(long invocations, long totalNanos, long maxNanos) {
+		/**
+		 * @return The average time spent per call
+		 */
+		public long averageNanos() {
+			return this.invocations == 0 ? 0 : this.totalNanos / this.invocations;
+		}
+	}
+}
@@ -88,13 +88,29 @@ public class SmartBrainSchedule {
 	 */
 	@Nullable
 	public Activity tick(LivingEntity brainOwner) {
+		return tick(brainOwner, 1);
+	}
+
+	/**
+	 * Tick the schedule and return the activity to switch the entity to, if applicable.<br>
+	 * Callbacks for any ticks skipped since the last time the schedule was ticked are run first, in order
+	 * @param brainOwner The owner of the brain that contains this schedule
+	 * @param elapsedTicks The number of ticks since the schedule was last ticked
+	 * @return The activity to set as active based on the current tick, or null if none to set
+	 */
+	@Nullable
+	public Activity tick(LivingEntity brainOwner, int elapsedTicks) {
 		int tick = this.type.resolve(brainOwner);
 
 		if (!this.callbacks.isEmpty()) {
-			this.callbacks.get(tick).forEach(consumer -> consumer.accept(brainOwner));
+			for (int i = Math.max(1, elapsedTicks) - 1; i >= 0; i--) {
+				int callbackTick = this.type == Type.DAYTIME ? Math.floorMod(tick - i, 24000) : tick - i;
 
-			if (this.type == Type.AGE)
-				this.callbacks.removeAll(tick);
+				this.callbacks.get(callbackTick).forEach(consumer -> consumer.accept(brainOwner));
+
+				if (this.type == Type.AGE)
+					this.callbacks.removeAll(callbackTick);
+			}
 		}
 
 		if (!this.timeline.isEmpty()) {
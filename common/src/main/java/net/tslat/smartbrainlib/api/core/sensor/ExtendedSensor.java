@@ -1,11 +1,14 @@
 package net.tslat.smartbrainlib.api.core.sensor;
 
+import it.unimi.dsi.fastutil.HashCommon;
 import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.entity.LivingEntity;
 import net.minecraft.world.entity.ai.memory.MemoryModuleType;
 import net.minecraft.world.entity.ai.sensing.Sensor;
 import net.minecraft.world.entity.ai.sensing.SensorType;
+import net.tslat.smartbrainlib.api.core.instrumentation.BrainInstrumentation;
+import org.jetbrains.annotations.ApiStatus;
 
 import java.util.List;
 import java.util.Set;
@@ -22,6 +25,11 @@ public abstract class ExtendedSensor<E extends LivingEntity> extends Sensor<E> {
 	protected ToIntFunction<E> scanRate = entity -> 20;
 	protected Consumer<E> scanCallback = entity -> {};
 	protected long nextTickTime = 0;
+	protected boolean staggerScans = false;
+	protected boolean parallelSafe = false;
+	protected boolean scanWhenHurt = false;
+	protected List<MemoryModuleType<?>> memoryTriggers = List.of();
+	protected boolean triggered = false;
 
 	public ExtendedSensor() {
 		super();
@@ -40,6 +48,91 @@ public abstract class ExtendedSensor<E extends LivingEntity> extends Sensor<E> {
 		return this;
 	}
 
+	/**
+	 * Have this sensor stagger its scans based on the entity's id, rather than scanning on the first tick and every {@link #setScanRate scan rate} ticks after.<br>
+	 * This spreads the scans of entities that were loaded at the same time across the scan period, while keeping the same average scan rate.
+	 * <p>
+	 * The first scan may be delayed by up to one scan period as a result.
+	 *
+	 * @return this
+	 */
+	public ExtendedSensor<E> staggerScans() {
+		this.staggerScans = true;
+
+		return this;
+	}
+
+	/**
+	 * Mark this sensor's {@link #doTick} (and its scan callback) as safe to run off the server thread, allowing it to be run in the {@link ParallelSensorPhase parallel sensor phase}.
+	 * <p>
+	 * A parallel-safe sensor must only read the world and its own entity, and must not depend on memories set by other sensors in the same tick.<br>
+	 * Memories it sets are buffered and committed on the server thread before the brain ticks.
+	 * The server thread is blocked while parallel sensors run, so it can't load or look up chunks for them.
+	 * Parallel-safe sensors must not access chunks through the level, and should read blocks through {@link net.tslat.smartbrainlib.util.BlockRetrievalUtil BlockRetrievalUtil} instead.
+	 *
+	 * @return this
+	 */
+	public ExtendedSensor<E> markParallelSafe() {
+		this.parallelSafe = true;
+
+		return this;
+	}
+
+	/**
+	 * @return Whether this sensor has been {@link #markParallelSafe() marked} as safe to run off the server thread
+	 */
+	public boolean isParallelSafe() {
+		return this.parallelSafe;
+	}
+
+	/**
+	 * Have this sensor scan on the next brain tick after its entity takes damage, instead of waiting for its next scheduled scan.<br>
+	 * The {@link #setScanRate scan rate} then acts as the longest the sensor will go without scanning, and can be set much higher for sensors that only react to damage.
+	 *
+	 * @return this
+	 */
+	public ExtendedSensor<E> scanWhenHurt() {
+		this.scanWhenHurt = true;
+
+		return this;
+	}
+
+	/**
+	 * Have this sensor scan on the next brain tick after any of the given memories are set to a different value or erased, instead of waiting for its next scheduled scan.<br>
+	 * The {@link #setScanRate scan rate} then acts as the longest the sensor will go without scanning, and can be set much higher for sensors that only react to those memories.
+	 * <p>
+	 * Only memory changes in a {@link net.tslat.smartbrainlib.api.core.SmartBrain SmartBrain} are detected
+	 *
+	 * @param memoryTypes The memories to watch for changes
+	 * @return this
+	 */
+	public ExtendedSensor<E> scanWhenMemoryChanges(MemoryModuleType<?>... memoryTypes) {
+		this.memoryTriggers = List.of(memoryTypes);
+
+		return this;
+	}
+
+	/**
+	 * @return Whether this sensor has been set to {@link #scanWhenHurt() scan when its entity is hurt}
+	 */
+	public boolean scansWhenHurt() {
+		return this.scanWhenHurt;
+	}
+
+	/**
+	 * @return The memories this sensor has been set to {@link #scanWhenMemoryChanges scan on changes to}
+	 */
+	public List<MemoryModuleType<?>> getMemoryTriggers() {
+		return this.memoryTriggers;
+	}
+
+	/**
+	 * Have this sensor scan the next time it is ticked, regardless of its scan rate
+	 */
+	public void triggerScan() {
+		this.triggered = true;
+	}
+
 	/**
 	 * Set a callback function for when the sensor completes a scan.
 	 */
@@ -51,14 +144,53 @@ public abstract class ExtendedSensor<E extends LivingEntity> extends Sensor<E> {
 
 	@Override
 	public final void tick(ServerLevel level, E entity) {
-		if (nextTickTime < level.getGameTime()) {
-			nextTickTime = level.getGameTime() + this.scanRate.applyAsInt(entity);
+		tick(level, entity, level.getGameTime());
+	}
+
+	/**
+	 * Tick this sensor as if at the given game time, scanning if a scan is due
+	 */
+	@ApiStatus.Internal
+	public final void tick(ServerLevel level, E entity, long gameTime) {
+		if (this.staggerScans && this.nextTickTime == 0)
+			this.nextTickTime = getStaggeredTickTime(entity, gameTime - 1, this.scanRate.applyAsInt(entity));
+
+		if (this.nextTickTime < gameTime || this.triggered) {
+			this.triggered = false;
+			int scanRate = this.scanRate.applyAsInt(entity);
+			this.nextTickTime = this.staggerScans ? getStaggeredTickTime(entity, gameTime, scanRate) : gameTime + scanRate;
+
+			if (!BrainInstrumentation.isEnabled()) {
+				doTick(level, entity);
+				this.scanCallback.accept(entity);
+
+				return;
+			}
+
+			long startTime = System.nanoTime();
 
 			doTick(level, entity);
 			this.scanCallback.accept(entity);
+			BrainInstrumentation.recordSensorScan(entity.getType(), getClass(), System.nanoTime() - startTime);
 		}
 	}
 
+	/**
+	 * Get the tick time after which this sensor's next {@link #staggerScans() staggered} scan should happen.<br>
+	 * Scans are phase-aligned to the entity's id within the scan period, so entities with the same scan rate keep a fixed offset from each other.
+	 *
+	 * @param entity The owner of the brain
+	 * @param gameTime The current game time
+	 * @param scanRate The current scan rate of the sensor
+	 * @return The tick time the next scan should happen after
+	 */
+	protected long getStaggeredTickTime(E entity, long gameTime, int scanRate) {
+		int period = Math.max(1, scanRate + 1);
+		int phase = Math.floorMod(HashCommon.mix(entity.getId()), period);
+
+		return gameTime + Math.floorMod(phase - gameTime - 1, period);
+	}
+
 	/**
 	 * Handle the Sensor's actual function here. Be wary of performance implications of computation-heavy checks here.
 	 *
@@ -0,0 +1,72 @@
+package net.tslat.smartbrainlib.api.core.sensor;
+
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.entity.ai.sensing.SensorType;
+import net.minecraft.world.entity.player.Player;
+import net.tslat.smartbrainlib.object.EntitySnapshot;
+import net.tslat.smartbrainlib.util.EntityRetrievalUtil;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * The nearby entity lookup shared by the built-in entity sensors.<br>
+ * Finds the matching entities around a brain owner, nearest first, from the cheapest source available:
+ * <ol>
+ *     <li>The brain's {@link EntitySnapshot}, if it covers the radius and is no older than the given age</li>
+ *     <li>The {@link SharedSensorScanCache}, if a sensor type to share scans under is given</li>
+ *     <li>A bounded {@link EntityRetrievalUtil#findNearest k-nearest} scan, if the results are limited</li>
+ *     <li>A full scan, sorted by distance</li>
+ * </ol>
+ */
+public final class NearbyEntityScanner {
+	/**
+	 * Find the matching entities around the given entity, nearest first
+	 *
+	 * @param entity The entity to search around. It is excluded from the results
+	 * @param xzRadius The X/Z radius to search in
+	 * @param yRadius The Y radius to search in
+	 * @param minimumClass The minimum common class that all entities found must be
+	 * @param predicate The predicate determining a valid match
+	 * @param maxResults The maximum number of entities to return, or {@link Integer#MAX_VALUE} for no limit
+	 * @param maxSnapshotAge The maximum number of ticks since the brain's entity snapshot was taken for it to be used. Typically the calling sensor's scan rate
+	 * @param sharedScanType The type of the calling sensor to share scans under, or null to not use shared scans
+	 * @return A new, mutable list of matching entities
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T extends Entity> List<T> findNearby(LivingEntity entity, double xzRadius, double yRadius, Class<T> minimumClass, Predicate<? super T> predicate, int maxResults, int maxSnapshotAge, @Nullable SensorType<?> sharedScanType) {
+		final boolean players = Player.class.isAssignableFrom(minimumClass);
+		final EntitySnapshot snapshot = EntitySnapshot.getCovering(entity, xzRadius, yRadius, maxSnapshotAge);
+		List<T> entities;
+
+		if (snapshot != null) {
+			entities = snapshot.getEntities(minimumClass, entity.getBoundingBox().inflate(xzRadius, yRadius, xzRadius), entity, predicate, new ObjectArrayList<>());
+		}
+		else if (sharedScanType != null) {
+			entities = players ?
+					(List<T>)SharedSensorScanCache.getPlayers(sharedScanType, entity, xzRadius, yRadius, (Predicate<Player>)predicate) :
+					SharedSensorScanCache.getEntities(sharedScanType, entity, xzRadius, yRadius, minimumClass, predicate);
+		}
+		else if (maxResults < Integer.MAX_VALUE) {
+			return players ?
+					(List<T>)EntityRetrievalUtil.findNearestPlayers(entity, xzRadius, yRadius, xzRadius, maxResults, (Predicate<Player>)predicate) :
+					EntityRetrievalUtil.findNearest(entity, xzRadius, yRadius, xzRadius, minimumClass, maxResults, predicate);
+		}
+		else if (!players) {
+			return EntityRetrievalUtil.getEntitiesByDistance(entity, xzRadius, yRadius, xzRadius, minimumClass, predicate);
+		}
+		else {
+			entities = (List<T>)EntityRetrievalUtil.getPlayers(entity, xzRadius, yRadius, xzRadius, (Predicate<Player>)predicate);
+		}
+
+		EntityRetrievalUtil.sortByDistance(entities, entity.position());
+
+		if (entities.size() > maxResults)
+			entities.subList(maxResults, entities.size()).clear();
+
+		return entities;
+	}
+}
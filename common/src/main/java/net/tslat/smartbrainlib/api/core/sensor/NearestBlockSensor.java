@@ -0,0 +1,115 @@
+package net.tslat.smartbrainlib.api.core.sensor;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.entity.ai.memory.MemoryModuleType;
+import net.minecraft.world.level.block.state.BlockState;
+import net.tslat.smartbrainlib.object.NearestBlockCache;
+import net.tslat.smartbrainlib.object.SquareRadius;
+import net.tslat.smartbrainlib.util.BrainUtil;
+
+import java.util.List;
+import java.util.function.BiPredicate;
+import java.util.function.Predicate;
+
+/**
+ * An abstract sensor class for remembering the nearest block that meets the sensor's predicate. <br>
+ * The search is memoized using a {@link NearestBlockCache}, so the full search is only re-run when the last match is gone, the entity has moved far enough,
+ * or the last search found nothing and the miss retry interval has passed.
+ * Defaults:
+ * <ul>
+ *     <li>8x4x8 radius</li>
+ *     <li>Full search after moving more than 2 blocks</li>
+ *     <li>Full search 20 ticks after a search that found nothing</li>
+ * </ul>
+ *
+ * @param <E> The entity
+ */
+public abstract class NearestBlockSensor<E extends LivingEntity> extends PredicateSensor<BlockState, E> {
+	protected SquareRadius radius = new SquareRadius(8, 4);
+	protected final NearestBlockCache searchCache = new NearestBlockCache(2);
+
+	public NearestBlockSensor() {
+		super();
+	}
+
+	public NearestBlockSensor(BiPredicate<BlockState, E> predicate) {
+		super(predicate);
+	}
+
+	/**
+	 * Which memory the sensor should set the nearest matching block position to.
+	 *
+	 * @return The memory type to use
+	 */
+	protected abstract MemoryModuleType<BlockPos> getMemory();
+
+	/**
+	 * The predicate at least one block state in a chunk section must match for the section to be searched.<br>
+	 * Defaults to the sensor's predicate. Override this with a cheaper, broader check if the predicate is expensive
+	 *
+	 * @param entity The owner of the brain
+	 * @return The section filter
+	 */
+	protected Predicate<BlockState> sectionFilter(E entity) {
+		return predicateFor(entity);
+	}
+
+	/**
+	 * Set the radius for the sensor to scan.
+	 *
+	 * @param radius The coordinate radius, in blocks
+	 * @return this
+	 */
+	public NearestBlockSensor<E> setRadius(double radius) {
+		return setRadius(radius, radius);
+	}
+
+	/**
+	 * Set the radius for the sensor to scan.
+	 *
+	 * @param xz The X/Z coordinate radius, in blocks
+	 * @param y The Y coordinate radius, in blocks
+	 * @return this
+	 */
+	public NearestBlockSensor<E> setRadius(double xz, double y) {
+		this.radius = new SquareRadius(xz, y);
+
+		return this;
+	}
+
+	/**
+	 * Set how far the entity can move (Manhattan distance, in blocks) before the previous match is discarded and a full search is run again
+	 *
+	 * @param blocks The movement threshold, in blocks
+	 * @return this
+	 */
+	public NearestBlockSensor<E> setMovementThreshold(int blocks) {
+		this.searchCache.setMovementThreshold(blocks);
+
+		return this;
+	}
+
+	/**
+	 * Set how long a search that found nothing is remembered for before a full search is run again
+	 *
+	 * @param ticks The retry interval, in game ticks
+	 * @return this
+	 */
+	public NearestBlockSensor<E> setMissRetryInterval(int ticks) {
+		this.searchCache.setMissRetryInterval(ticks);
+
+		return this;
+	}
+
+	@Override
+	public List<MemoryModuleType<?>> memoriesUsed() {
+		return List.of(getMemory());
+	}
+
+	@Override
+	protected void doTick(ServerLevel level, E entity) {
+		BrainUtil.setMemory(entity, getMemory(), this.searchCache.find(level, entity.blockPosition(), (int)this.radius.xzRadius(), (int)this.radius.yRadius(), sectionFilter(entity), predicateFor(entity)));
+	}
+}
@@ -0,0 +1,136 @@
+package net.tslat.smartbrainlib.api.core.sensor;
+
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.entity.Mob;
+import net.tslat.smartbrainlib.api.SmartBrainOwner;
+import net.tslat.smartbrainlib.api.core.SmartBrain;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Two-phase parallel evaluation of {@link ExtendedSensor#isParallelSafe() parallel-safe} sensors.
+ * <p>
+ * At the start of each level tick, every tracked brain in that level has its parallel-safe sensors scan in parallel on a shared {@link ForkJoinPool}.
+ * The server thread blocks until they have all finished, without running any of its own queued tasks, so the world is not modified during the scan.<br>
+ * Because the server thread can't service chunk requests while it waits, parallel-safe sensors must not access chunks through the level (such as {@link net.minecraft.world.level.Level#getBlockState Level.getBlockState}),
+ * and should read blocks using the lock-free helpers in {@link net.tslat.smartbrainlib.util.BlockRetrievalUtil BlockRetrievalUtil} instead.
+ * <p>
+ * Memories set by the sensors are buffered per-brain, then committed on the server thread before any entity ticks.
+ * The sensors' scan times are updated as normal, so they don't scan a second time when the brain itself ticks.
+ * <p>
+ * Brains are tracked automatically when they tick with at least one parallel-safe sensor, and are dropped once their entity is removed, stops ticking, or has its brain replaced.<br>
+ * {@link SmartBrain#isDormant() Dormant} brains, and brains that won't tick this level tick because of their {@link net.tslat.smartbrainlib.api.core.BrainLodPolicy level-of-detail policy}, are skipped.
+ */
+@ApiStatus.Internal
+public final class ParallelSensorPhase {
+	private static final Map<ServerLevel, Map<LivingEntity, TrackedBrain<?>>> TRACKED_BRAINS = new Reference2ObjectOpenHashMap<>();
+	@Nullable
+	private static ForkJoinPool pool = null;
+
+	/**
+	 * Track an entity's brain for the parallel sensor phase of the given level, starting from the next level tick
+	 */
+	public static <E extends LivingEntity & SmartBrainOwner<E>> void track(ServerLevel level, SmartBrain<E> brain, E entity) {
+		Map<LivingEntity, TrackedBrain<?>> trackedBrains = TRACKED_BRAINS.computeIfAbsent(level, key -> new Reference2ObjectOpenHashMap<>());
+		TrackedBrain<?> tracked = trackedBrains.get(entity);
+
+		if (tracked == null || tracked.brain != brain)
+			trackedBrains.put(entity, new TrackedBrain<>(brain, entity));
+	}
+
+	/**
+	 * Run the parallel sensor phase for the given level.<br>
+	 * Must be called on the server thread at the start of the level tick, before the level's game time is advanced.
+	 */
+	public static void onLevelTickStart(ServerLevel level) {
+		Map<LivingEntity, TrackedBrain<?>> trackedBrains = TRACKED_BRAINS.get(level);
+
+		if (trackedBrains == null || trackedBrains.isEmpty())
+			return;
+
+		trackedBrains.values().removeIf(tracked -> !tracked.isValid(level));
+
+		if (trackedBrains.isEmpty() || !level.tickRateManager().runsNormally())
+			return;
+
+		final long gameTime = level.getGameTime() + 1;
+		final ForkJoinPool pool = getPool();
+		final List<TrackedBrain<?>> submitted = new ObjectArrayList<>(trackedBrains.size());
+		final List<ForkJoinTask<?>> tasks = new ObjectArrayList<>(trackedBrains.size());
+
+		for (TrackedBrain<?> tracked : trackedBrains.values()) {
+			if (tracked.entity instanceof Mob mob && mob.isNoAi())
+				continue;
+
+			// Dormant brains don't scan, and brains throttled by their LOD policy won't tick this level tick, so their sensors would only scan for nothing.
+			// If a dormant brain wakes up this tick, its sensors scan on the server thread as normal instead
+			if (tracked.brain.isDormant() || tracked.brain.skipsNextTick())
+				continue;
+
+			tracked.brain.startBufferingMemories();
+			submitted.add(tracked);
+			tasks.add(pool.submit(() -> tracked.tickParallelSensors(level, gameTime)));
+		}
+
+		try {
+			for (ForkJoinTask<?> task : tasks) {
+				task.join();
+			}
+		}
+		finally {
+			// Make sure no sensor is still running before committing, even if another failed
+			for (ForkJoinTask<?> task : tasks) {
+				task.quietlyJoin();
+			}
+
+			for (TrackedBrain<?> tracked : submitted) {
+				tracked.brain.commitBufferedMemories();
+			}
+		}
+	}
+
+	/**
+	 * Stop tracking any brains in the given level
+	 */
+	public static void onLevelUnload(ServerLevel level) {
+		TRACKED_BRAINS.remove(level);
+	}
+
+	private static ForkJoinPool getPool() {
+		if (pool == null) {
+			AtomicInteger threadIndex = new AtomicInteger();
+
+			pool = new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1), forkJoinPool -> {
+				ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+
+				thread.setName("SmartBrainLib Sensor Worker-" + threadIndex.getAndIncrement());
+				thread.setContextClassLoader(ParallelSensorPhase.class.getClassLoader());
+				thread.setDaemon(true);
+
+				return thread;
+			}, null, false);
+		}
+
+		return pool;
+	}
+
+	private record TrackedBrain<E extends LivingEntity & SmartBrainOwner<E>>(SmartBrain<E> brain, E entity) {
+		private boolean isValid(ServerLevel level) {
+			return !this.entity.isRemoved() && this.entity.level() == level && this.entity.getBrain() == this.brain && level.isPositionEntityTicking(this.entity.blockPosition());
+		}
+
+		private void tickParallelSensors(ServerLevel level, long gameTime) {
+			this.brain.tickParallelSensors(level, this.entity, gameTime);
+		}
+	}
+}
@@ -1,8 +1,10 @@
 package net.tslat.smartbrainlib.api.core.sensor;
 
 import net.minecraft.world.entity.LivingEntity;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.function.BiPredicate;
+import java.util.function.Predicate;
 
 /**
  * An abstract sensor class used for sensors that utilise some form of predication in their function.
@@ -13,6 +15,10 @@ import java.util.function.BiPredicate;
  */
 public abstract class PredicateSensor<P, E extends LivingEntity> extends ExtendedSensor<E> {
 	private BiPredicate<P, E> predicate;
+	@Nullable
+	private E boundEntity = null;
+	@Nullable
+	private Predicate<P> boundPredicate = null;
 
 	public PredicateSensor() {
 		this((obj, entity) -> true);
@@ -42,4 +48,21 @@ public abstract class PredicateSensor<P, E extends LivingEntity> extends Extende
 	protected BiPredicate<P, E> predicate() {
 		return this.predicate;
 	}
+
+	/**
+	 * Retrieve this sensor's predicate with the given entity bound as its second argument.<br>
+	 * The bound predicate is kept between scans, so scanning doesn't need to allocate a new lambda each time.
+	 * It always tests against the current {@link #predicate()}, so it stays valid if the predicate is changed
+	 *
+	 * @param entity The owner of the brain
+	 * @return The bound predicate
+	 */
+	protected Predicate<P> predicateFor(E entity) {
+		if (this.boundPredicate == null || this.boundEntity != entity) {
+			this.boundEntity = entity;
+			this.boundPredicate = obj -> predicate().test(obj, entity);
+		}
+
+		return this.boundPredicate;
+	}
 }
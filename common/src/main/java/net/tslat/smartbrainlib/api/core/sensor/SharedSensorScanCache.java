@@ -0,0 +1,204 @@
+package net.tslat.smartbrainlib.api.core.sensor;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.ai.sensing.SensorType;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.phys.AABB;
+import net.tslat.smartbrainlib.util.EntityRetrievalUtil;
+import org.jetbrains.annotations.ApiStatus;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * A per-level, per-tick cache of entity scans, shared between all sensors that opt into it.<br>
+ * Scans are keyed on the sensor type doing the scan, the scan radius, and the chunk section the scanning entity is in.
+ * The first sensor to scan from a given section does a single scan covering the entire section (inflated by the radius),
+ * and every sensor of the same type in that section for the rest of the tick re-filters that result against its own bounds and predicate.
+ * <p>
+ * Cached scans are discarded when the level's game time changes, so results are never reused across ticks.<br>
+ * Because the scan happens at the first request of the tick, entities that move into range later in the same tick may be missed.
+ * <p>
+ * Each level has its own lock, which is only held while looking up or storing a scan, not while scanning,
+ * so this is safe to use from {@link ExtendedSensor#markParallelSafe() parallel-safe} sensors.
+ */
+@SuppressWarnings("unchecked")
+public final class SharedSensorScanCache {
+	private static final Map<Level, LevelScanCache> LEVEL_CACHES = new ConcurrentHashMap<>();
+	private static final double SCAN_MARGIN = 2;
+
+	/**
+	 * Get all entities of the given class in the given radius of the origin entity's bounding box, using a shared scan where possible.<br>
+	 * The origin entity is excluded from the results.
+	 *
+	 * @param sensorType The type of the sensor doing the scan
+	 * @param origin The entity to search around
+	 * @param xzRadius The X/Z radius to search in
+	 * @param yRadius The Y radius to search in
+	 * @param minimumClass The minimum common class that all entities found must be
+	 * @param predicate The predicate determining a valid match
+	 * @return A new, mutable list of matching entities
+	 */
+	public static <T extends Entity> List<T> getEntities(SensorType<?> sensorType, Entity origin, double xzRadius, double yRadius, Class<T> minimumClass, Predicate<? super T> predicate) {
+		AABB bounds = origin.getBoundingBox().inflate(xzRadius, yRadius, xzRadius);
+		CachedScan scan = getScan(sensorType, origin, xzRadius, yRadius, minimumClass, false);
+
+		if (!scan.covers(bounds))
+			return EntityRetrievalUtil.getEntities(origin, xzRadius, yRadius, xzRadius, minimumClass, (Predicate<T>)predicate);
+
+		List<T> entities = new ObjectArrayList<>();
+
+		for (Entity entity : scan.entities) {
+			if (entity != origin && !entity.isRemoved() && entity.getBoundingBox().intersects(bounds) && predicate.test((T)entity))
+				entities.add((T)entity);
+		}
+
+		return entities;
+	}
+
+	/**
+	 * Get all players in the given radius of the origin entity's bounding box, using a shared scan where possible.<br>
+	 * The origin entity is excluded from the results.
+	 *
+	 * @param sensorType The type of the sensor doing the scan
+	 * @param origin The entity to search around
+	 * @param xzRadius The X/Z radius to search in
+	 * @param yRadius The Y radius to search in
+	 * @param predicate The predicate determining a valid match
+	 * @return A new, mutable list of matching players
+	 */
+	public static <T extends Player> List<T> getPlayers(SensorType<?> sensorType, Entity origin, double xzRadius, double yRadius, Predicate<Player> predicate) {
+		AABB bounds = origin.getBoundingBox().inflate(xzRadius, yRadius, xzRadius);
+		CachedScan scan = getScan(sensorType, origin, xzRadius, yRadius, Player.class, true);
+
+		if (!scan.covers(bounds))
+			return EntityRetrievalUtil.getPlayers(origin, xzRadius, yRadius, xzRadius, predicate);
+
+		List<T> players = new ObjectArrayList<>();
+
+		for (Entity entity : scan.entities) {
+			if (entity != origin && !entity.isRemoved() && bounds.contains(entity.position()) && predicate.test((Player)entity))
+				players.add((T)entity);
+		}
+
+		return players;
+	}
+
+	/**
+	 * Discard any cached scans for the given level
+	 */
+	@ApiStatus.Internal
+	public static void onLevelUnload(Level level) {
+		LEVEL_CACHES.remove(level);
+	}
+
+	private static CachedScan getScan(SensorType<?> sensorType, Entity origin, double xzRadius, double yRadius, Class<? extends Entity> minimumClass, boolean playersOnly) {
+		Level level = origin.level();
+		LevelScanCache levelCache = LEVEL_CACHES.get(level);
+
+		if (levelCache == null)
+			levelCache = LEVEL_CACHES.computeIfAbsent(level, key -> new LevelScanCache());
+
+		long gameTime = level.getGameTime();
+		int sectionX = SectionPos.blockToSectionCoord(origin.getBlockX());
+		int sectionY = SectionPos.blockToSectionCoord(origin.getBlockY());
+		int sectionZ = SectionPos.blockToSectionCoord(origin.getBlockZ());
+		long section = SectionPos.asLong(sectionX, sectionY, sectionZ);
+		ScanGroup group;
+
+		synchronized (levelCache) {
+			group = levelCache.getGroup(gameTime, sensorType, minimumClass, playersOnly, xzRadius, yRadius);
+			CachedScan scan = group.scans.get(section);
+
+			if (scan != null)
+				return scan;
+		}
+
+		double xzInflation = xzRadius + SCAN_MARGIN;
+		double yInflation = yRadius + SCAN_MARGIN;
+		AABB region = new AABB(SectionPos.sectionToBlockCoord(sectionX), SectionPos.sectionToBlockCoord(sectionY), SectionPos.sectionToBlockCoord(sectionZ),
+				SectionPos.sectionToBlockCoord(sectionX + 1), SectionPos.sectionToBlockCoord(sectionY + 1), SectionPos.sectionToBlockCoord(sectionZ + 1))
+				.inflate(xzInflation, yInflation, xzInflation);
+		List<? extends Entity> entities = playersOnly ? EntityRetrievalUtil.getPlayers(level, region, player -> true) : EntityRetrievalUtil.getEntities(level, region, minimumClass, entity -> true);
+		CachedScan scan = new CachedScan(region, entities);
+
+		synchronized (levelCache) {
+			// Another sensor may have scanned the same section while this one was scanning, in which case its result wins
+			if (levelCache.gameTime == gameTime) {
+				CachedScan existing = group.scans.putIfAbsent(section, scan);
+
+				if (existing != null)
+					return existing;
+			}
+		}
+
+		return scan;
+	}
+
+	private static final class LevelScanCache {
+		private final Map<SensorType<?>, List<ScanGroup>> groups = new Reference2ObjectOpenHashMap<>();
+		private long gameTime = Long.MIN_VALUE;
+
+		private ScanGroup getGroup(long gameTime, SensorType<?> sensorType, Class<? extends Entity> minimumClass, boolean playersOnly, double xzRadius, double yRadius) {
+			if (this.gameTime != gameTime) {
+				for (List<ScanGroup> sensorGroups : this.groups.values()) {
+					for (ScanGroup group : sensorGroups) {
+						group.scans.clear();
+					}
+				}
+
+				this.gameTime = gameTime;
+			}
+
+			List<ScanGroup> sensorGroups = this.groups.get(sensorType);
+
+			if (sensorGroups == null)
+				this.groups.put(sensorType, sensorGroups = new ObjectArrayList<>(1));
+
+			// Sensors of one type rarely use more than a couple of distinct radii, so a linear search avoids allocating a composite key per lookup
+			for (ScanGroup group : sensorGroups) {
+				if (group.matches(minimumClass, playersOnly, xzRadius, yRadius))
+					return group;
+			}
+
+			ScanGroup group = new ScanGroup(minimumClass, playersOnly, xzRadius, yRadius);
+
+			sensorGroups.add(group);
+
+			return group;
+		}
+	}
+
+	private static final class ScanGroup {
+		private final Class<? extends Entity> minimumClass;
+		private final boolean playersOnly;
+		private final double xzRadius;
+		private final double yRadius;
+		private final Long2ObjectOpenHashMap<CachedScan> scans = new Long2ObjectOpenHashMap<>();
+
+		private ScanGroup(Class<? extends Entity> minimumClass, boolean playersOnly, double xzRadius, double yRadius) {
+			this.minimumClass = minimumClass;
+			this.playersOnly = playersOnly;
+			this.xzRadius = xzRadius;
+			this.yRadius = yRadius;
+		}
+
+		private boolean matches(Class<? extends Entity> minimumClass, boolean playersOnly, double xzRadius, double yRadius) {
+			return this.minimumClass == minimumClass && this.playersOnly == playersOnly && this.xzRadius == xzRadius && this.yRadius == yRadius;
+		}
+	}
+
+	private record CachedScan(AABB region, List<? extends Entity> entities) {
+		private boolean covers(AABB bounds) {
+			return bounds.minX >= this.region.minX && bounds.minY >= this.region.minY && bounds.minZ >= this.region.minZ &&
+					bounds.maxX <= this.region.maxX && bounds.maxY <= this.region.maxY && bounds.maxZ <= this.region.maxZ;
+		}
+	}
+}
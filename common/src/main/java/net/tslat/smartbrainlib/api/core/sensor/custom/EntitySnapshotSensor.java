@@ -0,0 +1,110 @@
+package net.tslat.smartbrainlib.api.core.sensor.custom;
+
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.entity.ai.attributes.Attributes;
+import net.minecraft.world.entity.ai.memory.MemoryModuleType;
+import net.minecraft.world.entity.ai.sensing.SensorType;
+import net.minecraft.world.phys.AABB;
+import net.tslat.smartbrainlib.api.core.sensor.ExtendedSensor;
+import net.tslat.smartbrainlib.object.EntitySnapshot;
+import net.tslat.smartbrainlib.object.SquareRadius;
+import net.tslat.smartbrainlib.registry.SBLMemoryTypes;
+import net.tslat.smartbrainlib.registry.SBLSensors;
+import net.tslat.smartbrainlib.util.BrainUtil;
+import net.tslat.smartbrainlib.util.EntityRetrievalUtil;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * A sensor that scans for all nearby entities once, and stores them as an {@link EntitySnapshot} for other sensors to filter from.<br>
+ * The built-in entity sensors ({@link net.tslat.smartbrainlib.api.core.sensor.vanilla.NearbyLivingEntitySensor NearbyLivingEntitySensor},
+ * {@link net.tslat.smartbrainlib.api.core.sensor.vanilla.NearbyPlayersSensor NearbyPlayersSensor}, {@link NearbyItemsSensor}, {@link IncomingProjectilesSensor})
+ * use the snapshot instead of scanning themselves when it covers their radius.
+ * <p>
+ * This sensor should be listed before any sensors that use its snapshot, so that they see the new snapshot on the same tick.<br>
+ * If another sensor needs a larger radius than the snapshot covered, the next scan is expanded to include it.
+ * The snapshot expires when the next scan is due, so sensors never use a snapshot older than this sensor's scan rate.
+ * <p>
+ * Defaults:
+ * <ul>
+ * <li>Radius is equivalent to the entity's {@link Attributes#FOLLOW_RANGE} attribute</li>
+ * </ul>
+ *
+ * @param <E> The entity
+ */
+public class EntitySnapshotSensor<E extends LivingEntity> extends ExtendedSensor<E> {
+	private static final List<MemoryModuleType<?>> MEMORIES = ObjectArrayList.of(SBLMemoryTypes.ENTITY_SNAPSHOT.get());
+
+	@Nullable
+	protected SquareRadius radius = null;
+	@Nullable
+	protected EntitySnapshot lastSnapshot = null;
+
+	/**
+	 * Set the radius for the sensor to scan.
+	 *
+	 * @param radius The coordinate radius, in blocks
+	 * @return this
+	 */
+	public EntitySnapshotSensor<E> setRadius(double radius) {
+		return setRadius(radius, radius);
+	}
+
+	/**
+	 * Set the radius for the sensor to scan.
+	 *
+	 * @param xz The X/Z coordinate radius, in blocks
+	 * @param y  The Y coordinate radius, in blocks
+	 * @return this
+	 */
+	public EntitySnapshotSensor<E> setRadius(double xz, double y) {
+		this.radius = new SquareRadius(xz, y);
+
+		return this;
+	}
+
+	@Override
+	public List<MemoryModuleType<?>> memoriesUsed() {
+		return MEMORIES;
+	}
+
+	@Override
+	public SensorType<? extends ExtendedSensor<?>> type() {
+		return SBLSensors.ENTITY_SNAPSHOT.get();
+	}
+
+	@Override
+	protected void doTick(ServerLevel level, E entity) {
+		double xzRadius;
+		double yRadius;
+
+		if (this.radius == null) {
+			xzRadius = yRadius = entity.getAttributeValue(Attributes.FOLLOW_RANGE);
+		}
+		else {
+			xzRadius = this.radius.xzRadius();
+			yRadius = this.radius.yRadius();
+		}
+
+		final EntitySnapshot previous = this.lastSnapshot;
+
+		if (previous != null) {
+			xzRadius = Math.max(xzRadius, previous.getRequestedXzRadius());
+			yRadius = Math.max(yRadius, previous.getRequestedYRadius());
+		}
+
+		final AABB region = entity.getBoundingBox().inflate(xzRadius, yRadius, xzRadius);
+		final EntitySnapshot snapshot = new EntitySnapshot(level.getGameTime(), region, EntityRetrievalUtil.getEntities(level, region, Entity.class, entity, target -> true, new ObjectArrayList<>()));
+
+		if (previous != null)
+			snapshot.requestRadius(previous.getRequestedXzRadius(), previous.getRequestedYRadius());
+
+		this.lastSnapshot = snapshot;
+
+		BrainUtil.setForgettableMemory(entity, SBLMemoryTypes.ENTITY_SNAPSHOT.get(), snapshot, this.scanRate.applyAsInt(entity) + 1);
+	}
+}
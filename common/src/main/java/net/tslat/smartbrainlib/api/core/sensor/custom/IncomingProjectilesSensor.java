@@ -7,13 +7,13 @@ import net.minecraft.world.entity.ai.memory.MemoryModuleType;
 import net.minecraft.world.entity.ai.sensing.SensorType;
 import net.minecraft.world.entity.projectile.Projectile;
 import net.tslat.smartbrainlib.api.core.sensor.ExtendedSensor;
+import net.tslat.smartbrainlib.api.core.sensor.NearbyEntityScanner;
 import net.tslat.smartbrainlib.api.core.sensor.PredicateSensor;
+import net.tslat.smartbrainlib.object.EntitySnapshot;
 import net.tslat.smartbrainlib.registry.SBLMemoryTypes;
 import net.tslat.smartbrainlib.registry.SBLSensors;
 import net.tslat.smartbrainlib.util.BrainUtil;
-import net.tslat.smartbrainlib.util.EntityRetrievalUtil;
 
-import java.util.Comparator;
 import java.util.List;
 
 /**
@@ -24,10 +24,13 @@ import java.util.List;
  *     <li>Only projectiles that are still in flight</li>
  *     <li>Only projectiles that will hit the entity before the next scan</li>
  * </ul>
+ * Uses the brain's {@link EntitySnapshot} instead of scanning if one was taken on the same tick and covers the sensor's radius, since projectiles move too quickly for an older snapshot.
  */
 public class IncomingProjectilesSensor<E extends LivingEntity> extends PredicateSensor<Projectile, E> {
 	private static final List<MemoryModuleType<?>> MEMORIES = ObjectArrayList.of(SBLMemoryTypes.INCOMING_PROJECTILES.get());
 
+	protected int maxResults = Integer.MAX_VALUE;
+
 	public IncomingProjectilesSensor() {
 		setScanRate(entity -> 3);
 		setPredicate((projectile, entity) -> {
@@ -38,6 +41,19 @@ public class IncomingProjectilesSensor<E extends LivingEntity> extends Predicate
 		});
 	}
 
+	/**
+	 * Limit the {@link SBLMemoryTypes#INCOMING_PROJECTILES} memory to the nearest {@code max} projectiles.<br>
+	 * Only the nearest {@code max} matching projectiles are kept during the scan, rather than collecting and sorting every projectile in range.
+	 *
+	 * @param max The maximum number of projectiles to remember
+	 * @return this
+	 */
+	public IncomingProjectilesSensor<E> limitResults(int max) {
+		this.maxResults = max;
+
+		return this;
+	}
+
 	@Override
 	public List<MemoryModuleType<?>> memoriesUsed() {
 		return MEMORIES;
@@ -50,10 +66,10 @@ public class IncomingProjectilesSensor<E extends LivingEntity> extends Predicate
 
 	@Override
 	protected void doTick(ServerLevel level, E entity) {
-		List<Projectile> projectiles = EntityRetrievalUtil.getEntities(entity, 7, Projectile.class, projectile -> predicate().test(projectile, entity));
+		// Projectiles move too fast to use a snapshot from an earlier tick
+		List<Projectile> projectiles = NearbyEntityScanner.findNearby(entity, 7, 7, Projectile.class, predicateFor(entity), this.maxResults, 0, null);
 
 		if (!projectiles.isEmpty()) {
-			projectiles.sort(Comparator.comparingDouble(entity::distanceToSqr));
 			BrainUtil.setMemory(entity, SBLMemoryTypes.INCOMING_PROJECTILES.get(), projectiles);
 		}
 		else {
@@ -3,22 +3,31 @@ package net.tslat.smartbrainlib.api.core.sensor.custom;
 import com.mojang.datafixers.util.Pair;
 import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.core.Vec3i;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.entity.LivingEntity;
 import net.minecraft.world.entity.ai.memory.MemoryModuleType;
 import net.minecraft.world.entity.ai.sensing.SensorType;
+import net.minecraft.world.level.block.Blocks;
 import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunkSection;
 import net.tslat.smartbrainlib.api.core.sensor.ExtendedSensor;
 import net.tslat.smartbrainlib.api.core.sensor.PredicateSensor;
 import net.tslat.smartbrainlib.object.SquareRadius;
 import net.tslat.smartbrainlib.registry.SBLMemoryTypes;
 import net.tslat.smartbrainlib.registry.SBLSensors;
+import net.tslat.smartbrainlib.util.BlockRetrievalUtil;
 import net.tslat.smartbrainlib.util.BrainUtil;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
+import java.util.function.Predicate;
 
 /**
  * Sensor for identifying and memorising nearby blocks using the {@link SBLMemoryTypes#NEARBY_BLOCKS} memory module. <br>
+ * Blocks in chunks that aren't loaded, or outside the level's build height, are skipped rather than reported as {@link Blocks#VOID_AIR void air}.
+ * <p>
  * Defaults:
  * <ul>
  *     <li>1-block radius</li>
@@ -29,6 +38,12 @@ public class NearbyBlocksSensor<E extends LivingEntity> extends PredicateSensor<
 	private static final List<MemoryModuleType<?>> MEMORIES = ObjectArrayList.of(SBLMemoryTypes.NEARBY_BLOCKS.get());
 
 	protected SquareRadius radius = new SquareRadius(1, 1);
+	protected boolean reuseUnchangedMatches = false;
+
+	@Nullable
+	private ScanWindow scanWindow = null;
+	@Nullable
+	private ScanWindow spareScanWindow = null;
 
 	public NearbyBlocksSensor() {
 		setPredicate((state, entity) -> !state.isAir());
@@ -65,16 +80,37 @@ public class NearbyBlocksSensor<E extends LivingEntity> extends PredicateSensor<
 		return this;
 	}
 
+	/**
+	 * Have this sensor keep the matches from its previous scan, and only re-test the predicate on positions whose block state has changed since then, or that entered its radius as it moved.<br>
+	 * This is not an incremental scan: every position in the radius is still read on each scan to detect changes, as chunk sections don't track when their contents change.
+	 * It instead saves the predicate tests, the match allocations, and replacing the memory when the set of matched blocks hasn't changed.
+	 * Chunk sections containing only air are read without any block lookups.
+	 * <p>
+	 * Only use this if the predicate's result depends solely on the block state, as positions with an unchanged state are not re-tested
+	 *
+	 * @return this
+	 */
+	public NearbyBlocksSensor<E> reuseUnchangedMatches() {
+		this.reuseUnchangedMatches = true;
+
+		return this;
+	}
+
 	@Override
 	protected void doTick(ServerLevel level, E entity) {
-		List<Pair<BlockPos, BlockState>> blocks = new ObjectArrayList<>();
+		if (this.reuseUnchangedMatches) {
+			doReusingTick(level, entity);
+
+			return;
+		}
 
-		for (BlockPos pos : BlockPos.betweenClosed(entity.blockPosition().subtract(this.radius.toVec3i()), entity.blockPosition().offset(this.radius.toVec3i()))) {
-			BlockState state = level.getBlockState(pos);
+		List<Pair<BlockPos, BlockState>> blocks = new ObjectArrayList<>();
+		Predicate<BlockState> predicate = state -> predicate().test(state, entity);
 
-			if (this.predicate().test(state, entity))
+		BlockRetrievalUtil.forEachBlock(level, entity.blockPosition().subtract(this.radius.toVec3i()), entity.blockPosition().offset(this.radius.toVec3i()), predicate, (pos, state) -> {
+			if (predicate.test(state))
 				blocks.add(Pair.of(pos.immutable(), state));
-		}
+		});
 
 		if (blocks.isEmpty()) {
 			BrainUtil.clearMemory(entity, SBLMemoryTypes.NEARBY_BLOCKS.get());
@@ -83,4 +119,139 @@ public class NearbyBlocksSensor<E extends LivingEntity> extends PredicateSensor<
 			BrainUtil.setMemory(entity, SBLMemoryTypes.NEARBY_BLOCKS.get(), blocks);
 		}
 	}
-}
\ No newline at end of file
+
+	protected void doReusingTick(ServerLevel level, E entity) {
+		final Vec3i radius = this.radius.toVec3i();
+		final BlockPos center = entity.blockPosition();
+		final int xSize = radius.getX() * 2 + 1;
+		final int ySize = radius.getY() * 2 + 1;
+		final int zSize = radius.getZ() * 2 + 1;
+		ScanWindow previous = this.scanWindow;
+		ScanWindow current = this.spareScanWindow;
+
+		if (previous != null && (previous.level != level || !previous.hasSize(xSize, ySize, zSize)))
+			previous = null;
+
+		if (current == null || !current.hasSize(xSize, ySize, zSize))
+			current = new ScanWindow(xSize, ySize, zSize);
+
+		current.level = level;
+		current.minX = center.getX() - radius.getX();
+		current.minY = center.getY() - radius.getY();
+		current.minZ = center.getZ() - radius.getZ();
+		current.matchCount = 0;
+
+		boolean changed = previous == null;
+
+		long sectionKey = Long.MIN_VALUE;
+		LevelChunkSection section = null;
+		boolean airOnly = false;
+
+		for (int z = current.minZ, index = 0; z < current.minZ + zSize; z++) {
+			for (int y = current.minY; y < current.minY + ySize; y++) {
+				for (int x = current.minX; x < current.minX + xSize; x++, index++) {
+					final long newSectionKey = SectionPos.asLong(SectionPos.blockToSectionCoord(x), SectionPos.blockToSectionCoord(y), SectionPos.blockToSectionCoord(z));
+
+					if (newSectionKey != sectionKey) {
+						sectionKey = newSectionKey;
+						section = BlockRetrievalUtil.getSectionIfLoaded(level, SectionPos.blockToSectionCoord(x), SectionPos.blockToSectionCoord(y), SectionPos.blockToSectionCoord(z));
+						airOnly = section != null && section.hasOnlyAir();
+					}
+
+					final BlockState state = section == null ? null : airOnly ? Blocks.AIR.defaultBlockState() : section.getBlockState(SectionPos.sectionRelative(x), SectionPos.sectionRelative(y), SectionPos.sectionRelative(z));
+					final int previousIndex = previous == null ? -1 : previous.indexOf(x, y, z);
+					Pair<BlockPos, BlockState> match;
+
+					if (state == null) {
+						// Unloaded or outside the build height, so skipped the same as a regular scan
+						match = null;
+
+						if (previousIndex >= 0 && previous.matches[previousIndex] != null)
+							changed = true;
+					}
+					else if (previousIndex >= 0 && previous.states[previousIndex] == state) {
+						match = previous.matches[previousIndex];
+					}
+					else {
+						match = predicate().test(state, entity) ? Pair.of(new BlockPos(x, y, z), state) : null;
+
+						if (match != (previousIndex >= 0 ? previous.matches[previousIndex] : null))
+							changed = true;
+					}
+
+					current.states[index] = state;
+					current.matches[index] = match;
+
+					if (match != null)
+						current.matchCount++;
+				}
+			}
+		}
+
+		// Every match still in range is unchanged, so equal counts mean nothing left the window either
+		if (previous != null && current.matchCount != previous.matchCount)
+			changed = true;
+
+		this.scanWindow = current;
+		this.spareScanWindow = previous;
+
+		if (!changed && BrainUtil.hasMemory(entity, SBLMemoryTypes.NEARBY_BLOCKS.get()) == (current.matchCount > 0))
+			return;
+
+		if (current.matchCount == 0) {
+			BrainUtil.clearMemory(entity, SBLMemoryTypes.NEARBY_BLOCKS.get());
+
+			return;
+		}
+
+		final List<Pair<BlockPos, BlockState>> blocks = new ObjectArrayList<>(current.matchCount);
+
+		for (Pair<BlockPos, BlockState> match : current.matches) {
+			if (match != null)
+				blocks.add(match);
+		}
+
+		BrainUtil.setMemory(entity, SBLMemoryTypes.NEARBY_BLOCKS.get(), blocks);
+	}
+
+	/**
+	 * The block states and matches of a single match-reusing scan, indexed in the same order as {@link BlockPos#betweenClosed(BlockPos, BlockPos)}
+	 */
+	private static final class ScanWindow {
+		private final int xSize;
+		private final int ySize;
+		private final int zSize;
+		private final BlockState[] states;
+		private final Pair<BlockPos, BlockState>[] matches;
+		@Nullable
+		private ServerLevel level = null;
+		private int minX;
+		private int minY;
+		private int minZ;
+		private int matchCount = 0;
+
+		@SuppressWarnings("unchecked")
+		private ScanWindow(int xSize, int ySize, int zSize) {
+			this.xSize = xSize;
+			this.ySize = ySize;
+			this.zSize = zSize;
+			this.states = new BlockState[xSize * ySize * zSize];
+			this.matches = new Pair[this.states.length];
+		}
+
+		private boolean hasSize(int xSize, int ySize, int zSize) {
+			return this.xSize == xSize && this.ySize == ySize && this.zSize == zSize;
+		}
+
+		private int indexOf(int x, int y, int z) {
+			x -= this.minX;
+			y -= this.minY;
+			z -= this.minZ;
+
+			if (x < 0 || y < 0 || z < 0 || x >= this.xSize || y >= this.ySize || z >= this.zSize)
+				return -1;
+
+			return x + this.xSize * (y + this.ySize * z);
+		}
+	}
+}
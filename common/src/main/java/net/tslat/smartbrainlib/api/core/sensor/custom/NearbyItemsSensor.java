@@ -9,12 +9,13 @@ import net.minecraft.world.entity.ai.sensing.SensorType;
 import net.minecraft.world.entity.item.ItemEntity;
 import net.minecraft.world.item.ItemStack;
 import net.tslat.smartbrainlib.api.core.sensor.ExtendedSensor;
+import net.tslat.smartbrainlib.api.core.sensor.NearbyEntityScanner;
 import net.tslat.smartbrainlib.api.core.sensor.PredicateSensor;
+import net.tslat.smartbrainlib.object.EntitySnapshot;
 import net.tslat.smartbrainlib.object.SquareRadius;
 import net.tslat.smartbrainlib.registry.SBLMemoryTypes;
 import net.tslat.smartbrainlib.registry.SBLSensors;
 import net.tslat.smartbrainlib.util.BrainUtil;
-import net.tslat.smartbrainlib.util.EntityRetrievalUtil;
 
 import java.util.List;
 
@@ -27,6 +28,7 @@ import java.util.List;
  * <li>Only items that return true for
  * {@link net.minecraft.world.entity.LivingEntity#hasLineOfSight(Entity)}</li>
  * </ul>
+ * Uses the brain's {@link EntitySnapshot} instead of scanning if one taken within the sensor's scan rate covers the sensor's radius.
  *
  * @param <E> The entity
  */
@@ -74,7 +76,7 @@ public class NearbyItemsSensor<E extends Mob> extends PredicateSensor<ItemEntity
 
 	@Override
 	protected void doTick(ServerLevel level, E entity) {
-		BrainUtil.setMemory(entity, SBLMemoryTypes.NEARBY_ITEMS.get(), EntityRetrievalUtil.getEntities(entity, this.radius.xzRadius(), this.radius.yRadius(), this.radius.xzRadius(), ItemEntity.class, item -> predicate().test(item, entity)));
+		BrainUtil.setMemory(entity, SBLMemoryTypes.NEARBY_ITEMS.get(), NearbyEntityScanner.findNearby(entity, this.radius.xzRadius(), this.radius.yRadius(), ItemEntity.class, predicateFor(entity), Integer.MAX_VALUE, this.scanRate.applyAsInt(entity), null));
 	}
 }
 
@@ -22,6 +22,8 @@ import java.util.List;
  *     <li>If false: <i>entity is blocked at a similar or lower y-coordinate (wall-blocked)</i></li>
  *     <li>If true: <i>entity is blocked at a higher y-coordinate (target has towered up, or is on cliff)</i></li>
  * </ul>
+ * Scans when the {@link MemoryModuleType#CANT_REACH_WALK_TARGET_SINCE} or {@link MemoryModuleType#ATTACK_TARGET} memories change.
+ * Otherwise scans every 20 ticks while the entity is unable to reach its walk target, or every 100 ticks if not.
  * @param <E> The entity
  */
 public class UnreachableTargetSensor<E extends LivingEntity> extends ExtendedSensor<E> {
@@ -29,6 +31,11 @@ public class UnreachableTargetSensor<E extends LivingEntity> extends ExtendedSen
 
 	protected long lastUnpathableTime = 0;
 
+	public UnreachableTargetSensor() {
+		scanWhenMemoryChanges(MemoryModuleType.CANT_REACH_WALK_TARGET_SINCE, MemoryModuleType.ATTACK_TARGET);
+		setScanRate(entity -> this.lastUnpathableTime > 0 || BrainUtil.hasMemory(entity, MemoryModuleType.CANT_REACH_WALK_TARGET_SINCE) ? 20 : 100);
+	}
+
 	@Override
 	public List<MemoryModuleType<?>> memoriesUsed() {
 		return MEMORIES;
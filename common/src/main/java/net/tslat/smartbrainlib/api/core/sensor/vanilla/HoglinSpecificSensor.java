@@ -1,7 +1,6 @@
 package net.tslat.smartbrainlib.api.core.sensor.vanilla;
 
 import it.unimi.dsi.fastutil.objects.ObjectArrayList;
-import net.minecraft.core.BlockPos;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.tags.BlockTags;
 import net.minecraft.world.entity.LivingEntity;
@@ -10,11 +9,14 @@ import net.minecraft.world.entity.ai.memory.MemoryModuleType;
 import net.minecraft.world.entity.ai.sensing.SensorType;
 import net.minecraft.world.entity.monster.hoglin.Hoglin;
 import net.minecraft.world.entity.monster.piglin.Piglin;
+import net.minecraft.world.level.block.state.BlockState;
 import net.tslat.smartbrainlib.api.core.sensor.ExtendedSensor;
+import net.tslat.smartbrainlib.object.NearestBlockCache;
 import net.tslat.smartbrainlib.registry.SBLSensors;
 import net.tslat.smartbrainlib.util.BrainUtil;
 
 import java.util.List;
+import java.util.function.Predicate;
 
 /**
  * A replication of vanilla's
@@ -29,6 +31,9 @@ public class HoglinSpecificSensor<E extends LivingEntity> extends ExtendedSensor
 			MemoryModuleType.NEAREST_VISIBLE_ADULT_PIGLIN, MemoryModuleType.NEAREST_VISIBLE_ADULT_HOGLINS,
 			MemoryModuleType.VISIBLE_ADULT_PIGLIN_COUNT, MemoryModuleType.VISIBLE_ADULT_HOGLIN_COUNT,
 			MemoryModuleType.NEAREST_REPELLENT);
+	private static final Predicate<BlockState> IS_REPELLENT = state -> state.is(BlockTags.HOGLIN_REPELLENTS);
+
+	protected final NearestBlockCache repellentSearch = new NearestBlockCache(2);
 
 	@Override
 	public List<MemoryModuleType<?>> memoriesUsed() {
@@ -65,7 +70,7 @@ public class HoglinSpecificSensor<E extends LivingEntity> extends ExtendedSensor
 			BrainUtil.setMemory(brain, MemoryModuleType.NEAREST_VISIBLE_ADULT_HOGLINS, hoglins);
 			BrainUtil.setMemory(brain, MemoryModuleType.VISIBLE_ADULT_PIGLIN_COUNT, piglinCount);
 			BrainUtil.setMemory(brain, MemoryModuleType.VISIBLE_ADULT_HOGLIN_COUNT, hoglins.size());
-			BrainUtil.setMemory(brain, MemoryModuleType.NEAREST_REPELLENT, BlockPos.findClosestMatch(entity.blockPosition(), 8, 4, pos -> level.getBlockState(pos).is(BlockTags.HOGLIN_REPELLENTS)).orElse(null));
+			BrainUtil.setMemory(brain, MemoryModuleType.NEAREST_REPELLENT, this.repellentSearch.find(level, entity.blockPosition(), 8, 4, IS_REPELLENT, IS_REPELLENT));
 		});
 	}
 }
@@ -16,7 +16,12 @@ import net.tslat.smartbrainlib.util.BrainUtil;
 import java.util.List;
 
 /**
- * A sensor that sets the memory state for the last damage source and attacker.
+ * A sensor that sets the memory state for the last damage source and attacker.<br>
+ * Defaults:
+ * <ul>
+ *     <li>Scans when the entity is hurt</li>
+ *     <li>Otherwise scans every 20 ticks while the entity has a recent damage source, or every 100 ticks if not</li>
+ * </ul>
  *
  * @param <E> The entity
  */
@@ -25,6 +30,9 @@ public class HurtBySensor<E extends Mob> extends PredicateSensor<DamageSource, E
 
 	public HurtBySensor() {
 		super((damageSource, entity) -> true);
+
+		scanWhenHurt();
+		setScanRate(entity -> entity.getLastDamageSource() != null || BrainUtil.hasMemory(entity, MemoryModuleType.HURT_BY) || BrainUtil.hasMemory(entity, MemoryModuleType.HURT_BY_ENTITY) ? 20 : 100);
 	}
 
 	@Override
@@ -7,15 +7,16 @@ import net.minecraft.world.entity.ai.attributes.Attributes;
 import net.minecraft.world.entity.ai.memory.MemoryModuleType;
 import net.minecraft.world.entity.ai.sensing.SensorType;
 import net.tslat.smartbrainlib.api.core.sensor.ExtendedSensor;
+import net.tslat.smartbrainlib.api.core.sensor.NearbyEntityScanner;
 import net.tslat.smartbrainlib.api.core.sensor.PredicateSensor;
+import net.tslat.smartbrainlib.api.core.sensor.SharedSensorScanCache;
+import net.tslat.smartbrainlib.object.EntitySnapshot;
 import net.tslat.smartbrainlib.object.FixedNearestVisibleLivingEntities;
 import net.tslat.smartbrainlib.object.SquareRadius;
 import net.tslat.smartbrainlib.registry.SBLSensors;
 import net.tslat.smartbrainlib.util.BrainUtil;
-import net.tslat.smartbrainlib.util.EntityRetrievalUtil;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.Comparator;
 import java.util.List;
 
 /**
@@ -28,6 +29,7 @@ import java.util.List;
  * attribute</li>
  * <li>Only alive entities</li>
  * </ul>
+ * Uses the brain's {@link EntitySnapshot} instead of scanning if one taken within the sensor's scan rate covers the sensor's radius.
  * 
  * @param <E> The entity
  */
@@ -36,6 +38,8 @@ public class NearbyLivingEntitySensor<E extends LivingEntity> extends PredicateS
 
 	@Nullable
 	protected SquareRadius radius = null;
+	protected boolean useSharedScans = false;
+	protected int maxResults = Integer.MAX_VALUE;
 
 	public NearbyLivingEntitySensor() {
 		super((target, entity) -> target != entity && target.isAlive());
@@ -64,6 +68,32 @@ public class NearbyLivingEntitySensor<E extends LivingEntity> extends PredicateS
 		return this;
 	}
 
+	/**
+	 * Have this sensor share its entity scan with other sensors of the same type and radius in the same chunk section for the current tick.<br>
+	 * Useful for large groups of entities that sit close together, at the cost of possibly missing entities that moved into range earlier in the same tick.
+	 *
+	 * @see SharedSensorScanCache
+	 * @return this
+	 */
+	public NearbyLivingEntitySensor<E> useSharedScans() {
+		this.useSharedScans = true;
+
+		return this;
+	}
+
+	/**
+	 * Limit the {@link MemoryModuleType#NEAREST_LIVING_ENTITIES} memory to the nearest {@code max} entities.<br>
+	 * Only the nearest {@code max} matching entities are kept during the scan, rather than collecting and sorting every entity in range.
+	 *
+	 * @param max The maximum number of entities to remember
+	 * @return this
+	 */
+	public NearbyLivingEntitySensor<E> limitResults(int max) {
+		this.maxResults = max;
+
+		return this;
+	}
+
 	@Override
 	public List<MemoryModuleType<?>> memoriesUsed() {
 		return MEMORIES;
@@ -84,9 +114,7 @@ public class NearbyLivingEntitySensor<E extends LivingEntity> extends PredicateS
 			radius = new SquareRadius(dist, dist);
 		}
 
-		List<LivingEntity> entities = EntityRetrievalUtil.getEntities(entity, radius.xzRadius(), radius.yRadius(), radius.xzRadius(), LivingEntity.class, livingEntity -> predicate().test(livingEntity, entity));
-
-		entities.sort(Comparator.comparingDouble(entity::distanceToSqr));
+		List<LivingEntity> entities = NearbyEntityScanner.findNearby(entity, radius.xzRadius(), radius.yRadius(), LivingEntity.class, predicateFor(entity), this.maxResults, this.scanRate.applyAsInt(entity), this.useSharedScans ? type() : null);
 
 		BrainUtil.setMemory(entity, MemoryModuleType.NEAREST_LIVING_ENTITIES, entities);
 		BrainUtil.setMemory(entity, MemoryModuleType.NEAREST_VISIBLE_LIVING_ENTITIES, new FixedNearestVisibleLivingEntities(entity, entities));
@@ -8,15 +8,16 @@ import net.minecraft.world.entity.ai.memory.MemoryModuleType;
 import net.minecraft.world.entity.ai.sensing.SensorType;
 import net.minecraft.world.entity.player.Player;
 import net.tslat.smartbrainlib.api.core.sensor.ExtendedSensor;
+import net.tslat.smartbrainlib.api.core.sensor.NearbyEntityScanner;
 import net.tslat.smartbrainlib.api.core.sensor.PredicateSensor;
+import net.tslat.smartbrainlib.api.core.sensor.SharedSensorScanCache;
+import net.tslat.smartbrainlib.object.EntitySnapshot;
 import net.tslat.smartbrainlib.object.SquareRadius;
 import net.tslat.smartbrainlib.registry.SBLSensors;
 import net.tslat.smartbrainlib.util.BrainUtil;
-import net.tslat.smartbrainlib.util.EntityRetrievalUtil;
 import net.tslat.smartbrainlib.util.SensoryUtil;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.Comparator;
 import java.util.List;
 
 /**
@@ -29,6 +30,7 @@ import java.util.List;
  * attribute</li>
  * <li>No spectators</li>
  * </ul>
+ * Uses the brain's {@link EntitySnapshot} instead of scanning if one taken within the sensor's scan rate covers the sensor's radius.
  * 
  * @param <E> The entity
  */
@@ -37,6 +39,8 @@ public class NearbyPlayersSensor<E extends LivingEntity> extends PredicateSensor
 
 	@Nullable
 	protected SquareRadius radius = null;
+	protected boolean useSharedScans = false;
+	protected int maxResults = Integer.MAX_VALUE;
 
 	public NearbyPlayersSensor() {
 		super((player, entity) -> !player.isSpectator());
@@ -65,6 +69,33 @@ public class NearbyPlayersSensor<E extends LivingEntity> extends PredicateSensor
 		return this;
 	}
 
+	/**
+	 * Have this sensor share its entity scan with other sensors of the same type and radius in the same chunk section for the current tick.<br>
+	 * Useful for large groups of entities that sit close together, at the cost of possibly missing entities that moved into range earlier in the same tick.
+	 *
+	 * @see SharedSensorScanCache
+	 * @return this
+	 */
+	public NearbyPlayersSensor<E> useSharedScans() {
+		this.useSharedScans = true;
+
+		return this;
+	}
+
+	/**
+	 * Limit the {@link MemoryModuleType#NEAREST_PLAYERS} memory to the nearest {@code max} players.<br>
+	 * Only the nearest {@code max} matching players are kept during the scan, rather than collecting and sorting every player in range.<br>
+	 * The visible and attackable player memories are then only taken from those players
+	 *
+	 * @param max The maximum number of players to remember
+	 * @return this
+	 */
+	public NearbyPlayersSensor<E> limitResults(int max) {
+		this.maxResults = max;
+
+		return this;
+	}
+
 	@Override
 	public List<MemoryModuleType<?>> memoriesUsed() {
 		return MEMORIES;
@@ -85,9 +116,7 @@ public class NearbyPlayersSensor<E extends LivingEntity> extends PredicateSensor
 			radius = new SquareRadius(dist, dist);
 		}
 
-		List<Player> players = EntityRetrievalUtil.getPlayers(entity, radius.xzRadius(), radius.yRadius(), radius.xzRadius(), player -> predicate().test(player, entity));
-
-		players.sort(Comparator.comparingDouble(entity::distanceToSqr));
+		List<Player> players = NearbyEntityScanner.findNearby(entity, radius.xzRadius(), radius.yRadius(), Player.class, predicateFor(entity), this.maxResults, this.scanRate.applyAsInt(entity), this.useSharedScans ? type() : null);
 
 		List<Player> targetablePlayers = new ObjectArrayList<>(players);
 
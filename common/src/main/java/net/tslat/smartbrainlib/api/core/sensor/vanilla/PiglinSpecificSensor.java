@@ -1,7 +1,6 @@
 package net.tslat.smartbrainlib.api.core.sensor.vanilla;
 
 import it.unimi.dsi.fastutil.objects.ObjectArrayList;
-import net.minecraft.core.BlockPos;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.tags.BlockTags;
 import net.minecraft.world.entity.LivingEntity;
@@ -21,10 +20,12 @@ import net.minecraft.world.level.block.Blocks;
 import net.minecraft.world.level.block.CampfireBlock;
 import net.minecraft.world.level.block.state.BlockState;
 import net.tslat.smartbrainlib.api.core.sensor.ExtendedSensor;
+import net.tslat.smartbrainlib.object.NearestBlockCache;
 import net.tslat.smartbrainlib.registry.SBLSensors;
 import net.tslat.smartbrainlib.util.BrainUtil;
 
 import java.util.List;
+import java.util.function.Predicate;
 
 /**
  * A replication of vanilla's
@@ -36,6 +37,14 @@ import java.util.List;
  */
 public class PiglinSpecificSensor<E extends LivingEntity> extends ExtendedSensor<E> {
 	private static final List<MemoryModuleType<?>> MEMORIES = ObjectArrayList.of(MemoryModuleType.NEAREST_VISIBLE_NEMESIS, MemoryModuleType.NEAREST_VISIBLE_HUNTABLE_HOGLIN, MemoryModuleType.NEAREST_VISIBLE_BABY_HOGLIN, MemoryModuleType.NEAREST_VISIBLE_ZOMBIFIED, MemoryModuleType.NEAREST_TARGETABLE_PLAYER_NOT_WEARING_GOLD, MemoryModuleType.NEAREST_PLAYER_HOLDING_WANTED_ITEM, MemoryModuleType.NEAREST_VISIBLE_ADULT_PIGLINS, MemoryModuleType.VISIBLE_ADULT_PIGLIN_COUNT, MemoryModuleType.VISIBLE_ADULT_HOGLIN_COUNT, MemoryModuleType.NEAREST_REPELLENT, MemoryModuleType.NEAREST_LIVING_ENTITIES, MemoryModuleType.NEARBY_ADULT_PIGLINS);
+	private static final Predicate<BlockState> MAYBE_REPELLENT = state -> state.is(BlockTags.PIGLIN_REPELLENTS);
+	private static final Predicate<BlockState> IS_REPELLENT = state -> {
+		boolean isRepellent = state.is(BlockTags.PIGLIN_REPELLENTS);
+
+		return isRepellent && state.is(Blocks.SOUL_CAMPFIRE) ? CampfireBlock.isLitCampfire(state) : isRepellent;
+	};
+
+	protected final NearestBlockCache repellentSearch = new NearestBlockCache(2);
 
 	@Override
 	public List<MemoryModuleType<?>> memoriesUsed() {
@@ -106,13 +115,7 @@ public class PiglinSpecificSensor<E extends LivingEntity> extends ExtendedSensor
 			BrainUtil.setMemory(brain, MemoryModuleType.NEAREST_VISIBLE_ADULT_PIGLINS, visibleAdultPiglins);
 			BrainUtil.setMemory(brain, MemoryModuleType.VISIBLE_ADULT_PIGLIN_COUNT, visibleAdultPiglins.size());
 			BrainUtil.setMemory(brain, MemoryModuleType.VISIBLE_ADULT_HOGLIN_COUNT, adultHoglinCount);
-			BrainUtil.setMemory(brain, MemoryModuleType.NEAREST_REPELLENT,
-					BlockPos.findClosestMatch(entity.blockPosition(), 8, 4, pos -> {
-						BlockState state = level.getBlockState(pos);
-						boolean isRepellent = state.is(BlockTags.PIGLIN_REPELLENTS);
-
-						return isRepellent && state.is(Blocks.SOUL_CAMPFIRE) ? CampfireBlock.isLitCampfire(state) : isRepellent;
-					}).orElse(null));
+			BrainUtil.setMemory(brain, MemoryModuleType.NEAREST_REPELLENT, this.repellentSearch.find(level, entity.blockPosition(), 8, 4, MAYBE_REPELLENT, IS_REPELLENT));
 		});
 
 		BrainUtil.withMemory(brain, MemoryModuleType.NEAREST_LIVING_ENTITIES, entities -> {
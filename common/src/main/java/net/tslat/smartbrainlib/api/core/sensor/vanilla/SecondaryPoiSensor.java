@@ -11,12 +11,15 @@ import net.minecraft.world.entity.ai.sensing.SensorType;
 import net.minecraft.world.entity.npc.villager.Villager;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
 import net.tslat.smartbrainlib.api.core.sensor.ExtendedSensor;
 import net.tslat.smartbrainlib.object.SquareRadius;
 import net.tslat.smartbrainlib.registry.SBLSensors;
+import net.tslat.smartbrainlib.util.BlockRetrievalUtil;
 import net.tslat.smartbrainlib.util.BrainUtil;
 
 import java.util.List;
+import java.util.function.Predicate;
 
 /**
  * A sensor that looks for a nearby
@@ -82,10 +85,14 @@ public class SecondaryPoiSensor<E extends Villager> extends ExtendedSensor<E> {
 		if (testPoiBlocks.isEmpty())
 			return;
 
-		for (BlockPos testPos : BlockPos.betweenClosed(pos.getX() - (int) this.radius.xzRadius() / 2, pos.getY() - (int) this.radius.yRadius() / 2, pos.getZ() - (int) this.radius.xzRadius() / 2, pos.getX() + (int) this.radius.xzRadius() / 2, pos.getY() + (int) this.radius.yRadius() / 2, pos.getZ() + (int) this.radius.xzRadius() / 2)) {
-			if (testPoiBlocks.contains(level.getBlockState(testPos).getBlock()))
+		Predicate<BlockState> isPoi = state -> testPoiBlocks.contains(state.getBlock());
+		BlockPos from = new BlockPos(pos.getX() - (int) this.radius.xzRadius() / 2, pos.getY() - (int) this.radius.yRadius() / 2, pos.getZ() - (int) this.radius.xzRadius() / 2);
+		BlockPos to = new BlockPos(pos.getX() + (int) this.radius.xzRadius() / 2, pos.getY() + (int) this.radius.yRadius() / 2, pos.getZ() + (int) this.radius.xzRadius() / 2);
+
+		BlockRetrievalUtil.forEachBlock(level, from, to, isPoi, (testPos, state) -> {
+			if (isPoi.test(state))
 				poiPositions.add(GlobalPos.of(dimension, testPos.immutable()));
-		}
+		});
 
 		if (poiPositions.isEmpty()) {
 			BrainUtil.clearMemory(entity, MemoryModuleType.SECONDARY_JOB_SITE);
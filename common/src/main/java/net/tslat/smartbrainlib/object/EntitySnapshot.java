@@ -0,0 +1,262 @@
+package net.tslat.smartbrainlib.object;
+
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.entity.item.ItemEntity;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.entity.projectile.Projectile;
+import net.minecraft.world.phys.AABB;
+import net.tslat.smartbrainlib.registry.SBLMemoryTypes;
+import net.tslat.smartbrainlib.util.BrainUtil;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * The result of a single entity scan around a brain owner, bucketed by class, stored in the {@link SBLMemoryTypes#ENTITY_SNAPSHOT} memory.
+ * <p>
+ * Sensors that would otherwise scan for entities themselves can instead filter from the snapshot if it {@link #covers(AABB) covers} the region they need,
+ * so a brain with several entity sensors only walks the level's entity sections once per snapshot.<br>
+ * Sensors that find the snapshot too small {@link #requestRadius(double, double) request} a larger radius, which the next snapshot scan then includes.
+ * <p>
+ * Entities are checked against the requested bounds using their current positions, and removed entities are skipped,
+ * but entities that have entered the region since the snapshot was taken won't be included.
+ *
+ * @see net.tslat.smartbrainlib.api.core.sensor.custom.EntitySnapshotSensor EntitySnapshotSensor
+ */
+public final class EntitySnapshot {
+	private final long gameTime;
+	private final AABB region;
+	private final List<LivingEntity> livingEntities = new ObjectArrayList<>();
+	private final List<Player> players = new ObjectArrayList<>();
+	private final List<Projectile> projectiles = new ObjectArrayList<>();
+	private final List<ItemEntity> items = new ObjectArrayList<>();
+	private double requestedXzRadius = 0;
+	private double requestedYRadius = 0;
+
+	/**
+	 * @param gameTime The game time the scan was done at
+	 * @param region The region that was scanned
+	 * @param entities The entities found in the scan
+	 */
+	public EntitySnapshot(long gameTime, AABB region, Collection<? extends Entity> entities) {
+		this.gameTime = gameTime;
+		this.region = region;
+
+		for (Entity entity : entities) {
+			if (entity instanceof LivingEntity livingEntity) {
+				this.livingEntities.add(livingEntity);
+
+				if (entity instanceof Player player)
+					this.players.add(player);
+			}
+			else if (entity instanceof Projectile projectile) {
+				this.projectiles.add(projectile);
+			}
+			else if (entity instanceof ItemEntity item) {
+				this.items.add(item);
+			}
+		}
+	}
+
+	/**
+	 * Get the current snapshot for the given entity, if it has one
+	 */
+	@Nullable
+	public static EntitySnapshot get(LivingEntity entity) {
+		return BrainUtil.getMemory(entity, SBLMemoryTypes.ENTITY_SNAPSHOT.get());
+	}
+
+	/**
+	 * Get the current snapshot for the given entity if it covers the given bounds.<br>
+	 * If the entity has a snapshot that doesn't cover the bounds, a larger radius is requested for the next snapshot
+	 *
+	 * @param entity The owner of the brain
+	 * @param xzRadius The X/Z radius around the entity that the snapshot needs to cover
+	 * @param yRadius The Y radius around the entity that the snapshot needs to cover
+	 * @param maxAge The maximum number of ticks since the snapshot was taken
+	 * @return The snapshot, or null if there isn't one, it's too old, or it doesn't cover the bounds
+	 */
+	@Nullable
+	public static EntitySnapshot getCovering(LivingEntity entity, double xzRadius, double yRadius, int maxAge) {
+		final EntitySnapshot snapshot = get(entity);
+
+		if (snapshot == null || entity.level().getGameTime() - snapshot.gameTime > maxAge)
+			return null;
+
+		if (!snapshot.covers(entity.getBoundingBox().inflate(xzRadius, yRadius, xzRadius))) {
+			snapshot.requestRadius(xzRadius, yRadius);
+
+			return null;
+		}
+
+		return snapshot;
+	}
+
+	/**
+	 * @return The game time this snapshot was taken at
+	 */
+	public long getGameTime() {
+		return this.gameTime;
+	}
+
+	/**
+	 * @return The region that was scanned for this snapshot
+	 */
+	public AABB getRegion() {
+		return this.region;
+	}
+
+	/**
+	 * @return Whether the given bounds are fully within the region scanned for this snapshot
+	 */
+	public boolean covers(AABB bounds) {
+		return bounds.minX >= this.region.minX && bounds.minY >= this.region.minY && bounds.minZ >= this.region.minZ &&
+				bounds.maxX <= this.region.maxX && bounds.maxY <= this.region.maxY && bounds.maxZ <= this.region.maxZ;
+	}
+
+	/**
+	 * Request that the next snapshot covers at least the given radius around the entity
+	 */
+	public void requestRadius(double xzRadius, double yRadius) {
+		this.requestedXzRadius = Math.max(this.requestedXzRadius, xzRadius);
+		this.requestedYRadius = Math.max(this.requestedYRadius, yRadius);
+	}
+
+	/**
+	 * @return The largest X/Z radius requested by sensors that this snapshot didn't cover
+	 */
+	public double getRequestedXzRadius() {
+		return this.requestedXzRadius;
+	}
+
+	/**
+	 * @return The largest Y radius requested by sensors that this snapshot didn't cover
+	 */
+	public double getRequestedYRadius() {
+		return this.requestedYRadius;
+	}
+
+	/**
+	 * Get all living entities (including players) from this snapshot whose bounding boxes currently intersect the given bounds and that meet the given predicate
+	 *
+	 * @param bounds The region to find entities in
+	 * @param excluding An entity to skip. It will not be passed to the predicate
+	 * @param predicate The predicate determining a valid match
+	 * @param output The collection to add matching entities to. It is not cleared first
+	 * @return The output collection
+	 */
+	public <C extends Collection<? super LivingEntity>> C getLivingEntities(AABB bounds, @Nullable Entity excluding, Predicate<? super LivingEntity> predicate, C output) {
+		return filter(this.livingEntities, bounds, excluding, predicate, output);
+	}
+
+	/**
+	 * Get all players from this snapshot whose positions are currently within the given bounds and that meet the given predicate
+	 *
+	 * @param bounds The region to find players in
+	 * @param excluding An entity to skip. It will not be passed to the predicate
+	 * @param predicate The predicate determining a valid match
+	 * @param output The collection to add matching players to. It is not cleared first
+	 * @return The output collection
+	 */
+	public <C extends Collection<? super Player>> C getPlayers(AABB bounds, @Nullable Entity excluding, Predicate<? super Player> predicate, C output) {
+		for (Player player : this.players) {
+			if (player != excluding && !player.isRemoved() && bounds.contains(player.position()) && predicate.test(player))
+				output.add(player);
+		}
+
+		return output;
+	}
+
+	/**
+	 * Get all projectiles from this snapshot whose bounding boxes currently intersect the given bounds and that meet the given predicate
+	 *
+	 * @param bounds The region to find projectiles in
+	 * @param excluding An entity to skip. It will not be passed to the predicate
+	 * @param predicate The predicate determining a valid match
+	 * @param output The collection to add matching projectiles to. It is not cleared first
+	 * @return The output collection
+	 */
+	public <C extends Collection<? super Projectile>> C getProjectiles(AABB bounds, @Nullable Entity excluding, Predicate<? super Projectile> predicate, C output) {
+		return filter(this.projectiles, bounds, excluding, predicate, output);
+	}
+
+	/**
+	 * Get all item entities from this snapshot whose bounding boxes currently intersect the given bounds and that meet the given predicate
+	 *
+	 * @param bounds The region to find items in
+	 * @param excluding An entity to skip. It will not be passed to the predicate
+	 * @param predicate The predicate determining a valid match
+	 * @param output The collection to add matching items to. It is not cleared first
+	 * @return The output collection
+	 */
+	public <C extends Collection<? super ItemEntity>> C getItems(AABB bounds, @Nullable Entity excluding, Predicate<? super ItemEntity> predicate, C output) {
+		return filter(this.items, bounds, excluding, predicate, output);
+	}
+
+	/**
+	 * Get all entities of the given class from this snapshot that are currently within the given bounds and that meet the given predicate.<br>
+	 * Players are matched by position and other entities by bounding box, the same as {@link #getPlayers} and {@link #getLivingEntities}.
+	 * <p>
+	 * Snapshots only hold living entities, projectiles, and items, so any other class never matches
+	 *
+	 * @param minimumClass The minimum common class that all entities found must be
+	 * @param bounds The region to find entities in
+	 * @param excluding An entity to skip. It will not be passed to the predicate
+	 * @param predicate The predicate determining a valid match
+	 * @param output The collection to add matching entities to. It is not cleared first
+	 * @return The output collection
+	 */
+	public <T extends Entity, C extends Collection<? super T>> C getEntities(Class<T> minimumClass, AABB bounds, @Nullable Entity excluding, Predicate<? super T> predicate, C output) {
+		if (Player.class.isAssignableFrom(minimumClass)) {
+			for (Player player : this.players) {
+				if (player != excluding && minimumClass.isInstance(player) && !player.isRemoved() && bounds.contains(player.position())) {
+					final T match = minimumClass.cast(player);
+
+					if (predicate.test(match))
+						output.add(match);
+				}
+			}
+
+			return output;
+		}
+
+		final List<? extends Entity> entities;
+
+		if (LivingEntity.class.isAssignableFrom(minimumClass)) {
+			entities = this.livingEntities;
+		}
+		else if (Projectile.class.isAssignableFrom(minimumClass)) {
+			entities = this.projectiles;
+		}
+		else if (ItemEntity.class.isAssignableFrom(minimumClass)) {
+			entities = this.items;
+		}
+		else {
+			return output;
+		}
+
+		for (Entity entity : entities) {
+			if (entity != excluding && minimumClass.isInstance(entity) && !entity.isRemoved() && entity.getBoundingBox().intersects(bounds)) {
+				final T match = minimumClass.cast(entity);
+
+				if (predicate.test(match))
+					output.add(match);
+			}
+		}
+
+		return output;
+	}
+
+	private static <T extends Entity, C extends Collection<? super T>> C filter(List<T> entities, AABB bounds, @Nullable Entity excluding, Predicate<? super T> predicate, C output) {
+		for (T entity : entities) {
+			if (entity != excluding && !entity.isRemoved() && entity.getBoundingBox().intersects(bounds) && predicate.test(entity))
+				output.add(entity);
+		}
+
+		return output;
+	}
+}
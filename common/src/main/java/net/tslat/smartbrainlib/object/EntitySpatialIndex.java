@@ -0,0 +1,261 @@
+package net.tslat.smartbrainlib.object;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import it.unimi.dsi.fastutil.objects.Reference2LongOpenHashMap;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.util.AbortableIterationConsumer;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.entity.item.ItemEntity;
+import net.minecraft.world.entity.projectile.Projectile;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.entity.EntityTypeTest;
+import net.minecraft.world.phys.AABB;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Optional per-level uniform grid of {@link LivingEntity}, {@link Projectile}, and {@link ItemEntity} positions, used by the shape-based queries in {@link net.tslat.smartbrainlib.util.EntityRetrievalUtil EntityRetrievalUtil}.
+ * <p>
+ * Entities are bucketed by the 16x16x16 cell their position is in, which is the same as the entity section they're stored in by the level.
+ * Entities are added and removed as they load and unload, and are moved between cells by the platform hooks as they change entity section, so the index is always up to date.<br>
+ * Because entities are bucketed by position, queries check {@link #QUERY_MARGIN} blocks beyond their bounds so that entities whose bounding boxes reach into the bounds from a neighbouring cell are still found.
+ * <p>
+ * Each level's index has its own read/write lock, so concurrent queries (such as from the {@link net.tslat.smartbrainlib.api.core.sensor.ParallelSensorPhase parallel sensor phase}) don't block each other.
+ * <p>
+ * Disabled by default. Enable with {@link #setEnabled(boolean)}, typically during mod construction
+ */
+public final class EntitySpatialIndex {
+	/**
+	 * How far beyond the query bounds to check, to account for entity bounding boxes that extend past the cell their position is in.<br>
+	 * This is the same margin the level uses for its own entity section lookups
+	 */
+	public static final double QUERY_MARGIN = 2;
+	private static final Map<Level, EntitySpatialIndex> LEVEL_INDICES = new ConcurrentHashMap<>();
+	private static volatile boolean enabled = false;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	private final Long2ObjectOpenHashMap<List<Entity>> cells = new Long2ObjectOpenHashMap<>();
+	private final Reference2LongOpenHashMap<Entity> entityCells = new Reference2LongOpenHashMap<>();
+
+	private EntitySpatialIndex(ServerLevel level) {
+		for (Entity entity : level.getAllEntities()) {
+			if (isIndexed(entity))
+				add(entity);
+		}
+	}
+
+	/**
+	 * Enable or disable the spatial index for all server levels. Disabling it discards all existing indices
+	 */
+	public static void setEnabled(boolean enable) {
+		enabled = enable;
+
+		if (!enable)
+			LEVEL_INDICES.clear();
+	}
+
+	/**
+	 * @return Whether the spatial index is enabled
+	 */
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * @return Whether entities of the given class are tracked by the index
+	 */
+	public static boolean isIndexed(Class<? extends Entity> entityClass) {
+		return LivingEntity.class.isAssignableFrom(entityClass) || Projectile.class.isAssignableFrom(entityClass) || ItemEntity.class.isAssignableFrom(entityClass);
+	}
+
+	/**
+	 * @return Whether the given entity is tracked by the index
+	 */
+	public static boolean isIndexed(Entity entity) {
+		return entity instanceof LivingEntity || entity instanceof Projectile || entity instanceof ItemEntity;
+	}
+
+	/**
+	 * Get the spatial index for the given level, if it can answer queries for the given class
+	 *
+	 * @return The index, or null if the index is disabled, the level isn't a server level, or the class isn't indexed
+	 */
+	@Nullable
+	public static EntitySpatialIndex get(Level level, Class<? extends Entity> entityClass) {
+		if (!enabled || !(level instanceof ServerLevel serverLevel) || !isIndexed(entityClass))
+			return null;
+
+		EntitySpatialIndex index = LEVEL_INDICES.get(level);
+
+		if (index == null)
+			index = LEVEL_INDICES.computeIfAbsent(level, key -> new EntitySpatialIndex(serverLevel));
+
+		return index;
+	}
+
+	@ApiStatus.Internal
+	public static void onEntityLoad(Entity entity, Level level) {
+		if (!enabled || !isIndexed(entity))
+			return;
+
+		EntitySpatialIndex index = LEVEL_INDICES.get(level);
+
+		if (index != null)
+			index.add(entity);
+	}
+
+	@ApiStatus.Internal
+	public static void onEntityUnload(Entity entity, Level level) {
+		if (!enabled || !isIndexed(entity))
+			return;
+
+		EntitySpatialIndex index = LEVEL_INDICES.get(level);
+
+		if (index != null)
+			index.remove(entity);
+	}
+
+	/**
+	 * Move an entity to its new cell. Called by the platform hooks whenever an entity moves into a new entity section
+	 */
+	@ApiStatus.Internal
+	public static void onEntitySectionChange(Entity entity, Level level) {
+		if (!enabled || !isIndexed(entity))
+			return;
+
+		EntitySpatialIndex index = LEVEL_INDICES.get(level);
+
+		if (index != null)
+			index.move(entity);
+	}
+
+	@ApiStatus.Internal
+	public static void onLevelUnload(Level level) {
+		LEVEL_INDICES.remove(level);
+	}
+
+	/**
+	 * Pass every indexed entity of the given type whose cell overlaps the given bounds (plus {@link #QUERY_MARGIN}) to the consumer, until it aborts.<br>
+	 * Candidates are not checked against the bounds themselves; that is up to the consumer
+	 *
+	 * @param bounds The region to find candidates in
+	 * @param typeTest The type test to filter and cast candidates with
+	 * @param consumer The consumer to pass candidates to
+	 */
+	public <T extends Entity> void forEachCandidate(AABB bounds, EntityTypeTest<Entity, T> typeTest, AbortableIterationConsumer<T> consumer) {
+		this.lock.readLock().lock();
+
+		try {
+			final int minX = SectionPos.posToSectionCoord(bounds.minX - QUERY_MARGIN);
+			final int minY = SectionPos.posToSectionCoord(bounds.minY - QUERY_MARGIN);
+			final int minZ = SectionPos.posToSectionCoord(bounds.minZ - QUERY_MARGIN);
+			final int maxX = SectionPos.posToSectionCoord(bounds.maxX + QUERY_MARGIN);
+			final int maxY = SectionPos.posToSectionCoord(bounds.maxY + QUERY_MARGIN);
+			final int maxZ = SectionPos.posToSectionCoord(bounds.maxZ + QUERY_MARGIN);
+
+			for (int x = minX; x <= maxX; x++) {
+				for (int z = minZ; z <= maxZ; z++) {
+					for (int y = minY; y <= maxY; y++) {
+						List<Entity> cell = this.cells.get(SectionPos.asLong(x, y, z));
+
+						if (cell == null)
+							continue;
+
+						for (int i = 0; i < cell.size(); i++) {
+							Entity entity = cell.get(i);
+							T candidate = typeTest.tryCast(entity);
+
+							if (candidate != null && !entity.isRemoved() && consumer.accept(candidate) == AbortableIterationConsumer.Continuation.ABORT)
+								return;
+						}
+					}
+				}
+			}
+		}
+		finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+	private void add(Entity entity) {
+		this.lock.writeLock().lock();
+
+		try {
+			if (this.entityCells.containsKey(entity))
+				return;
+
+			long cell = getCell(entity);
+
+			this.entityCells.put(entity, cell);
+			this.cells.computeIfAbsent(cell, key -> new ObjectArrayList<>()).add(entity);
+		}
+		finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	private void remove(Entity entity) {
+		this.lock.writeLock().lock();
+
+		try {
+			if (this.entityCells.containsKey(entity))
+				removeFromCell(entity, this.entityCells.removeLong(entity));
+		}
+		finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	private void move(Entity entity) {
+		this.lock.writeLock().lock();
+
+		try {
+			if (!this.entityCells.containsKey(entity))
+				return;
+
+			long oldCell = this.entityCells.getLong(entity);
+			long newCell = getCell(entity);
+
+			if (newCell != oldCell) {
+				removeFromCell(entity, oldCell);
+				this.cells.computeIfAbsent(newCell, key -> new ObjectArrayList<>()).add(entity);
+				this.entityCells.put(entity, newCell);
+			}
+		}
+		finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	private void removeFromCell(Entity entity, long cellId) {
+		List<Entity> cell = this.cells.get(cellId);
+
+		if (cell == null)
+			return;
+
+		int index = cell.indexOf(entity);
+
+		if (index >= 0) {
+			int lastIndex = cell.size() - 1;
+
+			cell.set(index, cell.get(lastIndex));
+			cell.remove(lastIndex);
+		}
+
+		if (cell.isEmpty())
+			this.cells.remove(cellId);
+	}
+
+	private static long getCell(Entity entity) {
+		return SectionPos.asLong(SectionPos.posToSectionCoord(entity.getX()), SectionPos.posToSectionCoord(entity.getY()), SectionPos.posToSectionCoord(entity.getZ()));
+	}
+}
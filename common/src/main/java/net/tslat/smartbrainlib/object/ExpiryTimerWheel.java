@@ -0,0 +1,212 @@
+package net.tslat.smartbrainlib.object;
+
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timer wheel for tracking keys that expire at a given tick.<br>
+ * Scheduling, rescheduling, and cancelling a key are all O(1), and advancing the wheel only touches the keys that share a slot with the current tick.
+ * <p>
+ * The wheel keeps its own tick counter, which is only moved forward by {@link #advance(long, Consumer)}.<br>
+ * Each key can only have one pending expiry at a time; scheduling it again replaces its previous expiry.
+ *
+ * @param <T> The key type. Keys are compared by identity
+ */
+public class ExpiryTimerWheel<T> {
+	private static final int DEFAULT_SIZE = 256;
+
+	private final Entry<T>[] slots;
+	private final int mask;
+	private final Reference2ObjectOpenHashMap<T, Entry<T>> entries = new Reference2ObjectOpenHashMap<>();
+	private final List<T> expiredKeys = new ObjectArrayList<>();
+	private long currentTick = 0;
+
+	public ExpiryTimerWheel() {
+		this(DEFAULT_SIZE);
+	}
+
+	/**
+	 * @param size The number of slots in the wheel. Will be rounded up to the next power of two
+	 */
+	public ExpiryTimerWheel(int size) {
+		int slotCount = Integer.highestOneBit(Math.max(1, size - 1)) << 1;
+
+		this.slots = new Entry[slotCount];
+		this.mask = slotCount - 1;
+	}
+
+	/**
+	 * @return The current tick of the wheel
+	 */
+	public long getCurrentTick() {
+		return this.currentTick;
+	}
+
+	/**
+	 * @return Whether there are no keys currently scheduled in this wheel
+	 */
+	public boolean isEmpty() {
+		return this.entries.isEmpty();
+	}
+
+	/**
+	 * @return The number of keys currently scheduled in this wheel
+	 */
+	public int size() {
+		return this.entries.size();
+	}
+
+	/**
+	 * Schedule a key to expire at the given absolute tick, replacing any existing expiry it had
+	 *
+	 * @param key The key to schedule
+	 * @param expiryTick The tick at which the key expires. If this is at or before the current tick, it will expire on the next advancement
+	 */
+	public void schedule(T key, long expiryTick) {
+		Entry<T> entry = this.entries.get(key);
+
+		if (entry == null) {
+			this.entries.put(key, entry = new Entry<>(key));
+		}
+		else {
+			if (entry.expiryTick == expiryTick)
+				return;
+
+			unlink(entry);
+		}
+
+		entry.expiryTick = Math.max(expiryTick, this.currentTick + 1);
+
+		link(entry);
+	}
+
+	/**
+	 * Remove a key from the wheel, if present
+	 *
+	 * @return Whether the key was scheduled
+	 */
+	public boolean cancel(T key) {
+		Entry<T> entry = this.entries.remove(key);
+
+		if (entry == null)
+			return false;
+
+		unlink(entry);
+
+		return true;
+	}
+
+	/**
+	 * Get the absolute tick at which the given key expires
+	 *
+	 * @return The expiry tick, or -1 if the key isn't scheduled
+	 */
+	public long getExpiryTick(T key) {
+		Entry<T> entry = this.entries.get(key);
+
+		return entry == null ? -1 : entry.expiryTick;
+	}
+
+	/**
+	 * Remove all keys from the wheel
+	 */
+	public void clear() {
+		this.entries.clear();
+		Arrays.fill(this.slots, null);
+	}
+
+	/**
+	 * Move the wheel forward by the given number of ticks, passing each key that expires in that time to the consumer.<br>
+	 * Expired keys are removed from the wheel before the consumer is called, so it is safe to reschedule them from the consumer.
+	 *
+	 * @param ticks The number of ticks to advance by
+	 * @param expiredConsumer The consumer to pass expired keys to
+	 */
+	public void advance(long ticks, Consumer<T> expiredConsumer) {
+		if (ticks <= 0)
+			return;
+
+		long newTick = this.currentTick + ticks;
+
+		if (!this.entries.isEmpty()) {
+			int slotsToCheck = (int)Math.min(ticks, this.slots.length);
+
+			for (int i = 1; i <= slotsToCheck; i++) {
+				collectExpired((int)((this.currentTick + i) & this.mask), newTick);
+			}
+		}
+
+		this.currentTick = newTick;
+
+		if (this.expiredKeys.isEmpty())
+			return;
+
+		for (T key : this.expiredKeys) {
+			expiredConsumer.accept(key);
+		}
+
+		this.expiredKeys.clear();
+	}
+
+	private void collectExpired(int slot, long newTick) {
+		Entry<T> entry = this.slots[slot];
+
+		while (entry != null) {
+			Entry<T> next = entry.next;
+
+			if (entry.expiryTick <= newTick) {
+				unlink(entry);
+				this.entries.remove(entry.key);
+				this.expiredKeys.add(entry.key);
+			}
+
+			entry = next;
+		}
+	}
+
+	private void link(Entry<T> entry) {
+		int slot = (int)(entry.expiryTick & this.mask);
+		Entry<T> head = this.slots[slot];
+
+		entry.prev = null;
+		entry.next = head;
+
+		if (head != null)
+			head.prev = entry;
+
+		this.slots[slot] = entry;
+	}
+
+	private void unlink(Entry<T> entry) {
+		if (entry.prev != null) {
+			entry.prev.next = entry.next;
+		}
+		else {
+			this.slots[(int)(entry.expiryTick & this.mask)] = entry.next;
+		}
+
+		if (entry.next != null)
+			entry.next.prev = entry.prev;
+
+		entry.prev = null;
+		entry.next = null;
+	}
+
+	private static final class Entry<T> {
+		private final T key;
+		private long expiryTick;
+		@Nullable
+		private Entry<T> prev = null;
+		@Nullable
+		private Entry<T> next = null;
+
+		private Entry(T key) {
+			this.key = key;
+		}
+	}
+}
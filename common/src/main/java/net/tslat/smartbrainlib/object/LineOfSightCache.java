@@ -0,0 +1,117 @@
+package net.tslat.smartbrainlib.object;
+
+import it.unimi.dsi.fastutil.longs.Long2ByteOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.level.Level;
+import org.jetbrains.annotations.ApiStatus;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.BooleanSupplier;
+
+/**
+ * A per-level, per-tick cache of line of sight checks, shared between all entities.<br>
+ * Results are keyed on the block positions of the viewer's eyes and the target's eyes, so that crowds of entities looking at the same targets only raycast once per pair of blocks.
+ * Line of sight is symmetric, so a check from A to B also answers a check from B to A.
+ * <p>
+ * Cached results are discarded when the level's game time changes, so results are never reused across ticks.<br>
+ * Because results are shared at block resolution, two checks whose eye positions are in the same blocks may get the same result even if a partial block would have given them different ones.
+ * <p>
+ * Disabled by default. Enable with {@link #setEnabled(boolean)}, typically during mod construction.<br>
+ * Lookups are synchronised, so this is safe to use from {@link net.tslat.smartbrainlib.api.core.sensor.ExtendedSensor#markParallelSafe() parallel-safe} sensors.
+ */
+public final class LineOfSightCache {
+	private static final Map<Level, LineOfSightCache> LEVEL_CACHES = new WeakHashMap<>();
+	private static final byte UNKNOWN = 0;
+	private static final byte VISIBLE = 1;
+	private static final byte NOT_VISIBLE = 2;
+	private static volatile boolean enabled = false;
+
+	private final Long2ObjectOpenHashMap<Long2ByteOpenHashMap> results = new Long2ObjectOpenHashMap<>();
+	private long gameTime = Long.MIN_VALUE;
+
+	private LineOfSightCache() {}
+
+	/**
+	 * Enable or disable the shared line of sight cache for all levels. Disabling it discards all cached results
+	 */
+	public static synchronized void setEnabled(boolean enable) {
+		enabled = enable;
+
+		if (!enable)
+			LEVEL_CACHES.clear();
+	}
+
+	/**
+	 * @return Whether the shared line of sight cache is enabled
+	 */
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Get the cached line of sight result between the given entities' eyes for the current tick, computing it with the given check if not already cached.<br>
+	 * If the cache is disabled or the entities aren't in the same level, the check is run directly
+	 *
+	 * @param entity The viewing entity
+	 * @param target The entity being looked at
+	 * @param check The raycast to run if no result is cached
+	 * @return Whether the entity has line of sight to the target
+	 */
+	public static boolean hasLineOfSight(LivingEntity entity, Entity target, BooleanSupplier check) {
+		if (!enabled || entity.level() != target.level())
+			return check.getAsBoolean();
+
+		final long from = BlockPos.asLong(entity.getBlockX(), (int)Math.floor(entity.getEyeY()), entity.getBlockZ());
+		final long to = BlockPos.asLong(target.getBlockX(), (int)Math.floor(target.getEyeY()), target.getBlockZ());
+		final long first = Math.min(from, to);
+		final long second = Math.max(from, to);
+		final Level level = entity.level();
+		byte result;
+
+		synchronized (LineOfSightCache.class) {
+			result = getCache(level).get(first, second);
+		}
+
+		if (result != UNKNOWN)
+			return result == VISIBLE;
+
+		final boolean visible = check.getAsBoolean();
+
+		synchronized (LineOfSightCache.class) {
+			getCache(level).put(first, second, visible ? VISIBLE : NOT_VISIBLE);
+		}
+
+		return visible;
+	}
+
+	@ApiStatus.Internal
+	public static synchronized void onLevelUnload(Level level) {
+		LEVEL_CACHES.remove(level);
+	}
+
+	private static LineOfSightCache getCache(Level level) {
+		final LineOfSightCache cache = LEVEL_CACHES.computeIfAbsent(level, key -> new LineOfSightCache());
+
+		if (cache.gameTime != level.getGameTime()) {
+			cache.results.clear();
+
+			cache.gameTime = level.getGameTime();
+		}
+
+		return cache;
+	}
+
+	private byte get(long first, long second) {
+		final Long2ByteOpenHashMap targets = this.results.get(first);
+
+		return targets == null ? UNKNOWN : targets.get(second);
+	}
+
+	private void put(long first, long second, byte result) {
+		this.results.computeIfAbsent(first, key -> new Long2ByteOpenHashMap()).put(second, result);
+	}
+}
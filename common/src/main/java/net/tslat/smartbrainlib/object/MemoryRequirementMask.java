@@ -0,0 +1,125 @@
+package net.tslat.smartbrainlib.object;
+
+import com.mojang.datafixers.util.Pair;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import net.minecraft.world.entity.ai.Brain;
+import net.minecraft.world.entity.ai.memory.MemoryModuleType;
+import net.minecraft.world.entity.ai.memory.MemoryStatus;
+
+import java.util.List;
+
+/**
+ * A list of memory requirements compiled into a pair of bitsets over a {@link MemorySlotIndex}, one for memories that must be present and one for memories that must be absent.<br>
+ * Checking the requirements against a brain's memory presence bitset is then a handful of {@code long} operations, rather than a memory lookup per requirement.
+ * <p>
+ * Requirements for memories that aren't part of the slot index are kept aside and checked against the brain individually.
+ * <p>
+ * The mask keeps a copy of the requirements it was compiled from, so that callers can check it against the current requirements with {@link #isCompiledFrom}
+ * and recompile it if they were modified in place.
+ */
+public final class MemoryRequirementMask {
+	private final MemorySlotIndex slotIndex;
+	private final Pair<?, ?>[] requirements;
+	private final long[] present;
+	private final long[] absent;
+	private final List<Pair<MemoryModuleType<?>, MemoryStatus>> unindexed;
+
+	private MemoryRequirementMask(MemorySlotIndex slotIndex, Pair<?, ?>[] requirements, long[] present, long[] absent, List<Pair<MemoryModuleType<?>, MemoryStatus>> unindexed) {
+		this.slotIndex = slotIndex;
+		this.requirements = requirements;
+		this.present = present;
+		this.absent = absent;
+		this.unindexed = unindexed;
+	}
+
+	/**
+	 * Compile the given memory requirements against the given slot index
+	 *
+	 * @param requirements The memory requirements
+	 * @param slotIndex The slot index to compile against
+	 * @return The compiled mask
+	 */
+	public static MemoryRequirementMask compile(List<Pair<MemoryModuleType<?>, MemoryStatus>> requirements, MemorySlotIndex slotIndex) {
+		final long[] present = new long[wordsFor(slotIndex)];
+		final long[] absent = new long[present.length];
+		List<Pair<MemoryModuleType<?>, MemoryStatus>> unindexed = List.of();
+
+		for (Pair<MemoryModuleType<?>, MemoryStatus> requirement : requirements) {
+			final int slot = slotIndex.getSlot(requirement.getFirst());
+
+			if (slot < 0) {
+				if (unindexed.isEmpty())
+					unindexed = new ObjectArrayList<>(1);
+
+				unindexed.add(requirement);
+
+				continue;
+			}
+
+			switch (requirement.getSecond()) {
+				case VALUE_PRESENT -> present[slot >>> 6] |= 1L << slot;
+				case VALUE_ABSENT -> absent[slot >>> 6] |= 1L << slot;
+				case REGISTERED -> {}
+			}
+		}
+
+		return new MemoryRequirementMask(slotIndex, requirements.toArray(new Pair<?, ?>[0]), present, absent, unindexed);
+	}
+
+	/**
+	 * @return The number of {@code long} words needed for a bitset over the given slot index
+	 */
+	public static int wordsFor(MemorySlotIndex slotIndex) {
+		return (slotIndex.size() + 63) >>> 6;
+	}
+
+	/**
+	 * @return The slot index this mask was compiled against
+	 */
+	public MemorySlotIndex getSlotIndex() {
+		return this.slotIndex;
+	}
+
+	/**
+	 * Check whether this mask is still valid for the given requirements and slot index.<br>
+	 * The requirements are compared by the identity of each element, so this is cheap enough to check before every {@link #test}
+	 *
+	 * @param requirements The current memory requirements
+	 * @param slotIndex The current slot index
+	 * @return Whether this mask was compiled from the same requirements, in the same order, against the same slot index
+	 */
+	public boolean isCompiledFrom(List<Pair<MemoryModuleType<?>, MemoryStatus>> requirements, MemorySlotIndex slotIndex) {
+		if (this.slotIndex != slotIndex || this.requirements.length != requirements.size())
+			return false;
+
+		for (int i = 0; i < this.requirements.length; i++) {
+			if (this.requirements[i] != requirements.get(i))
+				return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Check whether the given brain meets these memory requirements
+	 *
+	 * @param presence The brain's memory presence bitset, over the same slot index as this mask
+	 * @param brain The brain, for checking any requirements outside the slot index
+	 * @return Whether all requirements are met
+	 */
+	public boolean test(long[] presence, Brain<?> brain) {
+		for (int i = 0; i < this.present.length; i++) {
+			final long word = presence[i];
+
+			if ((word & this.present[i]) != this.present[i] || (word & this.absent[i]) != 0)
+				return false;
+		}
+
+		for (Pair<MemoryModuleType<?>, MemoryStatus> requirement : this.unindexed) {
+			if (!brain.checkMemory(requirement.getFirst(), requirement.getSecond()))
+				return false;
+		}
+
+		return true;
+	}
+}
@@ -0,0 +1,54 @@
+package net.tslat.smartbrainlib.object;
+
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import net.minecraft.world.entity.ai.memory.MemoryModuleType;
+
+import java.util.Collection;
+
+/**
+ * Fixed mapping of {@link MemoryModuleType MemoryModuleTypes} to dense integer slots, for array-backed memory storage and memory bitsets.<br>
+ * Instances are immutable once created, and are typically shared between all brains of the same entity type.
+ */
+public final class MemorySlotIndex {
+	private final Reference2IntOpenHashMap<MemoryModuleType<?>> slots;
+	private final MemoryModuleType<?>[] memoryTypes;
+
+	private MemorySlotIndex(MemoryModuleType<?>[] memoryTypes) {
+		this.memoryTypes = memoryTypes;
+		this.slots = new Reference2IntOpenHashMap<>(memoryTypes.length);
+
+		this.slots.defaultReturnValue(-1);
+
+		for (int i = 0; i < memoryTypes.length; i++) {
+			this.slots.put(memoryTypes[i], i);
+		}
+	}
+
+	/**
+	 * Create a new slot index for the given memory types, in iteration order. Duplicate memory types are only assigned one slot
+	 */
+	public static MemorySlotIndex of(Collection<? extends MemoryModuleType<?>> memoryTypes) {
+		return new MemorySlotIndex(memoryTypes.stream().distinct().toArray(MemoryModuleType[]::new));
+	}
+
+	/**
+	 * @return The slot assigned to the given memory type, or -1 if it isn't part of this index
+	 */
+	public int getSlot(MemoryModuleType<?> memoryType) {
+		return this.slots.getInt(memoryType);
+	}
+
+	/**
+	 * @return The memory type assigned to the given slot
+	 */
+	public MemoryModuleType<?> getMemoryType(int slot) {
+		return this.memoryTypes[slot];
+	}
+
+	/**
+	 * @return The number of slots in this index
+	 */
+	public int size() {
+		return this.memoryTypes.length;
+	}
+}
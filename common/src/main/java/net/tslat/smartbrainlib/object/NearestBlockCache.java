@@ -0,0 +1,96 @@
+package net.tslat.smartbrainlib.object;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.state.BlockState;
+import net.tslat.smartbrainlib.util.BlockRetrievalUtil;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.function.Predicate;
+
+/**
+ * Memoized nearest-block search, for repeatedly finding the nearest matching block around a single entity.
+ * <p>
+ * The last match is kept and re-validated on the next search by checking only that one position.
+ * A full {@link BlockRetrievalUtil#findClosestMatch search} is only done if the previous match no longer meets the predicate, is out of range or is no longer loaded,
+ * or the search center has moved more than the movement threshold since the last full search.
+ * If the last full search found nothing, the miss is remembered in the same way, until the miss retry interval has passed.<br>
+ * Because of this, a closer matching block that appears while the previous result is still valid won't be found until the next full search.
+ * <p>
+ * Like the rest of {@link BlockRetrievalUtil}, this never loads chunks, so it is safe to use off the server thread.
+ */
+public final class NearestBlockCache {
+	private int movementThreshold;
+	private int missRetryInterval = 20;
+	private long missExpiresAt = 0;
+	@Nullable
+	private Level level = null;
+	@Nullable
+	private BlockPos searchCenter = null;
+	@Nullable
+	private BlockPos match = null;
+
+	/**
+	 * @param movementThreshold How far (Manhattan distance, in blocks) the search center can move before a full search is forced
+	 */
+	public NearestBlockCache(int movementThreshold) {
+		this.movementThreshold = movementThreshold;
+	}
+
+	/**
+	 * Set how far (Manhattan distance, in blocks) the search center can move before a full search is forced
+	 */
+	public void setMovementThreshold(int movementThreshold) {
+		this.movementThreshold = movementThreshold;
+	}
+
+	/**
+	 * Set how many game ticks a search that found nothing is remembered for before a full search is run again
+	 */
+	public void setMissRetryInterval(int ticks) {
+		this.missRetryInterval = ticks;
+	}
+
+	/**
+	 * Find the nearest block matching the predicate, re-using the last match if it is still valid
+	 *
+	 * @param level         The level to search in
+	 * @param center        The position to search around
+	 * @param xzRadius      The X/Z radius to search in, in blocks
+	 * @param yRadius       The Y radius to search in, in blocks
+	 * @param sectionFilter The predicate at least one state in a chunk section must match for that section to be searched
+	 * @param predicate     The predicate determining a valid match
+	 * @return The nearest matching position, or null if none found
+	 */
+	@Nullable
+	public BlockPos find(Level level, BlockPos center, int xzRadius, int yRadius, Predicate<BlockState> sectionFilter, Predicate<BlockState> predicate) {
+		if (this.level == level && this.searchCenter != null && this.searchCenter.distManhattan(center) <= this.movementThreshold) {
+			if (this.match == null) {
+				if (level.getGameTime() < this.missExpiresAt)
+					return null;
+			}
+			else if (Math.abs(this.match.getX() - center.getX()) <= xzRadius && Math.abs(this.match.getY() - center.getY()) <= yRadius && Math.abs(this.match.getZ() - center.getZ()) <= xzRadius) {
+				final BlockState state = BlockRetrievalUtil.getBlockStateIfLoaded(level, this.match);
+
+				if (state != null && predicate.test(state))
+					return this.match;
+			}
+		}
+
+		this.level = level;
+		this.searchCenter = center.immutable();
+		this.match = BlockRetrievalUtil.findClosestMatch(level, center, xzRadius, yRadius, sectionFilter, predicate).orElse(null);
+		this.missExpiresAt = level.getGameTime() + this.missRetryInterval;
+
+		return this.match;
+	}
+
+	/**
+	 * Discard the last match, forcing a full search next time
+	 */
+	public void invalidate() {
+		this.level = null;
+		this.searchCenter = null;
+		this.match = null;
+	}
+}
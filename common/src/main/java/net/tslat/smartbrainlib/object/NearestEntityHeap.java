@@ -0,0 +1,165 @@
+package net.tslat.smartbrainlib.object;
+
+import java.util.Collection;
+
+/**
+ * Bounded max-heap of entries keyed on a primitive distance, for keeping the nearest {@code k} entries of a search without sorting every result.<br>
+ * Once full, an entry is only added if it is nearer than the current furthest entry, which it then replaces.
+ * <p>
+ * Entries at the same distance are ordered by when they were offered, earliest first, so the result is the same as a stable sort of every offered entry truncated to the capacity.
+ *
+ * @param <T> The entry type
+ */
+public final class NearestEntityHeap<T> {
+	private final double[] distances;
+	private final Object[] entries;
+	private final long[] offerOrders;
+	private int size = 0;
+	private long nextOfferOrder = 0;
+
+	/**
+	 * @param capacity The maximum number of entries to keep
+	 */
+	public NearestEntityHeap(int capacity) {
+		this.distances = new double[Math.max(1, capacity)];
+		this.entries = new Object[this.distances.length];
+		this.offerOrders = new long[this.distances.length];
+	}
+
+	/**
+	 * @return The number of entries currently in the heap
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * @return Whether the heap is empty
+	 */
+	public boolean isEmpty() {
+		return this.size == 0;
+	}
+
+	/**
+	 * @return The distance of the furthest entry currently kept, or {@link Double#MAX_VALUE} if the heap isn't full yet
+	 */
+	public double getFurthestDistance() {
+		return this.size < this.distances.length ? Double.MAX_VALUE : this.distances[0];
+	}
+
+	/**
+	 * Offer an entry to the heap
+	 *
+	 * @param entry The entry
+	 * @param distance The distance of the entry (typically squared)
+	 * @return Whether the entry was kept
+	 */
+	public boolean offer(T entry, double distance) {
+		final long offerOrder = this.nextOfferOrder++;
+
+		if (this.size < this.distances.length) {
+			int index = this.size++;
+
+			this.distances[index] = distance;
+			this.entries[index] = entry;
+			this.offerOrders[index] = offerOrder;
+
+			siftUp(index);
+
+			return true;
+		}
+
+		// Entries offered later lose ties, so an entry at the same distance as the furthest is never kept
+		if (distance >= this.distances[0])
+			return false;
+
+		this.distances[0] = distance;
+		this.entries[0] = entry;
+		this.offerOrders[0] = offerOrder;
+
+		siftDown(0, this.size);
+
+		return true;
+	}
+
+	/**
+	 * Empty the heap into the given collection, nearest entry first
+	 *
+	 * @param output The collection to add the entries to
+	 * @return The output collection
+	 */
+	@SuppressWarnings("unchecked")
+	public <C extends Collection<? super T>> C drainSorted(C output) {
+		int count = this.size;
+
+		// Heapsort in place; the max-heap leaves the entries in ascending order
+		for (int end = count - 1; end > 0; end--) {
+			swap(0, end);
+			siftDown(0, end);
+		}
+
+		for (int i = 0; i < count; i++) {
+			output.add((T)this.entries[i]);
+			this.entries[i] = null;
+		}
+
+		this.size = 0;
+		this.nextOfferOrder = 0;
+
+		return output;
+	}
+
+	private void siftUp(int index) {
+		while (index > 0) {
+			int parent = (index - 1) >>> 1;
+
+			if (!isFurther(index, parent))
+				return;
+
+			swap(parent, index);
+			index = parent;
+		}
+	}
+
+	private void siftDown(int index, int size) {
+		while (true) {
+			int largest = index;
+			int left = (index << 1) + 1;
+			int right = left + 1;
+
+			if (left < size && isFurther(left, largest))
+				largest = left;
+
+			if (right < size && isFurther(right, largest))
+				largest = right;
+
+			if (largest == index)
+				return;
+
+			swap(index, largest);
+			index = largest;
+		}
+	}
+
+	/**
+	 * @return Whether the entry at the first index sorts after the entry at the second, by distance then by offer order
+	 */
+	private boolean isFurther(int index, int index2) {
+		final int comparison = Double.compare(this.distances[index], this.distances[index2]);
+
+		return comparison > 0 || (comparison == 0 && this.offerOrders[index] > this.offerOrders[index2]);
+	}
+
+	private void swap(int index, int index2) {
+		double distance = this.distances[index];
+		Object entry = this.entries[index];
+		long offerOrder = this.offerOrders[index];
+
+		this.distances[index] = this.distances[index2];
+		this.entries[index] = this.entries[index2];
+		this.offerOrders[index] = this.offerOrders[index2];
+		this.distances[index2] = distance;
+		this.entries[index2] = entry;
+		this.offerOrders[index2] = offerOrder;
+	}
+}
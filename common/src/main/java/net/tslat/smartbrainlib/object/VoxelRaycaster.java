@@ -0,0 +1,224 @@
+package net.tslat.smartbrainlib.object;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.util.Mth;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.level.BlockGetter;
+import net.minecraft.world.level.EmptyBlockGetter;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.phys.Vec3;
+import net.minecraft.world.phys.shapes.CollisionContext;
+import net.minecraft.world.phys.shapes.Shapes;
+import net.minecraft.world.phys.shapes.VoxelShape;
+import net.tslat.smartbrainlib.util.BlockRetrievalUtil;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Voxel-stepping visibility test, equivalent to a {@link net.minecraft.world.level.ClipContext.Block#COLLIDER COLLIDER} clip that ignores fluids,
+ * as used by {@link LivingEntity#hasLineOfSight(Entity)}.
+ * <p>
+ * Rays are walked one block at a time (Amanatides &amp; Woo), reading the chunk section for each step directly, so block lookups don't go through the chunk source for every step.
+ * Chunk sections that contain only air are skipped without looking up any block states, and full-cube collision shapes are treated as blocking without clipping against them.
+ * <p>
+ * Sections are looked up with {@link net.tslat.smartbrainlib.util.BlockRetrievalUtil#getSectionIfLoaded BlockRetrievalUtil.getSectionIfLoaded} and read without locking them,
+ * so raycasters are safe to use off the server thread, and several threads can raycast through the same section at once.
+ * Chunks that aren't fully loaded are treated as empty.
+ * Off the server thread, collision shapes are looked up without access to the level, so shapes that depend on a block entity or neighbouring blocks use their defaults.
+ * <p>
+ * {@link net.tslat.smartbrainlib.util.SensoryUtil#hasLineOfSight SensoryUtil's} line of sight checks only use raycasters if {@link #setEnabled(boolean) enabled}, which is off by default.
+ * Raycasting doesn't go through {@link LivingEntity#hasLineOfSight(Entity)} or {@link Level#clip}, so entities that override the former, and mods that change the latter, are bypassed while it is enabled.
+ * <p>
+ * Instances are reused per-thread. Open one with {@link #open(Level, Entity)} to test any number of rays in the same level, then close it to return it to the pool:
+ * <pre>{@code
+ * try (VoxelRaycaster raycaster = VoxelRaycaster.open(level, entity)) {
+ *     for (LivingEntity target : targets) {
+ *         if (raycaster.hasLineOfSight(entity, target))
+ *             ...
+ *     }
+ * }
+ * }</pre>
+ */
+public final class VoxelRaycaster implements AutoCloseable {
+	/**
+	 * The maximum distance at which {@link LivingEntity#hasLineOfSight(Entity)} will consider a target visible
+	 */
+	public static final double MAX_LINE_OF_SIGHT_DISTANCE = 128;
+	private static final ThreadLocal<VoxelRaycaster> INSTANCES = ThreadLocal.withInitial(VoxelRaycaster::new);
+	private static volatile boolean enabled = false;
+
+	private final BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+	private boolean inUse = false;
+	@Nullable
+	private Level level = null;
+	private BlockGetter shapeGetter = EmptyBlockGetter.INSTANCE;
+	private CollisionContext collisionContext = CollisionContext.empty();
+	private long sectionKey = Long.MIN_VALUE;
+	@Nullable
+	private LevelChunkSection section = null;
+
+	private VoxelRaycaster() {}
+
+	/**
+	 * Enable or disable using raycasters for {@link net.tslat.smartbrainlib.util.SensoryUtil#hasLineOfSight SensoryUtil's} line of sight checks, typically during mod construction.<br>
+	 * While disabled, those checks use the entity's own {@link LivingEntity#hasLineOfSight(Entity) hasLineOfSight}
+	 */
+	public static void setEnabled(boolean enable) {
+		enabled = enable;
+	}
+
+	/**
+	 * @return Whether raycasters are used for {@link net.tslat.smartbrainlib.util.SensoryUtil#hasLineOfSight SensoryUtil's} line of sight checks
+	 */
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Open a raycaster for the given level
+	 *
+	 * @param level The level to test rays in
+	 * @param viewer The entity the rays are being tested for, if any. Used for context-dependent collision shapes
+	 * @return A raycaster, which must be closed when done
+	 */
+	public static VoxelRaycaster open(Level level, @Nullable Entity viewer) {
+		VoxelRaycaster raycaster = INSTANCES.get();
+
+		if (raycaster.inUse)
+			raycaster = new VoxelRaycaster();
+
+		raycaster.inUse = true;
+		raycaster.level = level;
+		raycaster.shapeGetter = level instanceof ServerLevel serverLevel && !serverLevel.getServer().isSameThread() ? EmptyBlockGetter.INSTANCE : level;
+		raycaster.collisionContext = viewer == null ? CollisionContext.empty() : CollisionContext.of(viewer);
+
+		return raycaster;
+	}
+
+	/**
+	 * Check whether the given entity has line of sight to the given target, from its eyes to the target's eyes
+	 * <p>
+	 * Matches the conditions of {@link LivingEntity#hasLineOfSight(Entity)}
+	 *
+	 * @param entity The entity looking
+	 * @param target The entity being looked at
+	 * @return Whether there is nothing blocking sight between the two
+	 */
+	public boolean hasLineOfSight(LivingEntity entity, Entity target) {
+		if (target.level() != this.level)
+			return false;
+
+		final Vec3 from = entity.getEyePosition();
+		final Vec3 to = new Vec3(target.getX(), target.getEyeY(), target.getZ());
+
+		if (from.distanceToSqr(to) > MAX_LINE_OF_SIGHT_DISTANCE * MAX_LINE_OF_SIGHT_DISTANCE)
+			return false;
+
+		return isClear(from, to);
+	}
+
+	/**
+	 * Check whether a ray between the two given positions passes through any block collision shapes
+	 *
+	 * @param from The start of the ray
+	 * @param to The end of the ray
+	 * @return Whether the ray reaches its end unobstructed
+	 */
+	public boolean isClear(Vec3 from, Vec3 to) {
+		final double xDist = to.x - from.x;
+		final double yDist = to.y - from.y;
+		final double zDist = to.z - from.z;
+		final int xStep = (int)Math.signum(xDist);
+		final int yStep = (int)Math.signum(yDist);
+		final int zStep = (int)Math.signum(zDist);
+		final int endX = Mth.floor(to.x);
+		final int endY = Mth.floor(to.y);
+		final int endZ = Mth.floor(to.z);
+		final double xDelta = xStep == 0 ? Double.MAX_VALUE : xStep / xDist;
+		final double yDelta = yStep == 0 ? Double.MAX_VALUE : yStep / yDist;
+		final double zDelta = zStep == 0 ? Double.MAX_VALUE : zStep / zDist;
+		int x = Mth.floor(from.x);
+		int y = Mth.floor(from.y);
+		int z = Mth.floor(from.z);
+		double xBoundary = xStep == 0 ? Double.MAX_VALUE : xDelta * (xStep > 0 ? x + 1 - from.x : from.x - x);
+		double yBoundary = yStep == 0 ? Double.MAX_VALUE : yDelta * (yStep > 0 ? y + 1 - from.y : from.y - y);
+		double zBoundary = zStep == 0 ? Double.MAX_VALUE : zDelta * (zStep > 0 ? z + 1 - from.z : from.z - z);
+
+		while (true) {
+			if (isBlocking(x, y, z, from, to))
+				return false;
+
+			if (x == endX && y == endY && z == endZ)
+				return true;
+
+			if (xBoundary < yBoundary && xBoundary < zBoundary) {
+				if (xBoundary > 1)
+					return true;
+
+				x += xStep;
+				xBoundary += xDelta;
+			}
+			else if (yBoundary < zBoundary) {
+				if (yBoundary > 1)
+					return true;
+
+				y += yStep;
+				yBoundary += yDelta;
+			}
+			else {
+				if (zBoundary > 1)
+					return true;
+
+				z += zStep;
+				zBoundary += zDelta;
+			}
+		}
+	}
+
+	private boolean isBlocking(int x, int y, int z, Vec3 from, Vec3 to) {
+		final long sectionKey = SectionPos.asLong(SectionPos.blockToSectionCoord(x), SectionPos.blockToSectionCoord(y), SectionPos.blockToSectionCoord(z));
+
+		if (sectionKey != this.sectionKey) {
+			this.sectionKey = sectionKey;
+			this.section = BlockRetrievalUtil.getSectionIfLoaded(this.level, SectionPos.blockToSectionCoord(x), SectionPos.blockToSectionCoord(y), SectionPos.blockToSectionCoord(z));
+
+			if (this.section != null && this.section.hasOnlyAir())
+				this.section = null;
+		}
+
+		if (this.section == null)
+			return false;
+
+		final BlockState state = this.section.getBlockState(SectionPos.sectionRelative(x), SectionPos.sectionRelative(y), SectionPos.sectionRelative(z));
+
+		if (state.isAir())
+			return false;
+
+		final VoxelShape shape = state.getCollisionShape(this.shapeGetter, this.pos.set(x, y, z), this.collisionContext);
+
+		if (shape.isEmpty())
+			return false;
+
+		if (shape == Shapes.block())
+			return true;
+
+		return shape.clip(from, to, this.pos) != null;
+	}
+
+	/**
+	 * Return this raycaster to the pool
+	 */
+	@Override
+	public void close() {
+		this.sectionKey = Long.MIN_VALUE;
+		this.section = null;
+		this.level = null;
+		this.shapeGetter = EmptyBlockGetter.INSTANCE;
+		this.collisionContext = CollisionContext.empty();
+		this.inUse = false;
+	}
+}
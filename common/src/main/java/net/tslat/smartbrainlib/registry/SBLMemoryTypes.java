@@ -8,6 +8,7 @@ import net.minecraft.world.entity.item.ItemEntity;
 import net.minecraft.world.entity.projectile.Projectile;
 import net.minecraft.world.level.block.state.BlockState;
 import net.tslat.smartbrainlib.SBLConstants;
+import net.tslat.smartbrainlib.object.EntitySnapshot;
 
 import java.util.List;
 import java.util.Optional;
@@ -24,6 +25,7 @@ public final class SBLMemoryTypes {
 	public static final Supplier<MemoryModuleType<Boolean>> SPECIAL_ATTACK_COOLDOWN = register("special_attack_cooldown");
 	public static final Supplier<MemoryModuleType<List<Pair<BlockPos, BlockState>>>> NEARBY_BLOCKS = register("nearby_blocks");
 	public static final Supplier<MemoryModuleType<List<ItemEntity>>> NEARBY_ITEMS = register("nearby_items");
+	public static final Supplier<MemoryModuleType<EntitySnapshot>> ENTITY_SNAPSHOT = register("entity_snapshot");
 
 	private static <T> Supplier<MemoryModuleType<T>> register(String id) {
 		return register(id, Optional.empty());
@@ -42,6 +42,7 @@ public final class SBLSensors {
 	public static final Supplier<SensorType<UnreachableTargetSensor<?>>> UNREACHABLE_TARGET = register("unreachable_target", UnreachableTargetSensor::new);
 	public static final Supplier<SensorType<NearbyBlocksSensor<?>>> NEARBY_BLOCKS = register("nearby_blocks", NearbyBlocksSensor::new);
 	public static final Supplier<SensorType<NearbyItemsSensor<?>>> NEARBY_ITEMS = register("nearby_items", NearbyItemsSensor::new);
+	public static final Supplier<SensorType<EntitySnapshotSensor<?>>> ENTITY_SNAPSHOT = register("entity_snapshot", EntitySnapshotSensor::new);
 
 	private static <T extends ExtendedSensor<?>> Supplier<SensorType<T>> register(String id, Supplier<T> sensor) {
 		return SBLConstants.SBL_LOADER.registerSensorType(id, sensor);
@@ -0,0 +1,234 @@
+package net.tslat.smartbrainlib.util;
+
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.ImposterProtoChunk;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.chunk.LightChunk;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+
+/**
+ * A helper class for searching regions of a level for specific blocks.
+ * <p>
+ * Searches check each chunk section's block palette before looking at any of its blocks, and skip any section whose palette can't contain a matching state.
+ * Most sections contain none of the blocks being looked for, so this avoids the large majority of block lookups for sparse searches.
+ * <p>
+ * Sections are read without locking them, and chunks that aren't fully loaded are skipped rather than loaded,
+ * so all searches here are safe to use off the server thread, such as from {@link net.tslat.smartbrainlib.api.core.sensor.ExtendedSensor#isParallelSafe() parallel-safe} sensors.
+ */
+public final class BlockRetrievalUtil {
+	/**
+	 * Pass every block in the given region to the consumer, in the same order as {@link BlockPos#betweenClosed(BlockPos, BlockPos)},
+	 * skipping any blocks in chunk sections that contain no state matching the section filter.
+	 * <p>
+	 * Blocks in chunks that aren't fully loaded, or outside the level's build height, are skipped entirely rather than passed as {@link net.minecraft.world.level.block.Blocks#VOID_AIR void air}.
+	 * <p>
+	 * The section filter is checked against the section's palette, which may contain states that are no longer present in the section, so the consumer should still check each state it is given
+	 *
+	 * @param level         The level to search in
+	 * @param from          One corner of the region to search
+	 * @param to            The opposite corner of the region to search
+	 * @param sectionFilter The predicate at least one state in a section must match for that section to be searched
+	 * @param consumer      The consumer to pass each block to. The position given is mutable, and must be copied if stored
+	 */
+	public static void forEachBlock(Level level, BlockPos from, BlockPos to, Predicate<BlockState> sectionFilter, BiConsumer<BlockPos, BlockState> consumer) {
+		final int minX = Math.min(from.getX(), to.getX());
+		final int minY = Math.min(from.getY(), to.getY());
+		final int minZ = Math.min(from.getZ(), to.getZ());
+		final int maxX = Math.max(from.getX(), to.getX());
+		final int maxY = Math.max(from.getY(), to.getY());
+		final int maxZ = Math.max(from.getZ(), to.getZ());
+		final BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+
+		for (int z = minZ; z <= maxZ; z++) {
+			for (int y = minY; y <= maxY; y++) {
+				for (int x = minX; x <= maxX; x++) {
+					final LevelChunkSection section = getSectionIfLoaded(level, SectionPos.blockToSectionCoord(x), SectionPos.blockToSectionCoord(y), SectionPos.blockToSectionCoord(z));
+
+					if (section == null || !section.maybeHas(sectionFilter)) {
+						// Skip the rest of this row that falls within the same section
+						x = Math.min(maxX, SectionPos.sectionToBlockCoord(SectionPos.blockToSectionCoord(x), 15));
+
+						continue;
+					}
+
+					final int sectionEndX = Math.min(maxX, SectionPos.sectionToBlockCoord(SectionPos.blockToSectionCoord(x), 15));
+					final int localY = SectionPos.sectionRelative(y);
+					final int localZ = SectionPos.sectionRelative(z);
+
+					for (; x <= sectionEndX; x++) {
+						consumer.accept(pos.set(x, y, z), section.getBlockState(SectionPos.sectionRelative(x), localY, localZ));
+					}
+
+					x--;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Find the closest block to the given position by Manhattan distance, within the given radius, that meets the given predicate.
+	 * <p>
+	 * Functionally replaces {@link BlockPos#findClosestMatch} for block state searches.
+	 * Chunk sections are searched nearest-first, skipping any that contain no state matching the section filter,
+	 * and the search stops as soon as no remaining section could hold a closer match.
+	 * Where more than one block is the same distance away, the first found is used.
+	 * Blocks in chunks that aren't fully loaded, or outside the level's build height, are never matched
+	 *
+	 * @param level         The level to search in
+	 * @param center        The position to search around
+	 * @param xzRadius      The X/Z radius to search in, in blocks
+	 * @param yRadius       The Y radius to search in, in blocks
+	 * @param sectionFilter The predicate at least one state in a section must match for that section to be searched
+	 * @param predicate     The predicate determining a valid match
+	 * @return The closest matching position, or an empty {@link Optional} if none found
+	 */
+	public static Optional<BlockPos> findClosestMatch(Level level, BlockPos center, int xzRadius, int yRadius, Predicate<BlockState> sectionFilter, Predicate<BlockState> predicate) {
+		final int minX = center.getX() - xzRadius;
+		final int minY = center.getY() - yRadius;
+		final int minZ = center.getZ() - xzRadius;
+		final int maxX = center.getX() + xzRadius;
+		final int maxY = center.getY() + yRadius;
+		final int maxZ = center.getZ() + xzRadius;
+		final int minSectionX = SectionPos.blockToSectionCoord(minX);
+		final int minSectionY = SectionPos.blockToSectionCoord(minY);
+		final int minSectionZ = SectionPos.blockToSectionCoord(minZ);
+		final int xSections = SectionPos.blockToSectionCoord(maxX) - minSectionX + 1;
+		final int ySections = SectionPos.blockToSectionCoord(maxY) - minSectionY + 1;
+		final int zSections = SectionPos.blockToSectionCoord(maxZ) - minSectionZ + 1;
+		final int sectionCount = xSections * ySections * zSections;
+		final int[] sectionDistances = new int[sectionCount];
+		final int[] sectionOrder = new int[sectionCount];
+
+		for (int i = 0; i < sectionCount; i++) {
+			final int sectionX = minSectionX + i % xSections;
+			final int sectionY = minSectionY + (i / xSections) % ySections;
+			final int sectionZ = minSectionZ + i / (xSections * ySections);
+
+			sectionOrder[i] = i;
+			sectionDistances[i] = distanceToRange(center.getX(), SectionPos.sectionToBlockCoord(sectionX), SectionPos.sectionToBlockCoord(sectionX, 15)) +
+					distanceToRange(center.getY(), SectionPos.sectionToBlockCoord(sectionY), SectionPos.sectionToBlockCoord(sectionY, 15)) +
+					distanceToRange(center.getZ(), SectionPos.sectionToBlockCoord(sectionZ), SectionPos.sectionToBlockCoord(sectionZ, 15));
+		}
+
+		IntArrays.mergeSort(sectionOrder, (index, index2) -> Integer.compare(sectionDistances[index], sectionDistances[index2]));
+
+		BlockPos closest = null;
+		int closestDistance = Integer.MAX_VALUE;
+
+		for (int index : sectionOrder) {
+			if (sectionDistances[index] >= closestDistance)
+				break;
+
+			final int sectionX = minSectionX + index % xSections;
+			final int sectionY = minSectionY + (index / xSections) % ySections;
+			final int sectionZ = minSectionZ + index / (xSections * ySections);
+			final LevelChunkSection section = getSectionIfLoaded(level, sectionX, sectionY, sectionZ);
+
+			if (section == null || !section.maybeHas(sectionFilter))
+				continue;
+
+			final int sectionMaxX = Math.min(maxX, SectionPos.sectionToBlockCoord(sectionX, 15));
+			final int sectionMaxY = Math.min(maxY, SectionPos.sectionToBlockCoord(sectionY, 15));
+			final int sectionMaxZ = Math.min(maxZ, SectionPos.sectionToBlockCoord(sectionZ, 15));
+
+			for (int z = Math.max(minZ, SectionPos.sectionToBlockCoord(sectionZ)); z <= sectionMaxZ; z++) {
+				for (int y = Math.max(minY, SectionPos.sectionToBlockCoord(sectionY)); y <= sectionMaxY; y++) {
+					for (int x = Math.max(minX, SectionPos.sectionToBlockCoord(sectionX)); x <= sectionMaxX; x++) {
+						final int distance = Math.abs(x - center.getX()) + Math.abs(y - center.getY()) + Math.abs(z - center.getZ());
+
+						if (distance < closestDistance && predicate.test(section.getBlockState(SectionPos.sectionRelative(x), SectionPos.sectionRelative(y), SectionPos.sectionRelative(z)))) {
+							closestDistance = distance;
+							closest = new BlockPos(x, y, z);
+						}
+					}
+				}
+			}
+		}
+
+		return Optional.ofNullable(closest);
+	}
+
+	/**
+	 * Get the given chunk if it is fully loaded, without loading it or blocking on the server thread.<br>
+	 * Safe to call off the server thread, such as from {@link net.tslat.smartbrainlib.api.core.sensor.ExtendedSensor#isParallelSafe() parallel-safe} sensors
+	 *
+	 * @param level  The level the chunk is in
+	 * @param chunkX The chunk's X coordinate
+	 * @param chunkZ The chunk's Z coordinate
+	 * @return The chunk, or null if it isn't fully loaded
+	 */
+	@Nullable
+	public static LevelChunk getChunkIfLoaded(Level level, int chunkX, int chunkZ) {
+		final LevelChunk chunk = level.getChunkSource().getChunkNow(chunkX, chunkZ);
+
+		if (chunk != null)
+			return chunk;
+
+		// getChunkNow always returns null off the server thread, but the lighting lookup doesn't touch the server thread's chunk cache
+		final LightChunk lightChunk = level.getChunkSource().getChunkForLighting(chunkX, chunkZ);
+
+		if (lightChunk instanceof LevelChunk levelChunk)
+			return levelChunk;
+
+		if (lightChunk instanceof ImposterProtoChunk imposterChunk)
+			return imposterChunk.getWrapped();
+
+		return null;
+	}
+
+	/**
+	 * Get the given chunk section if its chunk is fully loaded, without loading it or blocking on the server thread.<br>
+	 * Safe to call off the server thread, such as from {@link net.tslat.smartbrainlib.api.core.sensor.ExtendedSensor#isParallelSafe() parallel-safe} sensors.
+	 * <p>
+	 * Read blocks from the returned section with {@link LevelChunkSection#getBlockState(int, int, int)}, which doesn't lock the section,
+	 * rather than through a {@link net.minecraft.world.level.chunk.BulkSectionAccess BulkSectionAccess}, which does and throws if two threads read the same section at once
+	 *
+	 * @param level    The level the section is in
+	 * @param sectionX The section's X coordinate
+	 * @param sectionY The section's Y coordinate
+	 * @param sectionZ The section's Z coordinate
+	 * @return The section, or null if it is outside the level's build height or its chunk isn't fully loaded
+	 */
+	@Nullable
+	public static LevelChunkSection getSectionIfLoaded(Level level, int sectionX, int sectionY, int sectionZ) {
+		final int sectionIndex = level.getSectionIndexFromSectionY(sectionY);
+
+		if (sectionIndex < 0 || sectionIndex >= level.getSectionsCount())
+			return null;
+
+		final LevelChunk chunk = getChunkIfLoaded(level, sectionX, sectionZ);
+
+		return chunk == null ? null : chunk.getSection(sectionIndex);
+	}
+
+	/**
+	 * Get the block state at the given position if its chunk is fully loaded, without loading it or blocking on the server thread.<br>
+	 * Safe to call off the server thread, such as from {@link net.tslat.smartbrainlib.api.core.sensor.ExtendedSensor#isParallelSafe() parallel-safe} sensors
+	 *
+	 * @param level The level to check
+	 * @param pos   The position to check
+	 * @return The block state, or null if the position is outside the level's build height or its chunk isn't fully loaded
+	 */
+	@Nullable
+	public static BlockState getBlockStateIfLoaded(Level level, BlockPos pos) {
+		final LevelChunkSection section = getSectionIfLoaded(level, SectionPos.blockToSectionCoord(pos.getX()), SectionPos.blockToSectionCoord(pos.getY()), SectionPos.blockToSectionCoord(pos.getZ()));
+
+		return section == null ? null : section.getBlockState(SectionPos.sectionRelative(pos.getX()), SectionPos.sectionRelative(pos.getY()), SectionPos.sectionRelative(pos.getZ()));
+	}
+
+	/**
+	 * @return The distance from the given coordinate to the nearest coordinate within the given range
+	 */
+	private static int distanceToRange(int coordinate, int min, int max) {
+		return coordinate < min ? min - coordinate : coordinate > max ? coordinate - max : 0;
+	}
+}
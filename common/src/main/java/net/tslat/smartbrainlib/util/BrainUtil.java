@@ -59,6 +59,12 @@ public final class BrainUtil {
 	 * @param <T> The type of object the memory uses
 	 */
 	public static <T> T memoryOrDefault(Brain<?> brain, MemoryModuleType<T> memory, Supplier<T> fallback) {
+		if (brain instanceof SmartBrain<?> smartBrain) {
+			T value = smartBrain.getMemoryValue(memory);
+
+			return value != null ? value : fallback.get();
+		}
+
 		return brain.getMemory(memory).orElseGet(fallback);
 	}
 
@@ -115,7 +121,10 @@ public final class BrainUtil {
 	 */
 	@Nullable
 	public static <T> T getMemory(Brain<?> brain, MemoryModuleType<T> memory) {
-		return memoryOrDefault(brain, memory, () -> null);
+		if (brain instanceof SmartBrain<?> smartBrain)
+			return smartBrain.getMemoryValue(memory);
+
+		return brain.getMemory(memory).orElse(null);
 	}
 
 	/**
@@ -139,6 +148,15 @@ public final class BrainUtil {
 	 * @param <T> The type of object the memory uses
 	 */
 	public static <T> void withMemory(Brain<?> brain, MemoryModuleType<T> memory, Consumer<T> consumer) {
+		if (brain instanceof SmartBrain<?> smartBrain) {
+			T value = smartBrain.getMemoryValue(memory);
+
+			if (value != null)
+				consumer.accept(value);
+
+			return;
+		}
+
 		brain.getMemory(memory).ifPresent(consumer);
 	}
 
@@ -206,6 +224,12 @@ public final class BrainUtil {
 	 * @param <T> The type of object the memory uses
 	 */
 	public static <T> void setMemory(Brain<?> brain, MemoryModuleType<T> memoryType, T memory) {
+		if (brain instanceof SmartBrain<?> smartBrain) {
+			smartBrain.setMemoryValue(memoryType, memory, Long.MAX_VALUE);
+
+			return;
+		}
+
 		brain.setMemory(memoryType, memory);
 	}
 
@@ -232,6 +256,12 @@ public final class BrainUtil {
 	 * @param <T> The type of object the memory uses
 	 */
 	public static <T> void setForgettableMemory(Brain<?> brain, MemoryModuleType<T> memoryType, T memory, int expirationTicks) {
+		if (brain instanceof SmartBrain<?> smartBrain) {
+			smartBrain.setMemoryValue(memoryType, memory, expirationTicks);
+
+			return;
+		}
+
 		brain.setMemoryWithExpiry(memoryType, memory, expirationTicks);
 	}
 
@@ -252,6 +282,12 @@ public final class BrainUtil {
 	 * @param memory Memory type to erase the value for
 	 */
 	public static void clearMemory(Brain<?> brain, MemoryModuleType<?> memory) {
+		if (brain instanceof SmartBrain<?> smartBrain) {
+			smartBrain.setMemoryValue(memory, null, Long.MAX_VALUE);
+
+			return;
+		}
+
 		brain.eraseMemory(memory);
 	}
 
@@ -273,7 +309,7 @@ public final class BrainUtil {
 	 */
 	public static void clearMemories(Brain<?> brain, MemoryModuleType<?>... memories) {
 		for (MemoryModuleType<?> memory : memories) {
-			brain.eraseMemory(memory);
+			clearMemory(brain, memory);
 		}
 	}
 
@@ -297,7 +333,9 @@ public final class BrainUtil {
 	 */
 	@Nullable
 	public static LivingEntity getTargetOfEntity(LivingEntity entity, @Nullable LivingEntity fallback) {
-		return memoryOrDefault(entity.getBrain(), MemoryModuleType.ATTACK_TARGET, () -> fallback);
+		LivingEntity target = getMemory(entity.getBrain(), MemoryModuleType.ATTACK_TARGET);
+
+		return target != null ? target : fallback;
 	}
 
 	/**
@@ -309,7 +347,7 @@ public final class BrainUtil {
 	 */
 	@Nullable
 	public static LivingEntity getLastAttacker(LivingEntity entity) {
-		return memoryOrDefault(entity, MemoryModuleType.HURT_BY_ENTITY, () -> null);
+		return getMemory(entity, MemoryModuleType.HURT_BY_ENTITY);
 	}
 
 	/**
@@ -343,7 +381,7 @@ public final class BrainUtil {
 		if (BehaviorUtils.entityIsVisible(brain, target))
 			return true;
 
-		return entity instanceof Mob mob ? mob.getSensing().hasLineOfSight(target) : entity.hasLineOfSight(target);
+		return SensoryUtil.hasLineOfSight(entity, target);
 	}
 
 	/**
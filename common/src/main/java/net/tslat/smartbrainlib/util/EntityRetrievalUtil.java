@@ -1,6 +1,8 @@
 package net.tslat.smartbrainlib.util;
 
 import com.mojang.datafixers.util.Pair;
+import it.unimi.dsi.fastutil.Arrays;
+import it.unimi.dsi.fastutil.doubles.DoubleArrayList;
 import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 import net.minecraft.core.SectionPos;
 import net.minecraft.util.AbortableIterationConsumer;
@@ -13,15 +15,14 @@ import net.minecraft.world.level.entity.LevelEntityGetterAdapter;
 import net.minecraft.world.phys.AABB;
 import net.minecraft.world.phys.Vec3;
 import net.tslat.smartbrainlib.SBLConstants;
-import org.apache.commons.lang3.mutable.MutableDouble;
-import org.apache.commons.lang3.mutable.MutableObject;
+import net.tslat.smartbrainlib.object.EntitySpatialIndex;
+import net.tslat.smartbrainlib.object.NearestEntityHeap;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.IntStream;
@@ -36,6 +37,25 @@ import java.util.stream.Stream;
  */
 @SuppressWarnings({"unchecked", "unused"})
 public final class EntityRetrievalUtil {
+	private static final EntityTypeTest<Entity, Entity> ROOT_TYPE_TEST = new EntityTypeTest<>() {
+		@Nullable
+		@Override
+		public Entity tryCast(Entity entity) {
+			return entity;
+		}
+
+		@Override
+		public Class<? extends Entity> getBaseClass() {
+			return Entity.class;
+		}
+	};
+	private static final ClassValue<EntityTypeTest<Entity, ?>> TYPE_TESTS = new ClassValue<>() {
+		@Override
+		protected EntityTypeTest<Entity, ?> computeValue(Class<?> type) {
+			return type == Entity.class ? ROOT_TYPE_TEST : EntityTypeTest.forClass((Class<? extends Entity>)type);
+		}
+	};
+
 	/**
 	 * Get the nearest entity from an existing list of entities.
 	 *
@@ -75,7 +95,7 @@ public final class EntityRetrievalUtil {
 	 * NOTE: The origin entity will be automatically excluded from the search and will not be passed to the predicate
 	 */
 	public static <T extends Entity> Optional<T> getNearestEntity(Entity origin, double radiusX, double radiusY, double radiusZ) {
-		return getNearestEntity(origin.level(), origin.getBoundingBox().inflate(radiusX, radiusY, radiusZ), origin.position(), entity -> entity != origin);
+		return (Optional<T>)getNearestEntity(origin.level(), origin.getBoundingBox().inflate(radiusX, radiusY, radiusZ), origin.position(), Entity.class, origin, entity -> true);
 	}
 
 	public static <T extends Entity> Optional<T> getNearestEntity(Level level, Vec3 origin, double radius) {
@@ -101,7 +121,7 @@ public final class EntityRetrievalUtil {
 	 * NOTE: The origin entity will be automatically excluded from the search and will not be passed to the predicate
 	 */
 	public static <T extends Entity> Optional<T> getNearestEntity(Entity origin, double radiusX, double radiusY, double radiusZ, Class<T> minimumClass) {
-		return getNearestEntity(origin.level(), origin.getBoundingBox().inflate(radiusX, radiusY, radiusZ), origin.position(), minimumClass, entity -> entity != origin);
+		return getNearestEntity(origin.level(), origin.getBoundingBox().inflate(radiusX, radiusY, radiusZ), origin.position(), minimumClass, origin, entity -> true);
 	}
 
 	public static <T extends Entity> Optional<T> getNearestEntity(Level level, Vec3 origin, double radius, Class<T> minimumClass) {
@@ -127,7 +147,7 @@ public final class EntityRetrievalUtil {
 	 * NOTE: The origin entity will be automatically excluded from the search and will not be passed to the predicate
 	 */
 	public static <T extends Entity> Optional<T> getNearestEntity(Entity origin, double radiusX, double radiusY, double radiusZ, Predicate<? extends Entity> predicate) {
-		return getNearestEntity(origin.level(), origin.getBoundingBox().inflate(radiusX, radiusY, radiusZ), origin.position(), ((Predicate<Entity>)entity -> entity != origin).and((Predicate<Entity>)predicate));
+		return (Optional<T>)getNearestEntity(origin.level(), origin.getBoundingBox().inflate(radiusX, radiusY, radiusZ), origin.position(), Entity.class, origin, (Predicate<Entity>)predicate);
 	}
 
 	public static <T extends Entity> Optional<T> getNearestEntity(Level level, Vec3 origin, double radius, Predicate<Entity> predicate) {
@@ -153,7 +173,7 @@ public final class EntityRetrievalUtil {
 	 * NOTE: The origin entity will be automatically excluded from the search and will not be passed to the predicate
 	 */
 	public static <T extends Entity> Optional<T> getNearestEntity(Entity origin, double radiusX, double radiusY, double radiusZ, Class<T> minimumClass, Predicate<T> predicate) {
-		return getNearestEntity(origin.level(), origin.getBoundingBox().inflate(radiusX, radiusY, radiusZ), origin.position(), minimumClass, ((Predicate<T>)entity -> entity != origin).and(predicate));
+		return getNearestEntity(origin.level(), origin.getBoundingBox().inflate(radiusX, radiusY, radiusZ), origin.position(), minimumClass, origin, predicate);
 	}
 
 	public static <T extends Entity> Optional<T> getNearestEntity(Level level, Vec3 origin, double radius, Class<T> minimumClass, Predicate<T> predicate) {
@@ -179,24 +199,32 @@ public final class EntityRetrievalUtil {
 	 * @param <T>        The class in which all checked entities should be or extend. More specific typings are more efficient
 	 */
 	public static <T extends Entity> Optional<T> getNearestEntity(Level level, AABB bounds, Vec3 origin, Class<T> minimumClass, Predicate<T> predicate) {
-		final MutableDouble dist = new MutableDouble(Double.MAX_VALUE);
-		final MutableObject<T> closest = new MutableObject<>(null);
-		final EntityTypeTest<Entity, T> typeTest = makeLazyTypeTest(minimumClass);
-
-		level.getEntities().get(typeTest, bounds, entity -> {
-			if (predicate.test(entity)) {
-				double entityDist = entity.distanceToSqr(origin);
+		return getNearestEntity(level, bounds, origin, minimumClass, null, predicate);
+	}
 
-				if (entityDist < dist.doubleValue()) {
-					dist.setValue(entityDist);
-					closest.setValue(entity);
-				}
-			}
+	/**
+	 * Retrieve the entity found within the bounds that is closest to the origin point, skipping a given entity without needing to wrap the predicate
+	 *
+	 * @param level      The level to search in
+	 * @param bounds     The region to search for entities in
+	 * @param origin     The center-point of the search
+	 * @param minimumClass The minimum common class (E.G. LivingEntity) that all entities found must be
+	 * @param excluding  An entity to skip. It will not be passed to the predicate
+	 * @param predicate  The predicate to filter entities by
+	 * @return           The closest entity found that meets the given criteria, or null if none found
+	 * @param <T>        The class in which all checked entities should be or extend. More specific typings are more efficient
+	 */
+	public static <T extends Entity> Optional<T> getNearestEntity(Level level, AABB bounds, Vec3 origin, Class<T> minimumClass, @Nullable Entity excluding, Predicate<? super T> predicate) {
+		final EntityVisitor<T> visitor = EntityVisitor.acquire();
 
-			return AbortableIterationConsumer.Continuation.CONTINUE;
-		});
+		try {
+			level.getEntities().get(makeLazyTypeTest(minimumClass), bounds, visitor.findingNearest(excluding, predicate, origin));
 
-		return Optional.ofNullable(closest.getValue());
+			return Optional.ofNullable(visitor.nearest);
+		}
+		finally {
+			visitor.release();
+		}
 	}
 
 	/**
@@ -210,7 +238,7 @@ public final class EntityRetrievalUtil {
 	 * NOTE: The origin entity will be automatically excluded from the search and will not be passed to the predicate
 	 */
 	public static <T extends Player> Optional<T> getNearestPlayer(Entity origin, double radiusX, double radiusY, double radiusZ) {
-		return getNearestPlayer(origin.level(), origin.getBoundingBox().inflate(radiusX, radiusY, radiusZ), origin.position(), entity -> entity != origin);
+		return getNearestPlayer(origin.level(), origin.getBoundingBox().inflate(radiusX, radiusY, radiusZ), origin.position(), origin, player -> true);
 	}
 
 	public static <T extends Player> Optional<T> getNearestPlayer(Level level, Vec3 origin, double radius) {
@@ -236,7 +264,7 @@ public final class EntityRetrievalUtil {
 	 * NOTE: The origin entity will be automatically excluded from the search and will not be passed to the predicate
 	 */
 	public static <T extends Player> Optional<T> getNearestPlayer(Entity origin, double radiusX, double radiusY, double radiusZ, Predicate<Player> predicate) {
-		return getNearestPlayer(origin.level(), origin.getBoundingBox().inflate(radiusX, radiusY, radiusZ), origin.position(), ((Predicate<Player>)entity -> entity != origin).and(predicate));
+		return getNearestPlayer(origin.level(), origin.getBoundingBox().inflate(radiusX, radiusY, radiusZ), origin.position(), origin, predicate);
 	}
 
 	public static <T extends Player> Optional<T> getNearestPlayer(Level level, Vec3 origin, double radius, Predicate<Player> predicate) {
@@ -261,11 +289,25 @@ public final class EntityRetrievalUtil {
 	 * @return           The closest valid player to the origin point
 	 */
 	public static <T extends Player> Optional<T> getNearestPlayer(Level level, AABB bounds, Vec3 origin, Predicate<Player> predicate) {
+		return getNearestPlayer(level, bounds, origin, null, predicate);
+	}
+
+	/**
+	 * Get the closest player within a given region that meet a given criteria, skipping a given entity without needing to wrap the predicate
+	 *
+	 * @param level      The level in which to search
+	 * @param bounds     The region in which to find players
+	 * @param origin     The center-point of the search
+	 * @param excluding  An entity to skip. It will not be passed to the predicate
+	 * @param predicate  The criteria to meet for a player to be valid
+	 * @return           The closest valid player to the origin point
+	 */
+	public static <T extends Player> Optional<T> getNearestPlayer(Level level, AABB bounds, Vec3 origin, @Nullable Entity excluding, Predicate<? super Player> predicate) {
 		double dist = Double.MAX_VALUE;
 		Player closest = null;
 
 		for (Player player : level.players()) {
-			if (bounds.contains(player.position()) && predicate.test(player)) {
+			if (player != excluding && bounds.contains(player.position()) && predicate.test(player)) {
 				double playerDist = player.distanceToSqr(origin);
 
 				if (playerDist < dist) {
@@ -289,7 +331,7 @@ public final class EntityRetrievalUtil {
 	 * NOTE: The origin entity will be automatically excluded from the search and will not be passed to the predicate
 	 */
 	public static <T extends Player> List<T> getPlayers(Entity origin, double radiusX, double radiusY, double radiusZ) {
-		return getPlayers(origin.level(), origin.getBoundingBox().inflate(radiusX, radiusY, radiusZ), entity -> entity != origin);
+		return getPlayers(origin.level(), origin.getBoundingBox().inflate(radiusX, radiusY, radiusZ), origin, player -> true, new ObjectArrayList<>());
 	}
 
 	public static <T extends Player> List<T> getPlayers(Level level, Vec3 origin, double radius) {
@@ -319,7 +361,7 @@ public final class EntityRetrievalUtil {
 	 * NOTE: The origin entity will be automatically excluded from the search and will not be passed to the predicate
 	 */
 	public static <T extends Player> List<T> getPlayers(Entity origin, double radiusX, double radiusY, double radiusZ, Predicate<Player> predicate) {
-		return getPlayers(origin.level(), origin.getBoundingBox().inflate(radiusX, radiusY, radiusZ), ((Predicate<Player>)entity -> entity != origin).and(predicate));
+		return getPlayers(origin.level(), origin.getBoundingBox().inflate(radiusX, radiusY, radiusZ), origin, predicate, new ObjectArrayList<>());
 	}
 
 	public static <T extends Player> List<T> getPlayers(Level level, Vec3 origin, double radius, Predicate<Player> predicate) {
@@ -348,14 +390,28 @@ public final class EntityRetrievalUtil {
 	 * @return           A list of all players that are within the given region that meet the criteria in the predicate
 	 */
 	public static <T extends Player> List<T> getPlayers(Level level, AABB bounds, Predicate<Player> predicate) {
-		List<T> players = new ObjectArrayList<>();
+		return getPlayers(level, bounds, null, predicate, new ObjectArrayList<>());
+	}
 
+	/**
+	 * Get all players within a given region that meet a given criteria, adding them to an existing collection.
+	 * <p>
+	 * Useful for avoiding allocating a new list for every search when the collection can be reused, or when it is the final stored value anyway.
+	 *
+	 * @param level      The level in which to search
+	 * @param bounds     The region in which to find players
+	 * @param excluding  An entity to skip. It will not be passed to the predicate
+	 * @param predicate  The criteria to meet for a player to be included in the output
+	 * @param output     The collection to add matching players to. It is not cleared first
+	 * @return           The output collection
+	 */
+	public static <T extends Player, C extends Collection<? super T>> C getPlayers(Level level, AABB bounds, @Nullable Entity excluding, Predicate<? super Player> predicate, C output) {
 		for (Player player : level.players()) {
-			if (bounds.contains(player.position()) && predicate.test(player))
-				players.add((T)player);
+			if (player != excluding && bounds.contains(player.position()) && predicate.test(player))
+				output.add((T)player);
 		}
 
-		return players;
+		return output;
 	}
 
 	/**
@@ -369,7 +425,7 @@ public final class EntityRetrievalUtil {
 	 * NOTE: The origin entity will be automatically excluded from the search and will not be passed to the predicate
 	 */
 	public static <T extends Entity> List<T> getEntities(Entity origin, double radiusX, double radiusY, double radiusZ) {
-		return getEntities(origin.level(), origin.getBoundingBox().inflate(radiusX, radiusY, radiusZ), entity -> entity != origin);
+		return (List<T>)getEntities(origin.level(), origin.getBoundingBox().inflate(radiusX, radiusY, radiusZ), Entity.class, origin, entity -> true, new ObjectArrayList<>());
 	}
 
 	public static <T extends Entity> List<T> getEntities(Level level, Vec3 origin, double radius) {
@@ -399,7 +455,7 @@ public final class EntityRetrievalUtil {
 	 * NOTE: The origin entity will be automatically excluded from the search and will not be passed to the predicate
 	 */
 	public static <T extends Entity> List<T> getEntities(Entity origin, double radiusX, double radiusY, double radiusZ, Class<T> minimumClass) {
-		return getEntities(origin.level(), origin.getBoundingBox().inflate(radiusX, radiusY, radiusZ), minimumClass, entity -> entity != origin);
+		return getEntities(origin.level(), origin.getBoundingBox().inflate(radiusX, radiusY, radiusZ), minimumClass, origin, entity -> true, new ObjectArrayList<>());
 	}
 
 	public static <T extends Entity> List<T> getEntities(Level level, Vec3 origin, double radius, Class<T> minimumClass) {
@@ -429,7 +485,7 @@ public final class EntityRetrievalUtil {
 	 * NOTE: The origin entity will be automatically excluded from the search and will not be passed to the predicate
 	 */
 	public static <T extends Entity> List<T> getEntities(Entity origin, double radiusX, double radiusY, double radiusZ, Predicate<? extends Entity> predicate) {
-		return getEntities(origin.level(), origin.getBoundingBox().inflate(radiusX, radiusY, radiusZ), ((Predicate<Entity>)entity -> entity != origin).and((Predicate<Entity>)predicate));
+		return (List<T>)getEntities(origin.level(), origin.getBoundingBox().inflate(radiusX, radiusY, radiusZ), Entity.class, origin, (Predicate<Entity>)predicate, new ObjectArrayList<>());
 	}
 
 	public static <T extends Entity> List<T> getEntities(Level level, Vec3 origin, double radius, Predicate<Entity> predicate) {
@@ -459,7 +515,7 @@ public final class EntityRetrievalUtil {
 	 * NOTE: The origin entity will be automatically excluded from the search and will not be passed to the predicate
 	 */
 	public static <T extends Entity> List<T> getEntities(Entity origin, double radiusX, double radiusY, double radiusZ, Class<T> minimumClass, Predicate<T> predicate) {
-		return getEntities(origin.level(), origin.getBoundingBox().inflate(radiusX, radiusY, radiusZ), minimumClass, ((Predicate<T>)entity -> entity != origin).and(predicate));
+		return getEntities(origin.level(), origin.getBoundingBox().inflate(radiusX, radiusY, radiusZ), minimumClass, origin, predicate, new ObjectArrayList<>());
 	}
 
 	public static <T extends Entity> List<T> getEntities(Level level, Vec3 origin, double radius, Class<T> minimumClass, Predicate<T> predicate) {
@@ -485,26 +541,27 @@ public final class EntityRetrievalUtil {
 	 * @param <T>           The class in which all checked entities should be or extend. More specific typings are more efficient
 	 */
 	public static <T extends Entity> List<T> getEntities(Level level, AABB bounds, Class<T> minimumClass, Predicate<T> predicate) {
-		final List<T> foundEntities = new ObjectArrayList<>();
-		final EntityTypeTest<Entity, T> typeTest = makeLazyTypeTest(minimumClass);
-
-		level.getEntities().get(typeTest, bounds, entity -> {
-			if (predicate.test(entity))
-				foundEntities.add(entity);
-
-			return AbortableIterationConsumer.Continuation.CONTINUE;
-		});
-
-		Pair<Collection<? extends Entity>, Function<Entity, ? extends Entity>> partEntities = SBLConstants.SBL_LOADER.getPartEntities(level);
-
-		for (Entity part : partEntities.getFirst()) {
-			T entity = typeTest.tryCast(partEntities.getSecond().apply(part));
+		return getEntities(level, bounds, minimumClass, null, predicate, new ObjectArrayList<>());
+	}
 
-			if (entity != null && part.getBoundingBox().intersects(bounds) && predicate.test(entity))
-				foundEntities.add(entity);
-		}
+	/**
+	 * Get all entities within a given region that meet a given criteria, adding them to an existing collection.
+	 * <p>
+	 * Useful for avoiding allocating a new list for every search when the collection can be reused, or when it is the final stored value anyway.
+	 *
+	 * @param level         The level to search in
+	 * @param bounds        The region to search for entities in
+	 * @param minimumClass  The minimum common class (E.G. LivingEntity) that all entities found must be
+	 * @param excluding     An entity to skip. It will not be passed to the predicate
+	 * @param predicate     The predicate determining a valid match
+	 * @param output        The collection to add matching entities to. It is not cleared first
+	 * @return              The output collection
+	 * @param <T>           The class in which all checked entities should be or extend. More specific typings are more efficient
+	 */
+	public static <T extends Entity, C extends Collection<? super T>> C getEntities(Level level, AABB bounds, Class<T> minimumClass, @Nullable Entity excluding, Predicate<? super T> predicate, C output) {
+		collectEntities(level, bounds, makeLazyTypeTest(minimumClass), excluding, Integer.MAX_VALUE, predicate, output);
 
-		return foundEntities;
+		return output;
 	}
 
 	/**
@@ -518,7 +575,7 @@ public final class EntityRetrievalUtil {
 	 * NOTE: The origin entity will be automatically excluded from the search and will not be passed to the predicate
 	 */
 	public static <T extends Player> Optional<T> findPlayer(Entity origin, double radiusX, double radiusY, double radiusZ, Predicate<Player> predicate) {
-		return findPlayer(origin.level(), origin.getBoundingBox().inflate(radiusX, radiusY, radiusZ), ((Predicate<Player>)entity -> entity != origin).and(predicate));
+		return findPlayer(origin.level(), origin.getBoundingBox().inflate(radiusX, radiusY, radiusZ), origin, predicate);
 	}
 
 	public static <T extends Player> Optional<T> findPlayer(Level level, Vec3 origin, double radius, Predicate<Player> predicate) {
@@ -544,8 +601,21 @@ public final class EntityRetrievalUtil {
 	 * @return           The first player that meets the predicate conditions, or an empty {@link Optional} if none found
 	 */
 	public static <T extends Player> Optional<T> findPlayer(Level level, AABB bounds, Predicate<Player> predicate) {
+		return findPlayer(level, bounds, null, predicate);
+	}
+
+	/**
+	 * Find a single player within a given region that meets a given criteria, skipping a given entity without needing to wrap the predicate
+	 *
+	 * @param level      The level to search in
+	 * @param bounds     The region to search for players in
+	 * @param excluding  An entity to skip. It will not be passed to the predicate
+	 * @param predicate  The predicate determining a valid match
+	 * @return           The first player that meets the predicate conditions, or an empty {@link Optional} if none found
+	 */
+	public static <T extends Player> Optional<T> findPlayer(Level level, AABB bounds, @Nullable Entity excluding, Predicate<? super Player> predicate) {
 		for (Player player : level.players()) {
-			if (bounds.contains(player.position()) && predicate.test(player))
+			if (player != excluding && bounds.contains(player.position()) && predicate.test(player))
 				return (Optional<T>)Optional.of(player);
 		}
 
@@ -563,7 +633,7 @@ public final class EntityRetrievalUtil {
 	 * NOTE: The origin entity will be automatically excluded from the search and will not be passed to the predicate
 	 */
 	public static <T extends Entity> Optional<T> findEntity(Entity origin, double radiusX, double radiusY, double radiusZ, Predicate<Entity> predicate) {
-		return findEntity(origin.level(), origin.getBoundingBox().inflate(radiusX, radiusY, radiusZ), ((Predicate<Entity>)entity -> entity != origin).and(predicate));
+		return (Optional<T>)findEntity(origin.level(), origin.getBoundingBox().inflate(radiusX, radiusY, radiusZ), Entity.class, origin, predicate);
 	}
 
 	public static <T extends Entity> Optional<T> findEntity(Level level, Vec3 origin, double radius, Predicate<Entity> predicate) {
@@ -593,7 +663,7 @@ public final class EntityRetrievalUtil {
 	 * NOTE: The origin entity will be automatically excluded from the search and will not be passed to the predicate
 	 */
 	public static <T extends Entity> Optional<T> findEntity(Entity origin, double radiusX, double radiusY, double radiusZ, Class<T> minimumClass, Predicate<T> predicate) {
-		return findEntity(origin.level(), origin.getBoundingBox().inflate(radiusX, radiusY, radiusZ), minimumClass, ((Predicate<T>)entity -> entity != origin).and(predicate));
+		return findEntity(origin.level(), origin.getBoundingBox().inflate(radiusX, radiusY, radiusZ), minimumClass, origin, predicate);
 	}
 
 	public static <T extends Entity> Optional<T> findEntity(Level level, Vec3 origin, double radius, Class<T> minimumClass, Predicate<T> predicate) {
@@ -624,34 +694,31 @@ public final class EntityRetrievalUtil {
 	 * @param <T>           The class in which all checked entities should be or extend. More specific typings are more efficient
 	 */
 	public static <T extends Entity> Optional<T> findEntity(Level level, AABB bounds, Class<T> minimumClass, Predicate<T> predicate) {
-		final AtomicReference<T> foundEntity = new AtomicReference<>(null);
-		final EntityTypeTest<Entity, T> typeTest = makeLazyTypeTest(minimumClass);
-
-		level.getEntities().get(typeTest, bounds, entity -> {
-			if (predicate.test(entity)) {
-				foundEntity.set(entity);
-
-				return AbortableIterationConsumer.Continuation.ABORT;
-			}
-
-			return AbortableIterationConsumer.Continuation.CONTINUE;
-		});
-
-		if (foundEntity.get() == null) {
-			Pair<Collection<? extends Entity>, Function<Entity, ? extends Entity>> partEntities = SBLConstants.SBL_LOADER.getPartEntities(level);
+		return findEntity(level, bounds, minimumClass, null, predicate);
+	}
 
-			for (Entity part : partEntities.getFirst()) {
-				T entity = typeTest.tryCast(partEntities.getSecond().apply(part));
+	/**
+	 * Find a single entity within a given region that meet a given criteria, skipping a given entity without needing to wrap the predicate
+	 *
+	 * @param level         The level to search in
+	 * @param bounds        The region to search for entities in
+	 * @param minimumClass  The minimum common class (E.G. LivingEntity) that all entities found must be
+	 * @param excluding     An entity to skip. It will not be passed to the predicate
+	 * @param predicate     The predicate determining a valid match
+	 * @return              The first entity that is of at least the minimumClass type, meeting the predicate conditions, or an empty {@link Optional} if none found
+	 * @param <T>           The class in which all checked entities should be or extend. More specific typings are more efficient
+	 */
+	public static <T extends Entity> Optional<T> findEntity(Level level, AABB bounds, Class<T> minimumClass, @Nullable Entity excluding, Predicate<? super T> predicate) {
+		final EntityVisitor<T> visitor = EntityVisitor.acquire();
 
-				if (entity != null && part.getBoundingBox().intersects(bounds) && predicate.test(entity)) {
-					foundEntity.set(entity);
+		try {
+			visitEntities(level, bounds, makeLazyTypeTest(minimumClass), visitor.findingFirst(excluding, predicate));
 
-					break;
-				}
-			}
+			return Optional.ofNullable(visitor.nearest);
+		}
+		finally {
+			visitor.release();
 		}
-
-		return Optional.ofNullable(foundEntity.get());
 	}
 
 	/**
@@ -665,7 +732,7 @@ public final class EntityRetrievalUtil {
 	 * NOTE: The origin entity will be automatically excluded from the search and will not be passed to the predicate
 	 */
 	public static <T extends Entity> List<T> findEntities(Entity origin, double radiusX, double radiusY, double radiusZ, int max, Predicate<Entity> predicate) {
-		return (List<T>)findEntities(origin.level(), origin.getBoundingBox().inflate(radiusX, radiusY, radiusZ), Entity.class, max, ((Predicate<Entity>)entity -> entity != origin).and(predicate));
+		return (List<T>)findEntities(origin.level(), origin.getBoundingBox().inflate(radiusX, radiusY, radiusZ), Entity.class, origin, max, predicate, new ObjectArrayList<>(max));
 	}
 
 	public static <T extends Entity> List<T> findEntities(Level level, Vec3 origin, double radius, int max, Predicate<Entity> predicate) {
@@ -691,7 +758,7 @@ public final class EntityRetrievalUtil {
 	 * NOTE: The origin entity will be automatically excluded from the search and will not be passed to the predicate
 	 */
 	public static <T extends Entity> List<T> findEntities(Entity origin, double radiusX, double radiusY, double radiusZ, Class<T> minimumClass, int max, Predicate<? super T> predicate) {
-		return findEntities(origin.level(), origin.getBoundingBox().inflate(radiusX, radiusY, radiusZ), minimumClass, max, ((Predicate<T>)entity -> entity != origin).and(predicate));
+		return findEntities(origin.level(), origin.getBoundingBox().inflate(radiusX, radiusY, radiusZ), minimumClass, origin, max, predicate, new ObjectArrayList<>(max));
 	}
 
 	public static <T extends Entity> List<T> findEntities(Level level, Vec3 origin, double radius, Class<T> minimumClass, int max, Predicate<? super T> predicate) {
@@ -723,36 +790,381 @@ public final class EntityRetrievalUtil {
 	 * @param <T>           The class in which all checked entities should be or extend. More specific typings are more efficient
 	 */
 	public static <T extends Entity> List<T> findEntities(Level level, AABB bounds, Class<T> minimumClass, int max, Predicate<? super T> predicate) {
-		final List<T> foundEntities = new ObjectArrayList<>(max);
-		final EntityTypeTest<Entity, T> typeTest = makeLazyTypeTest(minimumClass);
+		return findEntities(level, bounds, minimumClass, null, max, predicate, new ObjectArrayList<>(max));
+	}
 
-		level.getEntities().get(typeTest, bounds, entity -> {
-			if (predicate.test(entity)) {
-				foundEntities.add(entity);
+	/**
+	 * Find up to a predefined number of entity instances in the given region that meet a given criteria, adding them to an existing collection.
+	 * <p>
+	 * Useful for avoiding allocating a new list for every search when the collection can be reused, or when it is the final stored value anyway.
+	 *
+	 * @param level         The level to search in
+	 * @param bounds        The region to search for entities in
+	 * @param minimumClass  The minimum common class (E.G. LivingEntity) that all entities found must be
+	 * @param excluding     An entity to skip. It will not be passed to the predicate
+	 * @param max           The maximum amount of entities to add to the output
+	 * @param predicate     The predicate determining a valid match
+	 * @param output        The collection to add matching entities to. It is not cleared first
+	 * @return              The output collection
+	 * @param <T>           The class in which all checked entities should be or extend. More specific typings are more efficient
+	 */
+	public static <T extends Entity, C extends Collection<? super T>> C findEntities(Level level, AABB bounds, Class<T> minimumClass, @Nullable Entity excluding, int max, Predicate<? super T> predicate, C output) {
+		collectEntities(level, bounds, makeLazyTypeTest(minimumClass), excluding, max, predicate, output);
 
-				if (foundEntities.size() >= max)
-					return AbortableIterationConsumer.Continuation.ABORT;
-			}
+		return output;
+	}
 
-			return AbortableIterationConsumer.Continuation.CONTINUE;
+	/**
+	 * NOTE: The origin entity will be automatically excluded from the search and will not be passed to the predicate
+	 */
+	public static <T extends Entity> List<T> findNearest(Entity origin, double radius, Class<T> minimumClass, int k, Predicate<? super T> predicate) {
+		return findNearest(origin, radius, radius, radius, minimumClass, k, predicate);
+	}
+
+	/**
+	 * NOTE: The origin entity will be automatically excluded from the search and will not be passed to the predicate
+	 */
+	public static <T extends Entity> List<T> findNearest(Entity origin, double radiusX, double radiusY, double radiusZ, Class<T> minimumClass, int k, Predicate<? super T> predicate) {
+		return findNearest(origin.level(), origin.getBoundingBox().inflate(radiusX, radiusY, radiusZ), origin.position(), minimumClass, origin, k, predicate, new ObjectArrayList<>(Math.min(k, 16)));
+	}
+
+	/**
+	 * Find the nearest entities to a given point, up to a predefined number, in the given region that meet a given criteria.
+	 * <p>
+	 * This is equivalent to retrieving every matching entity, sorting them by distance, and keeping the first {@code k},
+	 * but only ever holds {@code k} entities at a time, and skips the predicate for any entity that is already further away than the current {@code k} nearest
+	 *
+	 * @param level         The level to search in
+	 * @param bounds        The region to search for entities in
+	 * @param origin        The point to measure distances from
+	 * @param minimumClass  The minimum common class (E.G. LivingEntity) that all entities found must be
+	 * @param k             The maximum amount of entities to find
+	 * @param predicate     The predicate determining a valid match
+	 * @return              A list of the nearest matching entities (up to k amount), nearest first
+	 * @param <T>           The class in which all checked entities should be or extend. More specific typings are more efficient
+	 */
+	public static <T extends Entity> List<T> findNearest(Level level, AABB bounds, Vec3 origin, Class<T> minimumClass, int k, Predicate<? super T> predicate) {
+		return findNearest(level, bounds, origin, minimumClass, null, k, predicate, new ObjectArrayList<>(Math.min(k, 16)));
+	}
+
+	/**
+	 * Find the nearest entities to a given point, up to a predefined number, in the given region that meet a given criteria, adding them to an existing collection.
+	 *
+	 * @param level         The level to search in
+	 * @param bounds        The region to search for entities in
+	 * @param origin        The point to measure distances from
+	 * @param minimumClass  The minimum common class (E.G. LivingEntity) that all entities found must be
+	 * @param excluding     An entity to skip. It will not be passed to the predicate
+	 * @param k             The maximum amount of entities to add to the output
+	 * @param predicate     The predicate determining a valid match
+	 * @param output        The collection to add matching entities to, nearest first. It is not cleared first
+	 * @return              The output collection
+	 * @param <T>           The class in which all checked entities should be or extend. More specific typings are more efficient
+	 */
+	public static <T extends Entity, C extends Collection<? super T>> C findNearest(Level level, AABB bounds, Vec3 origin, Class<T> minimumClass, @Nullable Entity excluding, int k, Predicate<? super T> predicate, C output) {
+		if (k <= 0)
+			return output;
+
+		final NearestEntityHeap<T> heap = new NearestEntityHeap<>(k);
+		final EntityVisitor<T> visitor = EntityVisitor.acquire();
+
+		try {
+			visitEntities(level, bounds, makeLazyTypeTest(minimumClass), visitor.keepingNearest(excluding, predicate, origin, heap));
+		}
+		finally {
+			visitor.release();
+		}
+
+		return heap.drainSorted(output);
+	}
+
+	/**
+	 * NOTE: The origin entity will be automatically excluded from the search and will not be passed to the predicate
+	 */
+	public static <T extends Player> List<T> findNearestPlayers(Entity origin, double radiusX, double radiusY, double radiusZ, int k, Predicate<? super Player> predicate) {
+		return findNearestPlayers(origin.level(), origin.getBoundingBox().inflate(radiusX, radiusY, radiusZ), origin.position(), origin, k, predicate, new ObjectArrayList<>(Math.min(k, 16)));
+	}
+
+	/**
+	 * Find the nearest players to a given point, up to a predefined number, in the given region that meet a given criteria, adding them to an existing collection.
+	 * <p>
+	 * The player equivalent of {@link #findNearest(Level, AABB, Vec3, Class, Entity, int, Predicate, Collection)}
+	 *
+	 * @param level      The level in which to search
+	 * @param bounds     The region in which to find players
+	 * @param origin     The point to measure distances from
+	 * @param excluding  An entity to skip. It will not be passed to the predicate
+	 * @param k          The maximum amount of players to add to the output
+	 * @param predicate  The criteria to meet for a player to be included in the output
+	 * @param output     The collection to add matching players to, nearest first. It is not cleared first
+	 * @return           The output collection
+	 */
+	public static <T extends Player, C extends Collection<? super T>> C findNearestPlayers(Level level, AABB bounds, Vec3 origin, @Nullable Entity excluding, int k, Predicate<? super Player> predicate, C output) {
+		if (k <= 0)
+			return output;
+
+		final NearestEntityHeap<T> heap = new NearestEntityHeap<>(k);
+
+		for (Player player : level.players()) {
+			if (player == excluding || !bounds.contains(player.position()))
+				continue;
+
+			double distance = player.distanceToSqr(origin);
+
+			if (distance < heap.getFurthestDistance() && predicate.test(player))
+				heap.offer((T)player, distance);
+		}
+
+		return heap.drainSorted(output);
+	}
+
+	/**
+	 * NOTE: The origin entity will be automatically excluded from the search and will not be passed to the predicate
+	 */
+	public static <T extends Entity> List<T> getEntitiesByDistance(Entity origin, double radius, Class<T> minimumClass, Predicate<? super T> predicate) {
+		return getEntitiesByDistance(origin, radius, radius, radius, minimumClass, predicate);
+	}
+
+	/**
+	 * NOTE: The origin entity will be automatically excluded from the search and will not be passed to the predicate
+	 */
+	public static <T extends Entity> List<T> getEntitiesByDistance(Entity origin, double radiusX, double radiusY, double radiusZ, Class<T> minimumClass, Predicate<? super T> predicate) {
+		return getEntitiesByDistance(origin.level(), origin.getBoundingBox().inflate(radiusX, radiusY, radiusZ), origin.position(), minimumClass, origin, predicate);
+	}
+
+	/**
+	 * Get all entities in the given region that meet a given criteria, sorted by distance to a given point, nearest first.
+	 * <p>
+	 * Each entity's distance is computed once as it is found, rather than on every comparison of the sort
+	 *
+	 * @param level         The level to search in
+	 * @param bounds        The region to search for entities in
+	 * @param origin        The point to measure distances from
+	 * @param minimumClass  The minimum common class (E.G. LivingEntity) that all entities found must be
+	 * @param excluding     An entity to skip. It will not be passed to the predicate
+	 * @param predicate     The predicate determining a valid match
+	 * @return              A new, mutable list of all matching entities, nearest first
+	 * @param <T>           The class in which all checked entities should be or extend. More specific typings are more efficient
+	 */
+	public static <T extends Entity> List<T> getEntitiesByDistance(Level level, AABB bounds, Vec3 origin, Class<T> minimumClass, @Nullable Entity excluding, Predicate<? super T> predicate) {
+		final List<T> entities = new ObjectArrayList<>();
+		final DoubleArrayList distances = new DoubleArrayList();
+		final EntityVisitor<T> visitor = EntityVisitor.acquire();
+
+		try {
+			visitEntities(level, bounds, makeLazyTypeTest(minimumClass), visitor.collectingWithDistances(excluding, predicate, entities, origin, distances));
+		}
+		finally {
+			visitor.release();
+		}
+
+		sortByDistances(entities, distances.elements());
+
+		return entities;
+	}
+
+	/**
+	 * Sort a list of entities in place by their distance to a given point, nearest first.
+	 * <p>
+	 * Equivalent to {@code entities.sort(Comparator.comparingDouble(entity -> entity.distanceToSqr(origin)))},
+	 * but only computes each entity's distance once
+	 *
+	 * @param entities  The list to sort
+	 * @param origin    The point to measure distances from
+	 * @return          The sorted list
+	 */
+	public static <T extends Entity, L extends List<T>> L sortByDistance(L entities, Vec3 origin) {
+		final int size = entities.size();
+
+		if (size < 2)
+			return entities;
+
+		final double[] distances = new double[size];
+
+		for (int i = 0; i < size; i++) {
+			distances[i] = entities.get(i).distanceToSqr(origin);
+		}
+
+		sortByDistances(entities, distances);
+
+		return entities;
+	}
+
+	/**
+	 * Stable in-place sort of a list by a parallel array of distances, keeping both in step
+	 */
+	private static <T> void sortByDistances(List<T> entries, double[] distances) {
+		Arrays.mergeSort(0, entries.size(), (index, index2) -> Double.compare(distances[index], distances[index2]), (index, index2) -> {
+			double distance = distances[index];
+			distances[index] = distances[index2];
+			distances[index2] = distance;
+
+			T entry = entries.get(index);
+			entries.set(index, entries.get(index2));
+			entries.set(index2, entry);
 		});
+	}
+
+	private static <T extends Entity> void collectEntities(Level level, AABB bounds, EntityTypeTest<Entity, T> typeTest, @Nullable Entity excluding, int max, Predicate<? super T> predicate, Collection<? super T> output) {
+		if (max <= 0)
+			return;
 
-		if (foundEntities.size() < max) {
-			Pair<Collection<? extends Entity>, Function<Entity, ? extends Entity>> partEntities = SBLConstants.SBL_LOADER.getPartEntities(level);
+		final EntityVisitor<T> visitor = EntityVisitor.acquire();
 
-			for (Entity part : partEntities.getFirst()) {
-				T entity = typeTest.tryCast(partEntities.getSecond().apply(part));
+		try {
+			visitEntities(level, bounds, typeTest, visitor.collecting(excluding, predicate, output, max));
+		}
+		finally {
+			visitor.release();
+		}
+	}
 
-				if (entity != null && part.getBoundingBox().intersects(bounds) && predicate.test(entity)) {
-					foundEntities.add(entity);
+	/**
+	 * Pass all entities in the given bounds to the visitor, followed by any part entities, until the visitor aborts
+	 */
+	private static <T extends Entity> void visitEntities(Level level, AABB bounds, EntityTypeTest<Entity, T> typeTest, EntityVisitor<T> visitor) {
+		level.getEntities().get(typeTest, bounds, visitor);
 
-					if (foundEntities.size() >= max)
-						break;
-				}
-			}
+		if (!visitor.isDone())
+			visitPartEntities(level, bounds, typeTest, visitor);
+	}
+
+	private static <T extends Entity> void visitPartEntities(Level level, AABB bounds, EntityTypeTest<Entity, T> typeTest, EntityVisitor<T> visitor) {
+		Pair<Collection<? extends Entity>, Function<Entity, ? extends Entity>> partEntities = SBLConstants.SBL_LOADER.getPartEntities(level);
+
+		for (Entity part : partEntities.getFirst()) {
+			T entity = typeTest.tryCast(partEntities.getSecond().apply(part));
+
+			if (entity != null && part.getBoundingBox().intersects(bounds) && visitor.accept(entity) == AbortableIterationConsumer.Continuation.ABORT)
+				break;
+		}
+	}
+
+	/**
+	 * NOTE: The origin entity will be automatically excluded from the search and will not be passed to the predicate
+	 */
+	public static <T extends Entity> List<T> getEntitiesInSphere(Entity origin, double radius, Class<T> minimumClass, Predicate<? super T> predicate) {
+		return getEntitiesInSphere(origin.level(), origin.position(), radius, minimumClass, origin, predicate, new ObjectArrayList<>());
+	}
+
+	/**
+	 * Get all entities whose position is within a given sphere that meet a given criteria, adding them to an existing collection.
+	 * <p>
+	 * Uses the {@link EntitySpatialIndex} if it is enabled and the class is indexed.
+	 * Unlike the bounds-based searches, this tests the entity's position rather than its bounding box
+	 *
+	 * @param level         The level to search in
+	 * @param center        The center of the sphere
+	 * @param radius        The radius of the sphere
+	 * @param minimumClass  The minimum common class (E.G. LivingEntity) that all entities found must be
+	 * @param excluding     An entity to skip. It will not be passed to the predicate
+	 * @param predicate     The predicate determining a valid match
+	 * @param output        The collection to add matching entities to. It is not cleared first
+	 * @return              The output collection
+	 * @param <T>           The class in which all checked entities should be or extend. More specific typings are more efficient
+	 */
+	public static <T extends Entity, C extends Collection<? super T>> C getEntitiesInSphere(Level level, Vec3 center, double radius, Class<T> minimumClass, @Nullable Entity excluding, Predicate<? super T> predicate, C output) {
+		final EntityVisitor<T> visitor = EntityVisitor.acquire();
+
+		try {
+			visitEntitiesInShape(level, center, radius, radius, makeLazyTypeTest(minimumClass), visitor.collecting(excluding, predicate, output, Integer.MAX_VALUE).withinShape(center, radius, radius, true));
+		}
+		finally {
+			visitor.release();
 		}
 
-		return foundEntities;
+		return output;
+	}
+
+	/**
+	 * NOTE: The origin entity will be automatically excluded from the search and will not be passed to the predicate
+	 */
+	public static <T extends Entity> List<T> getEntitiesInCylinder(Entity origin, double radius, double halfHeight, Class<T> minimumClass, Predicate<? super T> predicate) {
+		return getEntitiesInCylinder(origin.level(), origin.position(), radius, halfHeight, minimumClass, origin, predicate, new ObjectArrayList<>());
+	}
+
+	/**
+	 * Get all entities whose position is within a given vertical cylinder that meet a given criteria, adding them to an existing collection.
+	 * <p>
+	 * Uses the {@link EntitySpatialIndex} if it is enabled and the class is indexed.
+	 * Unlike the bounds-based searches, this tests the entity's position rather than its bounding box
+	 *
+	 * @param level         The level to search in
+	 * @param center        The center of the cylinder
+	 * @param radius        The horizontal radius of the cylinder
+	 * @param halfHeight    The vertical distance above and below the center that the cylinder extends
+	 * @param minimumClass  The minimum common class (E.G. LivingEntity) that all entities found must be
+	 * @param excluding     An entity to skip. It will not be passed to the predicate
+	 * @param predicate     The predicate determining a valid match
+	 * @param output        The collection to add matching entities to. It is not cleared first
+	 * @return              The output collection
+	 * @param <T>           The class in which all checked entities should be or extend. More specific typings are more efficient
+	 */
+	public static <T extends Entity, C extends Collection<? super T>> C getEntitiesInCylinder(Level level, Vec3 center, double radius, double halfHeight, Class<T> minimumClass, @Nullable Entity excluding, Predicate<? super T> predicate, C output) {
+		final EntityVisitor<T> visitor = EntityVisitor.acquire();
+
+		try {
+			visitEntitiesInShape(level, center, radius, halfHeight, makeLazyTypeTest(minimumClass), visitor.collecting(excluding, predicate, output, Integer.MAX_VALUE).withinShape(center, radius, halfHeight, false));
+		}
+		finally {
+			visitor.release();
+		}
+
+		return output;
+	}
+
+	/**
+	 * NOTE: The origin entity will be automatically excluded from the search and will not be passed to the predicate
+	 */
+	public static <T extends Entity> Optional<T> getNearestEntityInSphere(Entity origin, double radius, Class<T> minimumClass, Predicate<? super T> predicate) {
+		return getNearestEntityInSphere(origin.level(), origin.position(), radius, minimumClass, origin, predicate);
+	}
+
+	/**
+	 * Retrieve the entity closest to the center of a given sphere, whose position is within that sphere.
+	 * <p>
+	 * Uses the {@link EntitySpatialIndex} if it is enabled and the class is indexed.
+	 *
+	 * @param level         The level to search in
+	 * @param center        The center of the sphere, and the point distances are measured from
+	 * @param radius        The radius of the sphere
+	 * @param minimumClass  The minimum common class (E.G. LivingEntity) that all entities found must be
+	 * @param excluding     An entity to skip. It will not be passed to the predicate
+	 * @param predicate     The predicate determining a valid match
+	 * @return              The closest entity found that meets the given criteria, or an empty {@link Optional} if none found
+	 * @param <T>           The class in which all checked entities should be or extend. More specific typings are more efficient
+	 */
+	public static <T extends Entity> Optional<T> getNearestEntityInSphere(Level level, Vec3 center, double radius, Class<T> minimumClass, @Nullable Entity excluding, Predicate<? super T> predicate) {
+		final EntityVisitor<T> visitor = EntityVisitor.acquire();
+
+		try {
+			visitEntitiesInShape(level, center, radius, radius, makeLazyTypeTest(minimumClass), visitor.findingNearest(excluding, predicate, center).withinShape(center, radius, radius, true));
+
+			return Optional.ofNullable(visitor.nearest);
+		}
+		finally {
+			visitor.release();
+		}
+	}
+
+	/**
+	 * Pass all entities in the bounds of the given shape to the visitor, using the spatial index if available, until the visitor aborts.<br>
+	 * The visitor is expected to do the actual shape test
+	 */
+	private static <T extends Entity> void visitEntitiesInShape(Level level, Vec3 center, double xzRadius, double yRadius, EntityTypeTest<Entity, T> typeTest, EntityVisitor<T> visitor) {
+		final AABB bounds = new AABB(center.x - xzRadius, center.y - yRadius, center.z - xzRadius, center.x + xzRadius, center.y + yRadius, center.z + xzRadius);
+		final EntitySpatialIndex index = EntitySpatialIndex.get(level, typeTest.getBaseClass());
+
+		if (index == null) {
+			visitEntities(level, bounds, typeTest, visitor);
+
+			return;
+		}
+
+		index.forEachCandidate(bounds, typeTest, visitor);
+
+		if (!visitor.isDone())
+			visitPartEntities(level, bounds, typeTest, visitor);
 	}
 
 	/**
@@ -872,20 +1284,175 @@ public final class EntityRetrievalUtil {
 	 */
 	@ApiStatus.Internal
 	private static <T extends Entity> EntityTypeTest<Entity, T> makeLazyTypeTest(Class<T> forClass) {
-		if (forClass != Entity.class)
-			return EntityTypeTest.forClass(forClass);
-
-		return (EntityTypeTest<Entity, T>)new EntityTypeTest<Entity, Entity>() {
-			@Nullable
-			@Override
-			public Entity tryCast(Entity entity) {
-				return entity;
+		return (EntityTypeTest<Entity, T>)TYPE_TESTS.get(forClass);
+	}
+
+	/**
+	 * Reusable entity iteration consumer, used to avoid allocating capturing lambdas and mutable holders for every search.<br>
+	 * One instance is kept per thread. Searches started from inside a predicate get a fresh instance instead
+	 */
+	private static final class EntityVisitor<T extends Entity> implements AbortableIterationConsumer<T> {
+		private static final ThreadLocal<EntityVisitor<?>> INSTANCES = ThreadLocal.withInitial(EntityVisitor::new);
+
+		private boolean inUse = false;
+		@Nullable
+		private Entity excluding = null;
+		private Predicate<? super T> predicate = entity -> true;
+		@Nullable
+		private Collection<? super T> output = null;
+		private int remaining = 0;
+		@Nullable
+		private Vec3 origin = null;
+		private double nearestDistance = Double.MAX_VALUE;
+		@Nullable
+		private T nearest = null;
+		@Nullable
+		private NearestEntityHeap<T> heap = null;
+		@Nullable
+		private DoubleArrayList distances = null;
+		@Nullable
+		private Vec3 shapeCenter = null;
+		private double shapeRadiusSqr = 0;
+		private double shapeHalfHeight = 0;
+		private boolean spherical = false;
+
+		private static <T extends Entity> EntityVisitor<T> acquire() {
+			EntityVisitor<T> visitor = (EntityVisitor<T>)INSTANCES.get();
+
+			if (visitor.inUse)
+				visitor = new EntityVisitor<>();
+
+			visitor.inUse = true;
+
+			return visitor;
+		}
+
+		private EntityVisitor<T> collecting(@Nullable Entity excluding, Predicate<? super T> predicate, Collection<? super T> output, int max) {
+			this.excluding = excluding;
+			this.predicate = predicate;
+			this.output = output;
+			this.remaining = max;
+
+			return this;
+		}
+
+		private EntityVisitor<T> findingFirst(@Nullable Entity excluding, Predicate<? super T> predicate) {
+			this.excluding = excluding;
+			this.predicate = predicate;
+			this.remaining = 1;
+
+			return this;
+		}
+
+		private EntityVisitor<T> findingNearest(@Nullable Entity excluding, Predicate<? super T> predicate, Vec3 origin) {
+			this.excluding = excluding;
+			this.predicate = predicate;
+			this.origin = origin;
+			this.remaining = Integer.MAX_VALUE;
+
+			return this;
+		}
+
+		private EntityVisitor<T> collectingWithDistances(@Nullable Entity excluding, Predicate<? super T> predicate, Collection<? super T> output, Vec3 origin, DoubleArrayList distances) {
+			collecting(excluding, predicate, output, Integer.MAX_VALUE);
+
+			this.origin = origin;
+			this.distances = distances;
+
+			return this;
+		}
+
+		private EntityVisitor<T> keepingNearest(@Nullable Entity excluding, Predicate<? super T> predicate, Vec3 origin, NearestEntityHeap<T> heap) {
+			this.excluding = excluding;
+			this.predicate = predicate;
+			this.origin = origin;
+			this.heap = heap;
+			this.remaining = Integer.MAX_VALUE;
+
+			return this;
+		}
+
+		private EntityVisitor<T> withinShape(Vec3 center, double radius, double halfHeight, boolean spherical) {
+			this.shapeCenter = center;
+			this.shapeRadiusSqr = radius * radius;
+			this.shapeHalfHeight = halfHeight;
+			this.spherical = spherical;
+
+			return this;
+		}
+
+		private boolean isInShape(Entity entity) {
+			final double xDist = entity.getX() - this.shapeCenter.x;
+			final double yDist = entity.getY() - this.shapeCenter.y;
+			final double zDist = entity.getZ() - this.shapeCenter.z;
+
+			if (this.spherical)
+				return xDist * xDist + yDist * yDist + zDist * zDist <= this.shapeRadiusSqr;
+
+			return Math.abs(yDist) <= this.shapeHalfHeight && xDist * xDist + zDist * zDist <= this.shapeRadiusSqr;
+		}
+
+		private boolean isDone() {
+			return this.remaining <= 0;
+		}
+
+		@Override
+		public Continuation accept(T entity) {
+			if (this.heap != null) {
+				if (entity == this.excluding)
+					return Continuation.CONTINUE;
+
+				double distance = entity.distanceToSqr(this.origin);
+
+				if (distance < this.heap.getFurthestDistance() && this.predicate.test(entity))
+					this.heap.offer(entity, distance);
+
+				return Continuation.CONTINUE;
+			}
+
+			if (entity == this.excluding || (this.shapeCenter != null && !isInShape(entity)) || !this.predicate.test(entity))
+				return Continuation.CONTINUE;
+
+			if (this.distances != null) {
+				this.output.add(entity);
+				this.distances.add(entity.distanceToSqr(this.origin));
+
+				return Continuation.CONTINUE;
 			}
 
-			@Override
-			public Class<? extends Entity> getBaseClass() {
-				return Entity.class;
+			if (this.origin != null) {
+				double distance = entity.distanceToSqr(this.origin);
+
+				if (distance < this.nearestDistance) {
+					this.nearestDistance = distance;
+					this.nearest = entity;
+				}
+
+				return Continuation.CONTINUE;
+			}
+
+			if (this.output != null) {
+				this.output.add(entity);
 			}
-		};
+			else {
+				this.nearest = entity;
+			}
+
+			return --this.remaining <= 0 ? Continuation.ABORT : Continuation.CONTINUE;
+		}
+
+		private void release() {
+			this.excluding = null;
+			this.predicate = entity -> true;
+			this.output = null;
+			this.remaining = 0;
+			this.origin = null;
+			this.nearestDistance = Double.MAX_VALUE;
+			this.nearest = null;
+			this.heap = null;
+			this.distances = null;
+			this.shapeCenter = null;
+			this.inUse = false;
+		}
 	}
 }
@@ -3,7 +3,12 @@ package net.tslat.smartbrainlib.util;
 import net.minecraft.world.entity.Entity;
 import net.minecraft.world.entity.LivingEntity;
 import net.minecraft.world.entity.Mob;
+import net.minecraft.world.entity.ai.sensing.Sensing;
 import net.tslat.smartbrainlib.object.ExtendedTargetingConditions;
+import net.tslat.smartbrainlib.object.LineOfSightCache;
+import net.tslat.smartbrainlib.object.VoxelRaycaster;
+
+import java.util.Collection;
 
 /**
  * Helper class for sensory-related utility methods.
@@ -48,12 +53,66 @@ public class SensoryUtil {
 
     /**
      * Check whether the given target is visible to the entity
+     * <p>Uses the mob's {@link Sensing} cache, and the shared {@link LineOfSightCache} if it is enabled.
+     * The check itself uses a {@link VoxelRaycaster} if {@link VoxelRaycaster#setEnabled enabled}, or the entity's own {@link LivingEntity#hasLineOfSight(Entity) hasLineOfSight} otherwise</p>
      * @return Whether the entity has line of sight to the target
      */
     public static boolean hasLineOfSight(LivingEntity entity, Entity target) {
-        if (entity instanceof Mob mob)
-            return mob.getSensing().hasLineOfSight(target);
+        if (!VoxelRaycaster.isEnabled()) {
+            if (entity instanceof Mob mob)
+                return LineOfSightCache.hasLineOfSight(entity, target, () -> mob.getSensing().hasLineOfSight(target));
+
+            return LineOfSightCache.hasLineOfSight(entity, target, () -> entity.hasLineOfSight(target));
+        }
+
+        try (VoxelRaycaster raycaster = VoxelRaycaster.open(entity.level(), entity)) {
+            return hasLineOfSight(raycaster, entity, target);
+        }
+    }
+
+    /**
+     * Check which of the given targets are visible to the entity, sharing one {@link VoxelRaycaster} between all of them if {@link VoxelRaycaster#setEnabled enabled}
+     * <p>Uses the mob's {@link Sensing} cache, and the shared {@link LineOfSightCache} if it is enabled</p>
+     * @param output The collection to add visible targets to. It is not cleared first
+     * @return The output collection
+     */
+    public static <T extends Entity, C extends Collection<? super T>> C getVisibleEntities(LivingEntity entity, Iterable<T> targets, C output) {
+        if (!VoxelRaycaster.isEnabled()) {
+            for (T target : targets) {
+                if (hasLineOfSight(entity, target))
+                    output.add(target);
+            }
+
+            return output;
+        }
+
+        try (VoxelRaycaster raycaster = VoxelRaycaster.open(entity.level(), entity)) {
+            for (T target : targets) {
+                if (hasLineOfSight(raycaster, entity, target))
+                    output.add(target);
+            }
+        }
+
+        return output;
+    }
+
+    private static boolean hasLineOfSight(VoxelRaycaster raycaster, LivingEntity entity, Entity target) {
+        if (!(entity instanceof Mob mob))
+            return LineOfSightCache.hasLineOfSight(entity, target, () -> raycaster.hasLineOfSight(entity, target));
+
+        final Sensing sensing = mob.getSensing();
+        final int targetId = target.getId();
+
+        if (sensing.seen.contains(targetId))
+            return true;
+
+        if (sensing.unseen.contains(targetId))
+            return false;
+
+        final boolean visible = LineOfSightCache.hasLineOfSight(entity, target, () -> raycaster.hasLineOfSight(entity, target));
+
+        (visible ? sensing.seen : sensing.unseen).add(targetId);
 
-        return entity.hasLineOfSight(target);
+        return visible;
     }
 }
@@ -0,0 +1,154 @@
+package net.tslat.smartbrainlib.object;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpiryTimerWheelTest {
+	@Test
+	void expiresOnScheduledTick() {
+		ExpiryTimerWheel<String> wheel = new ExpiryTimerWheel<>(8);
+		List<String> expired = new ArrayList<>();
+
+		wheel.schedule("a", 3);
+
+		wheel.advance(2, expired::add);
+		assertTrue(expired.isEmpty());
+		assertEquals(3, wheel.getExpiryTick("a"));
+
+		wheel.advance(1, expired::add);
+		assertEquals(List.of("a"), expired);
+		assertEquals(-1, wheel.getExpiryTick("a"));
+		assertTrue(wheel.isEmpty());
+	}
+
+	@Test
+	void keepsKeysForLaterRoundsInTheirSlot() {
+		ExpiryTimerWheel<String> wheel = new ExpiryTimerWheel<>(8);
+		List<String> expired = new ArrayList<>();
+
+		// Both keys share slot 4, one round apart
+		wheel.schedule("first", 4);
+		wheel.schedule("second", 12);
+
+		wheel.advance(4, expired::add);
+		assertEquals(List.of("first"), expired);
+		assertEquals(12, wheel.getExpiryTick("second"));
+
+		wheel.advance(7, expired::add);
+		assertEquals(List.of("first"), expired);
+
+		wheel.advance(1, expired::add);
+		assertEquals(List.of("first", "second"), expired);
+	}
+
+	@Test
+	void catchesUpOnMultiTickAdvance() {
+		ExpiryTimerWheel<String> wheel = new ExpiryTimerWheel<>(8);
+		List<String> expired = new ArrayList<>();
+
+		wheel.schedule("a", 2);
+		wheel.schedule("b", 5);
+		wheel.schedule("c", 7);
+
+		wheel.advance(5, expired::add);
+		assertEquals(2, expired.size());
+		assertTrue(expired.containsAll(List.of("a", "b")));
+		assertEquals(5, wheel.getCurrentTick());
+		assertEquals(1, wheel.size());
+	}
+
+	@Test
+	void catchesUpAcrossMoreThanOneRound() {
+		ExpiryTimerWheel<String> wheel = new ExpiryTimerWheel<>(8);
+		List<String> expired = new ArrayList<>();
+
+		wheel.schedule("a", 3);
+		wheel.schedule("b", 19);
+		wheel.schedule("c", 30);
+
+		wheel.advance(20, expired::add);
+		assertEquals(2, expired.size());
+		assertTrue(expired.containsAll(List.of("a", "b")));
+		assertEquals(30, wheel.getExpiryTick("c"));
+
+		wheel.advance(10, expired::add);
+		assertEquals(3, expired.size());
+		assertTrue(wheel.isEmpty());
+	}
+
+	@Test
+	void reschedulingReplacesPreviousExpiry() {
+		ExpiryTimerWheel<String> wheel = new ExpiryTimerWheel<>(8);
+		List<String> expired = new ArrayList<>();
+
+		wheel.schedule("a", 2);
+		wheel.schedule("a", 6);
+		assertEquals(1, wheel.size());
+
+		wheel.advance(5, expired::add);
+		assertTrue(expired.isEmpty());
+
+		wheel.advance(1, expired::add);
+		assertEquals(List.of("a"), expired);
+	}
+
+	@Test
+	void cancelledKeysNeverExpire() {
+		ExpiryTimerWheel<String> wheel = new ExpiryTimerWheel<>(8);
+		List<String> expired = new ArrayList<>();
+
+		wheel.schedule("a", 2);
+		assertTrue(wheel.cancel("a"));
+		assertFalse(wheel.cancel("a"));
+
+		wheel.advance(10, expired::add);
+		assertTrue(expired.isEmpty());
+	}
+
+	@Test
+	void pastExpiriesExpireOnNextAdvance() {
+		ExpiryTimerWheel<String> wheel = new ExpiryTimerWheel<>(8);
+		List<String> expired = new ArrayList<>();
+
+		wheel.advance(10, expired::add);
+		wheel.schedule("a", 4);
+		assertEquals(11, wheel.getExpiryTick("a"));
+
+		wheel.advance(1, expired::add);
+		assertEquals(List.of("a"), expired);
+	}
+
+	@Test
+	void expiredKeysCanBeRescheduledFromTheConsumer() {
+		ExpiryTimerWheel<String> wheel = new ExpiryTimerWheel<>(8);
+		List<String> expired = new ArrayList<>();
+
+		wheel.schedule("a", 1);
+		wheel.advance(1, key -> {
+			expired.add(key);
+			wheel.schedule(key, wheel.getCurrentTick() + 2);
+		});
+		assertEquals(3, wheel.getExpiryTick("a"));
+
+		wheel.advance(2, expired::add);
+		assertEquals(List.of("a", "a"), expired);
+	}
+
+	@Test
+	void clearRemovesAllKeys() {
+		ExpiryTimerWheel<String> wheel = new ExpiryTimerWheel<>(8);
+		List<String> expired = new ArrayList<>();
+
+		wheel.schedule("a", 1);
+		wheel.schedule("b", 9);
+		wheel.clear();
+
+		wheel.advance(20, expired::add);
+		assertTrue(expired.isEmpty());
+		assertTrue(wheel.isEmpty());
+	}
+}
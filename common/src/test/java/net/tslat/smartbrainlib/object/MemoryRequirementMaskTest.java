@@ -0,0 +1,137 @@
+package net.tslat.smartbrainlib.object;
+
+import com.google.common.collect.ImmutableList;
+import com.mojang.datafixers.util.Pair;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.entity.ai.Brain;
+import net.minecraft.world.entity.ai.memory.MemoryModuleType;
+import net.minecraft.world.entity.ai.memory.MemoryStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MemoryRequirementMaskTest {
+	private static MemoryModuleType<String> memoryType() {
+		return new MemoryModuleType<>(Optional.empty());
+	}
+
+	private static Brain<LivingEntity> brain(List<MemoryModuleType<?>> memories) {
+		return new Brain<>(memories, ImmutableList.of(), ImmutableList.of(), () -> null);
+	}
+
+	@Test
+	void wordsCoverEverySlot() {
+		assertEquals(0, MemoryRequirementMask.wordsFor(MemorySlotIndex.of(List.of())));
+		assertEquals(1, MemoryRequirementMask.wordsFor(MemorySlotIndex.of(List.of(memoryType()))));
+
+		List<MemoryModuleType<?>> memories = new ArrayList<>();
+
+		for (int i = 0; i < 64; i++) {
+			memories.add(memoryType());
+		}
+
+		assertEquals(1, MemoryRequirementMask.wordsFor(MemorySlotIndex.of(memories)));
+
+		memories.add(memoryType());
+		assertEquals(2, MemoryRequirementMask.wordsFor(MemorySlotIndex.of(memories)));
+	}
+
+	@Test
+	void checksPresentAndAbsentMemories() {
+		MemoryModuleType<String> present = memoryType();
+		MemoryModuleType<String> absent = memoryType();
+		MemorySlotIndex slotIndex = MemorySlotIndex.of(List.of(present, absent));
+		MemoryRequirementMask mask = MemoryRequirementMask.compile(List.of(Pair.of(present, MemoryStatus.VALUE_PRESENT), Pair.of(absent, MemoryStatus.VALUE_ABSENT)), slotIndex);
+		Brain<LivingEntity> brain = brain(List.of(present, absent));
+
+		assertSame(slotIndex, mask.getSlotIndex());
+		assertTrue(mask.test(new long[] {0b01}, brain));
+		assertFalse(mask.test(new long[] {0b00}, brain));
+		assertFalse(mask.test(new long[] {0b10}, brain));
+		assertFalse(mask.test(new long[] {0b11}, brain));
+	}
+
+	@Test
+	void ignoresRegisteredRequirements() {
+		MemoryModuleType<String> registered = memoryType();
+		MemorySlotIndex slotIndex = MemorySlotIndex.of(List.of(registered));
+		MemoryRequirementMask mask = MemoryRequirementMask.compile(List.of(Pair.of(registered, MemoryStatus.REGISTERED)), slotIndex);
+		Brain<LivingEntity> brain = brain(List.of(registered));
+
+		assertTrue(mask.test(new long[] {0b0}, brain));
+		assertTrue(mask.test(new long[] {0b1}, brain));
+	}
+
+	@Test
+	void checksSlotsBeyondTheFirstWord() {
+		List<MemoryModuleType<?>> memories = new ArrayList<>();
+
+		for (int i = 0; i < 70; i++) {
+			memories.add(memoryType());
+		}
+
+		MemorySlotIndex slotIndex = MemorySlotIndex.of(memories);
+		MemoryRequirementMask mask = MemoryRequirementMask.compile(List.of(Pair.of(memories.get(65), MemoryStatus.VALUE_PRESENT), Pair.of(memories.get(3), MemoryStatus.VALUE_ABSENT)), slotIndex);
+		Brain<LivingEntity> brain = brain(memories);
+
+		assertTrue(mask.test(new long[] {0, 1L << 1}, brain));
+		assertFalse(mask.test(new long[] {1L << 3, 1L << 1}, brain));
+		assertFalse(mask.test(new long[] {0, 1L << 2}, brain));
+	}
+
+	@Test
+	void checksUnindexedRequirementsAgainstTheBrain() {
+		MemoryModuleType<String> indexed = memoryType();
+		MemoryModuleType<String> unindexed = memoryType();
+		MemorySlotIndex slotIndex = MemorySlotIndex.of(List.of(indexed));
+		MemoryRequirementMask mask = MemoryRequirementMask.compile(List.of(Pair.of(indexed, MemoryStatus.VALUE_PRESENT), Pair.of(unindexed, MemoryStatus.VALUE_PRESENT)), slotIndex);
+		Brain<LivingEntity> brain = brain(List.of(indexed, unindexed));
+
+		assertFalse(mask.test(new long[] {0b1}, brain));
+
+		brain.setMemory(unindexed, "value");
+
+		assertTrue(mask.test(new long[] {0b1}, brain));
+		assertFalse(mask.test(new long[] {0b0}, brain));
+	}
+
+	@Test
+	void detectsRequirementsModifiedInPlace() {
+		MemoryModuleType<String> first = memoryType();
+		MemoryModuleType<String> second = memoryType();
+		MemorySlotIndex slotIndex = MemorySlotIndex.of(List.of(first, second));
+		List<Pair<MemoryModuleType<?>, MemoryStatus>> requirements = new ArrayList<>(List.of(Pair.of(first, MemoryStatus.VALUE_PRESENT)));
+		MemoryRequirementMask mask = MemoryRequirementMask.compile(requirements, slotIndex);
+
+		assertTrue(mask.isCompiledFrom(requirements, slotIndex));
+		assertFalse(mask.isCompiledFrom(requirements, MemorySlotIndex.of(List.of(first, second))));
+
+		requirements.set(0, Pair.of(first, MemoryStatus.VALUE_ABSENT));
+
+		assertFalse(mask.isCompiledFrom(requirements, slotIndex));
+
+		mask = MemoryRequirementMask.compile(requirements, slotIndex);
+		requirements.add(Pair.of(second, MemoryStatus.VALUE_PRESENT));
+
+		assertFalse(mask.isCompiledFrom(requirements, slotIndex));
+
+		mask = MemoryRequirementMask.compile(requirements, slotIndex);
+		requirements.remove(1);
+
+		assertFalse(mask.isCompiledFrom(requirements, slotIndex));
+		assertTrue(MemoryRequirementMask.compile(requirements, slotIndex).isCompiledFrom(new ArrayList<>(requirements), slotIndex));
+	}
+
+	@Test
+	void emptyRequirementsAlwaysPass() {
+		MemorySlotIndex slotIndex = MemorySlotIndex.of(List.of(memoryType()));
+		MemoryRequirementMask mask = MemoryRequirementMask.compile(List.of(), slotIndex);
+
+		assertTrue(mask.test(new long[] {0b0}, brain(List.of())));
+		assertTrue(mask.test(new long[] {0b1}, brain(List.of())));
+	}
+}
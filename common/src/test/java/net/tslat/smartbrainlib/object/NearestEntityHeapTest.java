@@ -0,0 +1,110 @@
+package net.tslat.smartbrainlib.object;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NearestEntityHeapTest {
+	@Test
+	void drainsNearestFirst() {
+		NearestEntityHeap<String> heap = new NearestEntityHeap<>(8);
+
+		heap.offer("c", 9);
+		heap.offer("a", 1);
+		heap.offer("d", 16);
+		heap.offer("b", 4);
+
+		assertEquals(4, heap.size());
+		assertEquals(List.of("a", "b", "c", "d"), heap.drainSorted(new ArrayList<>()));
+		assertTrue(heap.isEmpty());
+	}
+
+	@Test
+	void keepsOnlyTheNearestOnceFull() {
+		NearestEntityHeap<String> heap = new NearestEntityHeap<>(2);
+
+		assertTrue(heap.offer("far", 10));
+		assertTrue(heap.offer("mid", 5));
+		assertEquals(10, heap.getFurthestDistance());
+		assertTrue(heap.offer("near", 1));
+		assertFalse(heap.offer("further", 20));
+		assertEquals(List.of("near", "mid"), heap.drainSorted(new ArrayList<>()));
+	}
+
+	@Test
+	void reportsNoFurthestDistanceUntilFull() {
+		NearestEntityHeap<String> heap = new NearestEntityHeap<>(2);
+
+		heap.offer("a", 3);
+		assertEquals(Double.MAX_VALUE, heap.getFurthestDistance());
+
+		heap.offer("b", 7);
+		assertEquals(7, heap.getFurthestDistance());
+	}
+
+	@Test
+	void breaksTiesByOfferOrder() {
+		NearestEntityHeap<String> heap = new NearestEntityHeap<>(8);
+
+		for (String entry : List.of("first", "second", "third", "fourth", "fifth")) {
+			heap.offer(entry, 2);
+		}
+
+		assertEquals(List.of("first", "second", "third", "fourth", "fifth"), heap.drainSorted(new ArrayList<>()));
+	}
+
+	@Test
+	void laterTiesAreRejectedOnceFull() {
+		NearestEntityHeap<String> heap = new NearestEntityHeap<>(2);
+
+		heap.offer("first", 2);
+		heap.offer("second", 2);
+		assertFalse(heap.offer("third", 2));
+		assertEquals(List.of("first", "second"), heap.drainSorted(new ArrayList<>()));
+	}
+
+	@Test
+	void offerOrderRestartsAfterDraining() {
+		NearestEntityHeap<String> heap = new NearestEntityHeap<>(2);
+
+		heap.offer("a", 1);
+		heap.drainSorted(new ArrayList<>());
+
+		heap.offer("b", 1);
+		heap.offer("c", 1);
+		assertEquals(List.of("b", "c"), heap.drainSorted(new ArrayList<>()));
+	}
+
+	@Test
+	void matchesStableSortWithTies() {
+		Random random = new Random(42);
+
+		for (int run = 0; run < 200; run++) {
+			int capacity = 1 + random.nextInt(12);
+			int count = random.nextInt(40);
+			NearestEntityHeap<Integer> heap = new NearestEntityHeap<>(capacity);
+			List<Integer> offered = new ArrayList<>();
+			List<Double> distances = new ArrayList<>();
+
+			for (int i = 0; i < count; i++) {
+				// Few distinct distances, so that most runs have ties at the cut-off
+				double distance = random.nextInt(6);
+
+				offered.add(i);
+				distances.add(distance);
+				heap.offer(i, distance);
+			}
+
+			List<Integer> expected = new ArrayList<>(offered);
+
+			expected.sort(Comparator.comparingDouble(distances::get));
+
+			assertEquals(expected.subList(0, Math.min(capacity, count)), heap.drainSorted(new ArrayList<>()), "Run " + run);
+		}
+	}
+}
@@ -2,10 +2,15 @@ package net.tslat.smartbrainlib;
 
 import com.mojang.datafixers.util.Pair;
 import com.mojang.serialization.Codec;
+import net.fabricmc.fabric.api.entity.event.v1.ServerLivingEntityEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerEntityEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerWorldEvents;
 import net.fabricmc.fabric.api.object.builder.v1.entity.FabricDefaultAttributeRegistry;
 import net.fabricmc.fabric.api.object.builder.v1.entity.FabricEntityTypeBuilder;
 import net.fabricmc.loader.api.FabricLoader;
 import net.minecraft.core.Registry;
+import net.minecraft.core.SectionPos;
 import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.core.registries.Registries;
 import net.minecraft.resources.Identifier;
@@ -18,8 +23,15 @@ import net.minecraft.world.entity.ai.memory.MemoryModuleType;
 import net.minecraft.world.entity.ai.sensing.SensorType;
 import net.minecraft.world.entity.monster.skeleton.Skeleton;
 import net.minecraft.world.level.Level;
+import net.minecraft.world.level.entity.EntityInLevelCallback;
+import net.tslat.smartbrainlib.api.core.SmartBrain;
+import net.tslat.smartbrainlib.api.core.instrumentation.BrainInstrumentation;
 import net.tslat.smartbrainlib.api.core.sensor.ExtendedSensor;
+import net.tslat.smartbrainlib.api.core.sensor.ParallelSensorPhase;
+import net.tslat.smartbrainlib.api.core.sensor.SharedSensorScanCache;
 import net.tslat.smartbrainlib.example.SBLSkeleton;
+import net.tslat.smartbrainlib.object.EntitySpatialIndex;
+import net.tslat.smartbrainlib.object.LineOfSightCache;
 import net.tslat.smartbrainlib.registry.SBLMemoryTypes;
 import net.tslat.smartbrainlib.registry.SBLSensors;
 
@@ -35,6 +47,7 @@ public final class SBLFabric implements SBLLoader {
 	public void init(Object eventBus) {
 		SBLMemoryTypes.init();
 		SBLSensors.init();
+		registerEvents();
 
 		if (isDevEnv())
 			registerEntities();
@@ -69,10 +82,65 @@ public final class SBLFabric implements SBLLoader {
 		return () -> sensorType;
 	}
 
+	private static void registerEvents() {
+		ServerTickEvents.START_WORLD_TICK.register(ParallelSensorPhase::onLevelTickStart);
+		ServerTickEvents.END_SERVER_TICK.register(server -> BrainInstrumentation.onServerTick());
+		ServerWorldEvents.UNLOAD.register((server, level) -> {
+			ParallelSensorPhase.onLevelUnload(level);
+			SharedSensorScanCache.onLevelUnload(level);
+			EntitySpatialIndex.onLevelUnload(level);
+			LineOfSightCache.onLevelUnload(level);
+		});
+		ServerEntityEvents.ENTITY_LOAD.register((entity, level) -> {
+			EntitySpatialIndex.onEntityLoad(entity, level);
+
+			if (EntitySpatialIndex.isIndexed(entity) && !(entity.levelCallback instanceof SpatialIndexCallback))
+				entity.setLevelCallback(new SpatialIndexCallback(entity, entity.levelCallback));
+		});
+		ServerEntityEvents.ENTITY_UNLOAD.register(EntitySpatialIndex::onEntityUnload);
+		ServerLivingEntityEvents.AFTER_DAMAGE.register((entity, source, baseDamageTaken, damageTaken, blocked) -> {
+			if (entity.getBrain() instanceof SmartBrain<?> brain)
+				brain.onHurt();
+		});
+	}
+
 	private static void registerEntities() {
 		Identifier id = Identifier.fromNamespaceAndPath(SBLConstants.MOD_ID, "sbl_skeleton");
 		SBL_SKELETON = Registry.register(BuiltInRegistries.ENTITY_TYPE, id, FabricEntityTypeBuilder.create(MobCategory.MONSTER, SBLSkeleton::new).dimensions(EntityDimensions.scalable(0.6f, 1.99f)).build(ResourceKey.create(Registries.ENTITY_TYPE, id)));
 
 		FabricDefaultAttributeRegistry.register(SBL_SKELETON, Skeleton.createAttributes());
 	}
+
+	/**
+	 * Wraps an entity's level callback to tell the {@link EntitySpatialIndex} when it moves into a new entity section, as Fabric has no event for it
+	 */
+	private static final class SpatialIndexCallback implements EntityInLevelCallback {
+		private final Entity entity;
+		private final EntityInLevelCallback callback;
+		private long section;
+
+		private SpatialIndexCallback(Entity entity, EntityInLevelCallback callback) {
+			this.entity = entity;
+			this.callback = callback;
+			this.section = SectionPos.asLong(entity.blockPosition());
+		}
+
+		@Override
+		public void onMove() {
+			this.callback.onMove();
+
+			final long section = SectionPos.asLong(this.entity.blockPosition());
+
+			if (section != this.section) {
+				this.section = section;
+
+				EntitySpatialIndex.onEntitySectionChange(this.entity, this.entity.level());
+			}
+		}
+
+		@Override
+		public void onRemove(Entity.RemovalReason reason) {
+			this.callback.onRemove(reason);
+		}
+	}
 }
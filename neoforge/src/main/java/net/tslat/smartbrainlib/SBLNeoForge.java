@@ -5,6 +5,7 @@ import com.mojang.serialization.Codec;
 import net.minecraft.core.registries.Registries;
 import net.minecraft.resources.Identifier;
 import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.entity.Entity;
 import net.minecraft.world.entity.EntityType;
 import net.minecraft.world.entity.MobCategory;
@@ -15,12 +16,26 @@ import net.minecraft.world.level.Level;
 import net.neoforged.bus.api.EventPriority;
 import net.neoforged.bus.api.IEventBus;
 import net.neoforged.fml.loading.FMLLoader;
+import net.neoforged.neoforge.common.NeoForge;
 import net.neoforged.neoforge.entity.PartEntity;
 import net.neoforged.neoforge.event.entity.EntityAttributeCreationEvent;
+import net.neoforged.neoforge.event.entity.EntityEvent;
+import net.neoforged.neoforge.event.entity.EntityJoinLevelEvent;
+import net.neoforged.neoforge.event.entity.EntityLeaveLevelEvent;
+import net.neoforged.neoforge.event.entity.living.LivingDamageEvent;
+import net.neoforged.neoforge.event.level.LevelEvent;
+import net.neoforged.neoforge.event.tick.LevelTickEvent;
+import net.neoforged.neoforge.event.tick.ServerTickEvent;
 import net.neoforged.neoforge.registries.DeferredHolder;
 import net.neoforged.neoforge.registries.DeferredRegister;
+import net.tslat.smartbrainlib.api.core.SmartBrain;
+import net.tslat.smartbrainlib.api.core.instrumentation.BrainInstrumentation;
 import net.tslat.smartbrainlib.api.core.sensor.ExtendedSensor;
+import net.tslat.smartbrainlib.api.core.sensor.ParallelSensorPhase;
+import net.tslat.smartbrainlib.api.core.sensor.SharedSensorScanCache;
 import net.tslat.smartbrainlib.example.SBLSkeleton;
+import net.tslat.smartbrainlib.object.EntitySpatialIndex;
+import net.tslat.smartbrainlib.object.LineOfSightCache;
 import net.tslat.smartbrainlib.registry.SBLMemoryTypes;
 import net.tslat.smartbrainlib.registry.SBLSensors;
 
@@ -44,6 +59,7 @@ public final class SBLNeoForge implements SBLLoader {
 
 		SBLMemoryTypes.init();
 		SBLSensors.init();
+		registerEvents();
 
 		if (isDevEnv())
 			registerEntities(modEventBus);
@@ -74,6 +90,38 @@ public final class SBLNeoForge implements SBLLoader {
 		return SENSORS.register(id, () -> new SensorType<>(sensor));
 	}
 
+	private static void registerEvents() {
+		NeoForge.EVENT_BUS.addListener(EventPriority.NORMAL, false, LevelTickEvent.Pre.class, ev -> {
+			if (ev.getLevel() instanceof ServerLevel level)
+				ParallelSensorPhase.onLevelTickStart(level);
+		});
+		NeoForge.EVENT_BUS.addListener(EventPriority.NORMAL, false, LevelEvent.Unload.class, ev -> {
+			if (ev.getLevel() instanceof ServerLevel level) {
+				ParallelSensorPhase.onLevelUnload(level);
+				SharedSensorScanCache.onLevelUnload(level);
+				EntitySpatialIndex.onLevelUnload(level);
+				LineOfSightCache.onLevelUnload(level);
+			}
+		});
+		NeoForge.EVENT_BUS.addListener(EventPriority.LOWEST, false, EntityJoinLevelEvent.class, ev -> {
+			if (!ev.getLevel().isClientSide())
+				EntitySpatialIndex.onEntityLoad(ev.getEntity(), ev.getLevel());
+		});
+		NeoForge.EVENT_BUS.addListener(EventPriority.NORMAL, false, EntityEvent.EnteringSection.class, ev -> {
+			if (!ev.getEntity().level().isClientSide())
+				EntitySpatialIndex.onEntitySectionChange(ev.getEntity(), ev.getEntity().level());
+		});
+		NeoForge.EVENT_BUS.addListener(EventPriority.NORMAL, false, EntityLeaveLevelEvent.class, ev -> {
+			if (!ev.getLevel().isClientSide())
+				EntitySpatialIndex.onEntityUnload(ev.getEntity(), ev.getLevel());
+		});
+		NeoForge.EVENT_BUS.addListener(EventPriority.NORMAL, false, LivingDamageEvent.Post.class, ev -> {
+			if (!ev.getEntity().level().isClientSide() && ev.getEntity().getBrain() instanceof SmartBrain<?> brain)
+				brain.onHurt();
+		});
+		NeoForge.EVENT_BUS.addListener(EventPriority.NORMAL, false, ServerTickEvent.Post.class, ev -> BrainInstrumentation.onServerTick());
+	}
+
 	private static void registerEntities(IEventBus modEventBus) {
 		ENTITY_TYPES.register(modEventBus);
 		modEventBus.addListener(EventPriority.NORMAL, false, EntityAttributeCreationEvent.class, ev -> {
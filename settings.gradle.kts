@@ -66,4 +66,8 @@ plugins {
 rootProject.name = "SmartBrainLib"
 include("common")
 include("fabric")
-include("neoforge")
\ No newline at end of file
+include("neoforge")
+
+// The JMH benchmarks are kept out of the default build. Run them with ./gradlew -Pbenchmarks :benchmarks:jmh
+if (providers.gradleProperty("benchmarks").isPresent)
+    include("benchmarks")
\ No newline at end of file